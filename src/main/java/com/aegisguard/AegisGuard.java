@@ -22,6 +22,8 @@ import com.aegisguard.hooks.MobBarrierTask;
 import com.aegisguard.hooks.WildernessRevertTask;
 import com.aegisguard.listeners.BannedPlayerListener;
 import com.aegisguard.listeners.LevelingListener;
+import com.aegisguard.protection.PlayerRegionTracker;
+import com.aegisguard.protection.PhysicsProtection;
 import com.aegisguard.protection.ProtectionManager;
 import com.aegisguard.selection.SelectionService;
 import com.aegisguard.util.EffectUtil;
@@ -29,6 +31,7 @@ import com.aegisguard.util.MessagesUtil;
 import com.aegisguard.visualization.WandEquipListener;
 import com.aegisguard.world.WorldRulesManager;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -57,6 +60,7 @@ public class AegisGuard extends JavaPlugin {
     private IDataStore plotStore;
     private GUIManager gui;
     private ProtectionManager protection;
+    private PlayerRegionTracker regionTracker;
     private SelectionService selection;
     private VaultHook vault;
     private EconomyManager ecoManager;
@@ -79,6 +83,7 @@ public class AegisGuard extends JavaPlugin {
     private Object autoSaveTask;
     private Object upkeepTask;
     private Object wildernessRevertTask;
+    private Object wildernessLogTask;
     private Object mobBarrierTask;
 
     // --- GETTERS ---
@@ -89,6 +94,7 @@ public class AegisGuard extends JavaPlugin {
     public GUIManager getGuiManager() { return gui; } // Alias
     public ProtectionManager protection() { return protection; }
     public ProtectionManager getProtectionManager() { return protection; }
+    public PlayerRegionTracker regions() { return regionTracker; }
     public SelectionService selection() { return selection; }
     public SelectionService getSelection() { return selection; }
     public VaultHook vault() { return vault; }
@@ -137,7 +143,14 @@ public class AegisGuard extends JavaPlugin {
 
         if (storageType.contains("mysql") || storageType.contains("mariadb") || storageType.contains("sql")) {
             getLogger().info("Initializing SQL DataStore (Custom/Local)...");
-            this.plotStore = new SQLDataStore(this);
+            try {
+                this.plotStore = new SQLDataStore(this);
+            } catch (IllegalStateException e) {
+                // Running without storage would leave every claim unprotected
+                getLogger().severe(e.getMessage() + " Disabling AegisGuard.");
+                Bukkit.getPluginManager().disablePlugin(this);
+                return;
+            }
         } else {
             getLogger().info("Initializing YML DataStore (File System)...");
             this.plotStore = new YMLDataStore(this);
@@ -154,10 +167,19 @@ public class AegisGuard extends JavaPlugin {
         this.expansionManager = new ExpansionRequestManager(this);
         this.discord = new DiscordWebhook(this);
         this.sidebarManager = new SidebarManager(this);
+        this.regionTracker = new PlayerRegionTracker(this);
         this.protection = new ProtectionManager(this);
 
         // Load Data
-        this.plotStore.load();
+        try {
+            this.plotStore.load();
+        } catch (IllegalStateException e) {
+            // A partial load would leave claims unprotected and members without their roles
+            getLogger().severe(e.getMessage() + " Disabling AegisGuard.");
+            this.plotStore = null; // Nothing loaded, nothing to save on disable
+            Bukkit.getPluginManager().disablePlugin(this);
+            return;
+        }
 
         runGlobalAsync(() -> {
             if (messages != null) messages.loadPlayerPreferences();
@@ -166,7 +188,11 @@ public class AegisGuard extends JavaPlugin {
 
         // Register Events
         Bukkit.getPluginManager().registerEvents(new GUIListener(this), this);
+        Bukkit.getPluginManager().registerEvents(regionTracker, this);
         Bukkit.getPluginManager().registerEvents(protection, this);
+        if (cfg().raw().getBoolean("protections.border_physics", true)) {
+            Bukkit.getPluginManager().registerEvents(new PhysicsProtection(this), this);
+        }
         Bukkit.getPluginManager().registerEvents(selection, this);
 
         if (cfg().isLevelingEnabled()) {
@@ -237,6 +263,7 @@ public class AegisGuard extends JavaPlugin {
         cancelTaskReflectively(autoSaveTask);
         cancelTaskReflectively(upkeepTask);
         cancelTaskReflectively(wildernessRevertTask);
+        cancelTaskReflectively(wildernessLogTask);
         cancelTaskReflectively(mobBarrierTask);
 
         // Force Save on Disable
@@ -315,6 +342,17 @@ public class AegisGuard extends JavaPlugin {
         }
     }
 
+    /**
+     * Runs on the thread that owns the chunk (Folia region thread, main thread otherwise).
+     */
+    public void runAtChunk(World world, int chunkX, int chunkZ, Runnable task) {
+        if (isFolia) {
+            Bukkit.getRegionScheduler().run(this, world, chunkX, chunkZ, t -> task.run());
+        } else {
+            Bukkit.getScheduler().runTask(this, task);
+        }
+    }
+
     private Object scheduleAsyncRepeating(Runnable task, long intervalTicks) {
         if (isFolia) {
             try {
@@ -377,6 +415,10 @@ public class AegisGuard extends JavaPlugin {
         long interval = 20L * 60 * cfg().raw().getLong("wilderness_revert.check_interval_minutes", 10);
         WildernessRevertTask task = new WildernessRevertTask(this, plotStore);
         wildernessRevertTask = scheduleAsyncRepeating(task::run, interval);
+
+        // Write-behind flush for the wilderness block log
+        long flushInterval = Math.max(1L, cfg().raw().getLong("wilderness_revert.log_flush_interval_ticks", 100));
+        wildernessLogTask = scheduleAsyncRepeating(plotStore::flushWildernessLog, flushInterval);
     }
 
     private void startMobBarrierTask() {
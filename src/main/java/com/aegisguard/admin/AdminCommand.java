@@ -2,6 +2,9 @@ package com.aegisguard.admin;
 
 import com.aegisguard.AegisGuard;
 import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
+import com.aegisguard.data.SQLDataStore;
+import com.aegisguard.data.StoreMigrator;
 import com.aegisguard.selection.SelectionService;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -24,7 +27,7 @@ import java.util.List;
 public class AdminCommand implements CommandExecutor, TabCompleter {
 
     private final AegisGuard plugin;
-    private static final String[] SUB_COMMANDS = { "reload", "bypass", "menu", "convert", "wand" };
+    private static final String[] SUB_COMMANDS = { "reload", "bypass", "menu", "convert", "wand", "migrate", "stats" };
 
     public AdminCommand(AegisGuard plugin) {
         this.plugin = plugin;
@@ -39,7 +42,12 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 plugin.msg().reload();
                 plugin.worldRules().reload();
                 plugin.store().load();
+                plugin.protection().decisions().clear();
                 sender.sendMessage("[AegisGuard] Reload complete.");
+            } else if (args.length > 0 && args[0].equalsIgnoreCase("migrate")) {
+                startMigration(sender, args);
+            } else if (args.length > 0 && args[0].equalsIgnoreCase("stats")) {
+                sendStats(sender);
             } else {
                 sender.sendMessage("[AegisGuard] GUI commands are player-only. Use 'aegisadmin reload' to reload config.");
             }
@@ -65,6 +73,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 plugin.msg().reload();
                 plugin.worldRules().reload();
                 plugin.store().load();
+                plugin.protection().decisions().clear();
                 p.sendMessage(ChatColor.GREEN + "✔ [AegisGuard] Configuration & Data reloaded.");
                 plugin.effects().playConfirm(p);
                 break;
@@ -93,18 +102,23 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                     return true;
                 }
                 
-                // 1. Change Owner to Server UUID
-                plugin.store().changePlotOwner(plot, Plot.SERVER_OWNER_UUID, "Server");
-                
-                // 2. Lock Down Flags
-                plot.setFlag("pvp", false);
-                plot.setFlag("mobs", false);
-                plot.setFlag("build", false);
-                plot.setFlag("safe_zone", true);
-                
-                plugin.store().setDirty(true);
-                p.sendMessage(ChatColor.GREEN + "✔ Plot '" + plot.getPlotId().toString().substring(0,8) + "' converted to Server Zone.");
-                plugin.effects().playConfirm(p);
+                // 1. Lock Down Flags
+                plot.setFlag(PlotFlag.PVP, false);
+                plot.setFlag(PlotFlag.MOBS, false);
+                plot.setFlag(PlotFlag.BUILD, false);
+                plot.setFlag(PlotFlag.SAFE_ZONE, true);
+
+                // 2. Change Owner to Server UUID (saves the flags with it); confirm once stored
+                String shortId = plot.getPlotId().toString().substring(0, 8);
+                plugin.store().changePlotOwnerAsync(plot, Plot.SERVER_OWNER_UUID, "Server").whenComplete((v, err) ->
+                        plugin.runMain(p, () -> {
+                            if (err != null) {
+                                p.sendMessage(ChatColor.RED + "❌ Plot '" + shortId + "' was converted but could not be saved yet (see console).");
+                                return;
+                            }
+                            p.sendMessage(ChatColor.GREEN + "✔ Plot '" + shortId + "' converted to Server Zone.");
+                            plugin.effects().playConfirm(p);
+                        }));
                 break;
                 
             // --- ADMIN WAND ---
@@ -117,12 +131,65 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 plugin.effects().playClaimSuccess(p);
                 break;
 
+            case "stats":
+                sendStats(p);
+                break;
+
+            // --- STORAGE MIGRATION ---
+            case "migrate":
+                startMigration(p, args);
+                break;
+
             default:
-                p.sendMessage(ChatColor.RED + "Unknown subcommand. Usage: /agadmin <reload|bypass|menu|convert|wand>");
+                p.sendMessage(ChatColor.RED + "Unknown subcommand. Usage: /agadmin <reload|bypass|menu|convert|wand|migrate|stats>");
         }
         return true;
     }
 
+    /**
+     * /agadmin stats - protection decision cache and save counters.
+     */
+    private void sendStats(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "[AegisGuard] " + ChatColor.GRAY + "Plots: " + plugin.store().getAllPlots().size()
+                + ", unsaved: " + (plugin.store().isDirty() ? "yes" : "no"));
+        if (plugin.protection() != null) {
+            sender.sendMessage(ChatColor.GOLD + "[AegisGuard] " + ChatColor.GRAY + "Build decisions: " + plugin.protection().decisions());
+        }
+        if (plugin.store() instanceof SQLDataStore sql) {
+            sender.sendMessage(ChatColor.GOLD + "[AegisGuard] " + ChatColor.GRAY + "Plot saves: " + sql.getSaveMetrics());
+        }
+    }
+
+    /**
+     * /agadmin migrate <yml|sqlite|mysql> [restart]
+     * Copies all data from the active store into the given storage type in the background.
+     */
+    private void startMigration(CommandSender sender, String[] args) {
+        if (args.length < 2 || !StoreMigrator.TYPES.contains(args[1].toLowerCase())) {
+            sender.sendMessage(ChatColor.RED + "Usage: /agadmin migrate <yml|sqlite|mysql> [restart]");
+            return;
+        }
+        if (StoreMigrator.isRunning()) {
+            sender.sendMessage(ChatColor.RED + "❌ A storage migration is already running.");
+            return;
+        }
+
+        boolean restart = args.length > 2 && args[2].equalsIgnoreCase("restart");
+        StoreMigrator migrator = new StoreMigrator(plugin, args[1], restart, message -> {
+            plugin.getLogger().info("[Migration] " + message);
+            if (sender instanceof Player p) {
+                plugin.runMainGlobal(() -> { if (p.isOnline()) p.sendMessage(ChatColor.AQUA + "[Migration] " + ChatColor.GRAY + message); });
+            }
+        });
+        if (migrator.getSourceType().equals(args[1].toLowerCase())) {
+            sender.sendMessage(ChatColor.RED + "❌ Storage is already '" + migrator.getSourceType() + "'.");
+            return;
+        }
+        if (!migrator.start()) {
+            sender.sendMessage(ChatColor.RED + "❌ A storage migration is already running.");
+        }
+    }
+
     private ItemStack createAdminScepter() {
         Material mat = plugin.cfg().getAdminWandMaterial();
         if (mat == null) mat = Material.BLAZE_ROD;
@@ -151,6 +218,14 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             Collections.sort(completions);
             return completions;
         }
+        if (args.length == 2 && args[0].equalsIgnoreCase("migrate")) {
+            List<String> completions = new ArrayList<>();
+            StringUtil.copyPartialMatches(args[1], StoreMigrator.TYPES, completions);
+            return completions;
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("migrate")) {
+            return StringUtil.copyPartialMatches(args[2], List.of("restart"), new ArrayList<>());
+        }
         return null;
     }
 }
@@ -1,14 +1,21 @@
 package com.aegisguard.config;
 
 import com.aegisguard.AegisGuard;
+import com.aegisguard.data.RolePermission;
 import com.aegisguard.economy.CurrencyType;
+import com.aegisguard.protection.BlockCategory;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class AGConfig {
 
@@ -44,6 +51,13 @@ public class AGConfig {
     private boolean flyDefault;
     private boolean entryDefault;
 
+    // Roles Cache (role name -> RolePermission bitmask), swapped whole on reload
+    private volatile Map<String, Long> roleMasks = Collections.emptyMap();
+    private volatile Map<String, Set<String>> roleCustomPermissions = Collections.emptyMap(); // Names outside RolePermission
+
+    // Block categories (Material ordinal -> BlockCategory bitmask), swapped whole on reload
+    private volatile byte[] blockCategories = new byte[0];
+
     public AGConfig(AegisGuard plugin) {
         this.plugin = plugin;
         reload();
@@ -92,6 +106,46 @@ public class AGConfig {
         this.farmDefault = config.getBoolean("protections.farm_protection", true);
         this.flyDefault = config.getBoolean("protections.fly", false);
         this.entryDefault = config.getBoolean("protections.entry", true);
+
+        compileRoles();
+        this.blockCategories = BlockCategory.compile(config.getConfigurationSection("protections.block_categories"), plugin.getLogger());
+    }
+
+    private void compileRoles() {
+        Map<String, Long> masks = new HashMap<>();
+        Map<String, Set<String>> custom = new HashMap<>();
+        ConfigurationSection roles = config.getConfigurationSection("roles");
+        if (roles != null) {
+            for (String role : roles.getKeys(false)) {
+                List<String> names = config.getStringList("roles." + role + ".permissions");
+                masks.put(role, RolePermission.compile(names));
+                custom.put(role, RolePermission.customNames(names));
+            }
+        }
+        this.roleMasks = masks;
+        this.roleCustomPermissions = custom;
+    }
+
+    /**
+     * Compiled permission bitmask for a role (0 if the role is not configured).
+     */
+    public long getRoleMask(String role) {
+        Long mask = roleMasks.get(role);
+        return mask != null ? mask : 0L;
+    }
+
+    /**
+     * Permission names a role lists that are not RolePermission constants (addon/custom ones).
+     */
+    public Set<String> getRoleCustomPermissions(String role) {
+        return roleCustomPermissions.getOrDefault(role, Collections.emptySet());
+    }
+
+    /**
+     * Compiled BlockCategory bitmask for a material (test with BlockCategory.in / INTERACTABLE).
+     */
+    public int getBlockCategories(Material type) {
+        return blockCategories[type.ordinal()];
     }
 
     public FileConfiguration raw() { return config; }
@@ -0,0 +1,205 @@
+package com.aegisguard.data;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * ChunkPlotMap (Primitive Cache) - v1.2.3
+ * - Open-addressing hash map from a packed chunk key (long) to an immutable Plot[].
+ * - No boxing, no String keys: a lookup is a hash mix plus a short linear probe.
+ * - Writers are serialized by the owning index; readers are lock-free. Values are
+ *   published with release/acquire array access, so a reader that sees a value also sees
+ *   its key and the array's contents.
+ * - Removed keys keep their slot (with an empty array) until the next rehash,
+ *   so concurrent readers never observe a broken probe chain.
+ * - Also used as a single-thread memo (cached/put): a memoized "no plots" answer is kept
+ *   as its own zero-length array, so it survives rehashes unlike a removed key.
+ */
+public final class ChunkPlotMap {
+
+    static final Plot[] EMPTY = new Plot[0];
+    private static final Plot[] NO_PLOTS = new Plot[0]; // Memoized empty answer (not a removal)
+
+    private static final int MIN_CAPACITY = 16;
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Plot[][].class);
+
+    // Table is swapped as a whole on rehash so readers always see a consistent pair
+    private static final class Table {
+        final long[] keys;
+        final Plot[][] values;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Plot[capacity][];
+            this.mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private int used;   // Slots ever filled (live + emptied), drives rehash
+    private int live;   // Slots holding a non-empty array
+
+    // ----------------------------------------
+    // --- KEY HELPERS ---
+    // ----------------------------------------
+
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int mix(long key) {
+        // Murmur3 fmix64, folded to int
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    // ----------------------------------------
+    // --- READS (lock-free) ---
+    // ----------------------------------------
+
+    /**
+     * Returns the plots registered for the chunk, or null when none are.
+     */
+    Plot[] get(long key) {
+        Table t = table;
+        int i = mix(key) & t.mask;
+        while (true) {
+            Plot[] v = (Plot[]) VALUES.getAcquire(t.values, i);
+            if (v == null) return null;
+            if (t.keys[i] == key) return v.length == 0 ? null : v;
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Memo lookup: the array last put for the key (possibly empty), or null if there is none.
+     */
+    public Plot[] cached(long key) {
+        Table t = table;
+        int i = mix(key) & t.mask;
+        while (true) {
+            Plot[] v = t.values[i];
+            if (v == null) return null;
+            if (t.keys[i] == key) return v == EMPTY ? null : v;
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    // ----------------------------------------
+    // --- WRITES (caller must hold the index lock) ---
+    // ----------------------------------------
+
+    void add(long key, Plot plot) {
+        Table t = table;
+        int i = mix(key) & t.mask;
+        while (true) {
+            Plot[] v = t.values[i];
+            if (v == null) {
+                // Key first, then the release store: a reader acquiring the value sees its key
+                t.keys[i] = key;
+                VALUES.setRelease(t.values, i, new Plot[]{plot});
+                used++;
+                live++;
+                if (used * 2 > t.keys.length) rehash();
+                return;
+            }
+            if (t.keys[i] == key) {
+                for (Plot existing : v) {
+                    if (existing == plot) return;
+                }
+                Plot[] grown = Arrays.copyOf(v, v.length + 1);
+                grown[v.length] = plot;
+                if (v.length == 0) live++;
+                VALUES.setRelease(t.values, i, grown);
+                return;
+            }
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    /**
+     * Memo store: replaces whatever the key held. Single-threaded use only.
+     */
+    public void put(long key, Plot[] plots) {
+        Plot[] value = plots.length == 0 ? NO_PLOTS : plots;
+        Table t = table;
+        int i = mix(key) & t.mask;
+        while (true) {
+            Plot[] v = t.values[i];
+            if (v == null) {
+                t.keys[i] = key;
+                t.values[i] = value;
+                used++;
+                live++;
+                if (used * 2 > t.keys.length) rehash();
+                return;
+            }
+            if (t.keys[i] == key) {
+                if (v == EMPTY) live++;
+                t.values[i] = value;
+                return;
+            }
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    void remove(long key, Plot plot) {
+        Table t = table;
+        int i = mix(key) & t.mask;
+        while (true) {
+            Plot[] v = t.values[i];
+            if (v == null) return;
+            if (t.keys[i] == key) {
+                int idx = -1;
+                for (int j = 0; j < v.length; j++) {
+                    if (v[j] == plot || v[j].equals(plot)) { idx = j; break; }
+                }
+                if (idx < 0) return;
+                if (v.length == 1) {
+                    VALUES.setRelease(t.values, i, EMPTY);
+                    live--;
+                    return;
+                }
+                Plot[] shrunk = new Plot[v.length - 1];
+                System.arraycopy(v, 0, shrunk, 0, idx);
+                System.arraycopy(v, idx + 1, shrunk, idx, v.length - idx - 1);
+                VALUES.setRelease(t.values, i, shrunk);
+                return;
+            }
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    public void clear() {
+        table = new Table(MIN_CAPACITY);
+        used = 0;
+        live = 0;
+    }
+
+    private void rehash() {
+        Table old = table;
+        int capacity = MIN_CAPACITY;
+        while (capacity < live * 4) capacity <<= 1;
+
+        Table fresh = new Table(capacity);
+        int filled = 0;
+        for (int s = 0; s < old.keys.length; s++) {
+            Plot[] v = old.values[s];
+            if (v == null || v == EMPTY) continue;
+            int i = mix(old.keys[s]) & fresh.mask;
+            while (fresh.values[i] != null) i = (i + 1) & fresh.mask;
+            fresh.keys[i] = old.keys[s];
+            fresh.values[i] = v;
+            filled++;
+        }
+        used = filled;
+        live = filled;
+        table = fresh;
+    }
+}
@@ -5,6 +5,8 @@ import org.bukkit.Location;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * IDataStore (Interface) - v1.2.1
@@ -49,24 +51,57 @@ public interface IDataStore {
     List<Plot> getPlots(UUID owner);
 
     /**
-     * Gets a single plot by its unique ID.
+     * Gets a single plot by its unique ID, if it belongs to 'owner'. O(1).
      */
     Plot getPlot(UUID owner, UUID plotId);
 
+    /**
+     * Gets a single plot by its unique ID, regardless of owner. O(1).
+     */
+    Plot getPlotById(UUID plotId);
+
     /**
      * Gets all plots from all owners.
+     * Returns an immutable snapshot; it is only rebuilt after a plot is added,
+     * removed or changes owner, so callers must not (and need not) copy it.
      */
     Collection<Plot> getAllPlots();
 
     /**
-     * Gets all plots that are currently for sale.
+     * Counter that moves whenever a plot is added, removed, changes owner or
+     * changes bounds. Periodic consumers can skip work while it stays the same.
+     */
+    long getPlotsGeneration();
+
+    /**
+     * Gets all plots that are currently for sale, cheapest first.
+     * Live sorted index; the returned list is immutable.
+     */
+    List<Plot> getPlotsForSale();
+
+    /**
+     * Gets all plots that are currently for auction, lowest bid first.
+     * Live sorted index; the returned list is immutable.
+     */
+    List<Plot> getPlotsForAuction();
+
+    /**
+     * Gets all plots that are currently for rent, cheapest first.
+     * Live sorted index; the returned list is immutable.
+     */
+    List<Plot> getPlotsForRent();
+
+    /**
+     * Gets all server warps, sorted by warp name.
+     * Live sorted index; the returned list is immutable.
      */
-    Collection<Plot> getPlotsForSale();
+    List<Plot> getServerWarps();
 
     /**
-     * Gets all plots that are currently for auction.
+     * Gets all liked plots, most likes first.
+     * Live sorted index; the returned list is immutable.
      */
-    Collection<Plot> getPlotsForAuction();
+    List<Plot> getTopLikedPlots();
 
     /**
      * Finds the plot at a specific Bukkit Location.
@@ -78,6 +113,16 @@ public interface IDataStore {
      * @param plotToIgnore The plot being checked (optional, can be null).
      */
     boolean isAreaOverlapping(Plot plotToIgnore, String world, int x1, int z1, int x2, int z2);
+
+    /**
+     * Gets all plots intersecting a rectangle (inclusive block coordinates).
+     */
+    Collection<Plot> getPlotsInArea(String world, int x1, int z1, int x2, int z2);
+
+    /**
+     * Gets all plots whose nearest edge is within 'radius' blocks of a location.
+     */
+    Collection<Plot> getPlotsNear(Location loc, int radius);
     
     // ----------------------------------------
     // --- PLOT MODIFICATION ---
@@ -127,6 +172,56 @@ public interface IDataStore {
      * Runs the admin task to remove all plots owned by banned players.
      */
     void removeBannedPlots();
+
+    // ----------------------------------------
+    // --- ASYNC MODIFICATION ---
+    // ----------------------------------------
+    // The change is applied in memory right away (lookups see it immediately); the future
+    // completes once it is durable. Storage I/O runs on the store's executor, in order per
+    // plot, so callers on the main thread never wait on disk or the database. A failed write
+    // completes the future exceptionally; the plot stays dirty and the next save retries it.
+
+    /**
+     * Writes the plot's pending changes now instead of at the next batch flush.
+     * Completes at once if there is nothing left to write (or the plot was removed).
+     * Changes made through Plot setters need savePlot first; savePlotAsync does both.
+     */
+    CompletableFuture<Void> flushPlot(Plot plot);
+
+    /**
+     * Creates and stores a new plot from two locations.
+     */
+    CompletableFuture<Plot> createPlotAsync(UUID owner, Location c1, Location c2);
+
+    /**
+     * Removes a single plot by its ID; completes once it is gone from storage.
+     */
+    CompletableFuture<Void> removePlotAsync(UUID owner, UUID plotId);
+
+    default CompletableFuture<Void> addPlotAsync(Plot plot) {
+        addPlot(plot);
+        return flushPlot(plot);
+    }
+
+    default CompletableFuture<Void> savePlotAsync(Plot plot) {
+        savePlot(plot);
+        return flushPlot(plot);
+    }
+
+    default CompletableFuture<Void> addPlayerRoleAsync(Plot plot, UUID playerUUID, String role) {
+        addPlayerRole(plot, playerUUID, role);
+        return flushPlot(plot);
+    }
+
+    default CompletableFuture<Void> removePlayerRoleAsync(Plot plot, UUID playerUUID) {
+        removePlayerRole(plot, playerUUID);
+        return flushPlot(plot);
+    }
+
+    default CompletableFuture<Void> changePlotOwnerAsync(Plot plot, UUID newOwner, String newOwnerName) {
+        changePlotOwner(plot, newOwner, newOwnerName);
+        return flushPlot(plot);
+    }
     
     // ----------------------------------------
     // --- WILDERNESS REVERT ---
@@ -134,11 +229,47 @@ public interface IDataStore {
     
     /**
      * Logs a block change in the wilderness.
+     * Cheap and safe from event threads: entries are buffered and written in batches.
      */
     void logWildernessBlock(Location loc, String oldMat, String newMat, UUID playerUUID);
+
+    /**
+     * Writes any buffered wilderness log entries (called on a fixed interval and on saveSync).
+     */
+    void flushWildernessLog();
     
     /**
      * Queries and reverts a batch of expired wilderness blocks.
      */
     void revertWildernessBlocks(long timestamp, int limit);
+
+    // ----------------------------------------
+    // --- BULK TRANSFER (storage migration) ---
+    // ----------------------------------------
+
+    /**
+     * Upserts 'plots' (which must not belong to another store) and deletes 'removed' by id,
+     * blocking until both are written. Each plot replaces whatever is stored under its id.
+     * @return true if every plot was written.
+     */
+    boolean importPlots(Collection<Plot> plots, Collection<UUID> removed);
+
+    /**
+     * Reads every plot in storage, including plots in worlds that are not loaded (the cache
+     * skips those), as detached objects. The cache is left untouched.
+     * @throws IllegalStateException if storage could not be read completely.
+     */
+    List<Plot> readStoredPlots();
+
+    /**
+     * Streams up to 'limit' wilderness log entries with an id above 'afterId', in id order.
+     * @return the id of the last entry passed to 'sink' (afterId if there were none).
+     */
+    long exportWildernessLog(long afterId, int limit, Consumer<WildernessLogBuffer.Entry> sink);
+
+    /**
+     * Appends wilderness log entries as they are (original time and player), blocking.
+     * @return false if they were not written (e.g. this store keeps no wilderness log).
+     */
+    boolean importWildernessLog(List<WildernessLogBuffer.Entry> entries);
 }
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -23,26 +24,6 @@ public class Plot {
     // Special UUID for server-owned plots (Admin Zones/Spawn)
     public static final UUID SERVER_OWNER_UUID = UUID.fromString("00000000-0000-0000-0000-000000000000");
 
-    // Default Flag State
-    private static final Map<String, Boolean> DEFAULT_FLAGS = Map.ofEntries(
-            Map.entry("pvp", false),
-            Map.entry("containers", true),
-            Map.entry("mobs", false), // Changed to false to protect by default
-            Map.entry("pets", true),
-            Map.entry("entities", true),
-            Map.entry("farm", true),
-            Map.entry("tnt-damage", false),
-            Map.entry("fire-spread", false),
-            Map.entry("piston-use", false),
-            Map.entry("build", true),
-            Map.entry("interact", true),
-            Map.entry("fly", false),
-            Map.entry("entry", true),
-            Map.entry("safe_zone", false),
-            Map.entry("hunger", true),
-            Map.entry("sleep", true)
-    );
-
     // --- Core Identity ---
     private final UUID plotId;
     private UUID owner;
@@ -54,7 +35,10 @@ public class Plot {
     private int x1, z1, x2, z2;
 
     // --- Data Containers ---
-    private final Map<String, Boolean> flags = new HashMap<>();
+    // Built-in flags as bits (see PlotFlag); custom flags are allocated on first use
+    private long flagValues = PlotFlag.defaultValues();
+    private long flagsSet = PlotFlag.defaultMask();
+    private Map<String, Boolean> customFlags;
     private final Map<UUID, String> playerRoles = new ConcurrentHashMap<>();
     private final Set<UUID> bannedPlayers = new HashSet<>();
     private final List<Zone> zones = new ArrayList<>();
@@ -98,6 +82,14 @@ public class Plot {
     private String warpName;
     private Material warpIcon;
 
+    // --- Index Hook & Save Tracking (not persisted) ---
+    private transient volatile PlotObserver observer;
+    private final transient AtomicLong revision = new AtomicLong();
+    private transient volatile long savedRevision;
+    private final transient AtomicLong protectionRevision = new AtomicLong(); // Roles, bans, owner, flags, status, rent, zones
+    private final transient AtomicLong zoneLayout = new AtomicLong(); // Bumped when zones are added, removed or resized
+    private transient volatile ZoneIndex zoneIndex;
+
     // --- CONSTRUCTORS ---
 
     public Plot(UUID plotId, UUID owner, String ownerName, String world, int x1, int z1, int x2, int z2, long lastUpkeepPayment) {
@@ -118,7 +110,6 @@ public class Plot {
         if (!isServerZone()) {
             this.playerRoles.put(owner, "owner");
         }
-        this.flags.putAll(DEFAULT_FLAGS);
     }
 
     public Plot(UUID plotId, UUID owner, String ownerName, String world, int x1, int z1, int x2, int z2) {
@@ -172,6 +163,8 @@ public class Plot {
         this.z1 -= amount;
         this.x2 += amount;
         this.z2 += amount;
+        boundsChanged();
+        markDirty();
     }
 
     public int getMaxMembers() {
@@ -180,6 +173,7 @@ public class Plot {
 
     public void setMaxMembers(int max) {
         this.maxMembers = max;
+        markDirty();
     }
 
     public boolean isOwner(Player player) {
@@ -192,7 +186,25 @@ public class Plot {
 
     // --- PERMISSIONS SYSTEM ---
 
+    public boolean hasPermission(UUID playerUUID, RolePermission permission, AegisGuard plugin) {
+        return hasPermission(playerUUID, permission, null, plugin);
+    }
+
+    /**
+     * String form kept for API users; prefer the RolePermission overload on hot paths.
+     * Names that are not RolePermission constants (addon permissions) are granted by roles
+     * listing them, or ALL.
+     */
     public boolean hasPermission(UUID playerUUID, String permission, AegisGuard plugin) {
+        RolePermission known = RolePermission.fromName(permission);
+        if (known != null) return hasPermission(playerUUID, known, null, plugin);
+        return hasPermission(playerUUID, null, permission != null ? permission.toUpperCase() : null, plugin);
+    }
+
+    /**
+     * @param permission the permission to check, or null to check 'custom' instead.
+     */
+    private boolean hasPermission(UUID playerUUID, @Nullable RolePermission permission, @Nullable String custom, AegisGuard plugin) {
         // Server Zones: Always deny unless admin bypass is checked externally
         if (isServerZone()) return false;
 
@@ -202,24 +214,23 @@ public class Plot {
         // Rent Logic
         if (currentRenter != null && currentRenter.equals(playerUUID)) {
             if (System.currentTimeMillis() < rentExpires) {
-                // Safely fetch permissions set from config
-                Set<String> perms = new HashSet<>();
-                List<String> configPerms = plugin.cfg().raw().getStringList("roles.member.permissions"); // Fallback to member role for renters
-                if (configPerms != null) perms.addAll(configPerms);
-
-                return perms.contains(permission.toUpperCase()) || perms.contains("ALL");
+                return isGranted(plugin, "member", permission, custom); // Fallback to member role for renters
             } else {
                 this.currentRenter = null;
                 this.rentExpires = 0;
+                protectionChanged();
+                markDirty();
             }
         }
 
-        String role = getRole(playerUUID);
-        Set<String> permissions = new HashSet<>();
-        List<String> rolePerms = plugin.cfg().raw().getStringList("roles." + role + ".permissions");
-        if (rolePerms != null) permissions.addAll(rolePerms);
+        return isGranted(plugin, getRole(playerUUID), permission, custom);
+    }
 
-        return permissions.contains(permission.toUpperCase()) || permissions.contains("ALL");
+    private static boolean isGranted(AegisGuard plugin, String role, @Nullable RolePermission permission, @Nullable String custom) {
+        long mask = plugin.cfg().getRoleMask(role);
+        if (permission != null) return permission.isGrantedBy(mask);
+        if ((mask & RolePermission.ALL.bit()) != 0) return true;
+        return custom != null && plugin.cfg().getRoleCustomPermissions(role).contains(custom);
     }
 
     public String getRole(UUID playerUUID) {
@@ -233,6 +244,8 @@ public class Plot {
             playerRoles.put(playerUUID, role.toLowerCase());
             bannedPlayers.remove(playerUUID);
         }
+        protectionChanged();
+        markDirty();
     }
 
     public Map<UUID, String> getPlayerRoles() {
@@ -241,6 +254,8 @@ public class Plot {
 
     public void removeRole(UUID playerUUID) {
         playerRoles.remove(playerUUID);
+        protectionChanged();
+        markDirty();
     }
 
     // --- GETTERS & SETTERS ---
@@ -254,6 +269,8 @@ public class Plot {
 
     public void setOwner(UUID owner) {
         this.owner = owner;
+        protectionChanged();
+        markDirty();
     }
 
     public String getOwnerName() {
@@ -262,6 +279,7 @@ public class Plot {
 
     public void setOwnerName(String name) {
         this.ownerName = name;
+        markDirty();
     }
 
     public String getWorld() {
@@ -286,18 +304,94 @@ public class Plot {
 
     public void setX1(int x) {
         this.x1 = x;
+        boundsChanged();
+        markDirty();
     }
 
     public void setZ1(int z) {
         this.z1 = z;
+        boundsChanged();
+        markDirty();
     }
 
     public void setX2(int x) {
         this.x2 = x;
+        boundsChanged();
+        markDirty();
     }
 
     public void setZ2(int z) {
         this.z2 = z;
+        boundsChanged();
+        markDirty();
+    }
+
+    /**
+     * Moves all four edges at once (re-indexes a single time).
+     */
+    public void setBounds(int x1, int z1, int x2, int z2) {
+        this.x1 = Math.min(x1, x2);
+        this.z1 = Math.min(z1, z2);
+        this.x2 = Math.max(x1, x2);
+        this.z2 = Math.max(z1, z2);
+        boundsChanged();
+        markDirty();
+    }
+
+    // --- INDEX HOOK ---
+
+    void setObserver(PlotObserver observer) {
+        this.observer = observer;
+    }
+
+    private void boundsChanged() {
+        PlotObserver o = observer;
+        if (o != null) o.onBoundsChanged(this);
+    }
+
+    private void listingChanged() {
+        PlotObserver o = observer;
+        if (o != null) o.onListingChanged(this);
+    }
+
+    // --- SAVE TRACKING ---
+
+    /**
+     * Bumps the revision and queues the plot for the next store flush.
+     * Called by every mutator; call it yourself after mutating a live collection.
+     */
+    public void markDirty() {
+        revision.incrementAndGet();
+        PlotObserver o = observer;
+        if (o != null) o.onDirty(this);
+    }
+
+    public long getRevision() {
+        return revision.get();
+    }
+
+    /**
+     * Bumped only by changes that can alter a protection decision (roles, bans, owner,
+     * flags, status, rent, zones), unlike getRevision() which also moves on XP, likes,
+     * upkeep and cosmetics. Keys DecisionCache.
+     */
+    public long getProtectionRevision() {
+        return protectionRevision.get();
+    }
+
+    private void protectionChanged() {
+        protectionRevision.incrementAndGet();
+    }
+
+    public boolean isDirty() {
+        return revision.get() != savedRevision;
+    }
+
+    /**
+     * Records that the state as of 'rev' is persisted (later edits keep it dirty).
+     */
+    void markSaved(long rev) {
+        if (rev > savedRevision) savedRevision = rev;
     }
 
     public void internalSetOwner(UUID newOwner, String newOwnerName) {
@@ -311,24 +405,81 @@ public class Plot {
         this.likedBy.clear();
         this.entryTitle = null;
         this.description = null;
+        protectionChanged();
+        markDirty();
     }
 
     // Flags
+    public boolean getFlag(PlotFlag flag, boolean def) {
+        long bit = flag.bit();
+        return (flagsSet & bit) != 0 ? (flagValues & bit) != 0 : def;
+    }
+
+    public void setFlag(PlotFlag flag, boolean value) {
+        long bit = flag.bit();
+        flagsSet |= bit;
+        flagValues = value ? (flagValues | bit) : (flagValues & ~bit);
+        protectionChanged();
+        markDirty();
+    }
+
     public boolean getFlag(String key, boolean def) {
-        return flags.getOrDefault(key, def);
+        PlotFlag flag = PlotFlag.fromKey(key);
+        if (flag != null) return getFlag(flag, def);
+        Map<String, Boolean> custom = customFlags;
+        return custom != null ? custom.getOrDefault(key, def) : def;
     }
 
     public void setFlag(String key, boolean value) {
-        flags.put(key, value);
+        PlotFlag flag = PlotFlag.fromKey(key);
+        if (flag != null) {
+            setFlag(flag, value);
+            return;
+        }
+        if (customFlags == null) customFlags = new HashMap<>();
+        customFlags.put(key, value);
+        protectionChanged();
+        markDirty();
     }
 
+    /**
+     * Every explicitly set flag (built-in and custom) keyed by storage name.
+     * Built on demand for saving and display; use getFlag on hot paths.
+     */
     public Map<String, Boolean> getFlags() {
-        return Collections.unmodifiableMap(flags);
+        Map<String, Boolean> all = new LinkedHashMap<>();
+        for (PlotFlag flag : PlotFlag.values()) {
+            if ((flagsSet & flag.bit()) != 0) all.put(flag.getKey(), (flagValues & flag.bit()) != 0);
+        }
+        if (customFlags != null) all.putAll(customFlags);
+        return Collections.unmodifiableMap(all);
+    }
+
+    // Raw flag state (binary snapshot)
+    long flagMaskBits() {
+        return flagsSet;
+    }
+
+    long flagValueBits() {
+        return flagValues;
+    }
+
+    Map<String, Boolean> customFlagsView() {
+        Map<String, Boolean> custom = customFlags;
+        return custom != null ? new HashMap<>(custom) : Collections.emptyMap();
+    }
+
+    void restoreFlags(long mask, long values, Map<String, Boolean> custom) {
+        this.flagsSet = mask;
+        this.flagValues = values;
+        this.customFlags = custom;
+        protectionChanged();
+        markDirty();
     }
 
     // Serialization Helpers for SQL
     public String serializeFlags() {
-        return flags.entrySet().stream()
+        return getFlags().entrySet().stream()
                 .map(e -> e.getKey() + ":" + e.getValue())
                 .collect(Collectors.joining(","));
     }
@@ -346,17 +497,40 @@ public class Plot {
 
     public void addZone(Zone zone) {
         zones.add(zone);
+        zonesChanged();
+        markDirty();
     }
 
     public void removeZone(Zone zone) {
         zones.remove(zone);
+        zonesChanged();
+        markDirty();
     }
 
+    /**
+     * Zone containing the location (the first one, if zones overlap).
+     * Grid lookup (see ZoneIndex), rebuilt on the first call after zones change.
+     */
     public Zone getZoneAt(Location loc) {
-        for (Zone z : zones) {
-            if (z.isInside(loc)) return z;
+        if (zones.isEmpty() || loc == null || loc.getWorld() == null) return null;
+        if (!loc.getWorld().getName().equals(world)) return null;
+
+        ZoneIndex index = zoneIndex;
+        long layout = zoneLayout.get();
+        // Size check also catches zones added straight to getZones()
+        if (index == null || index.layout() != layout || index.size() != zones.size()) {
+            index = ZoneIndex.build(zones, layout);
+            zoneIndex = index;
         }
-        return null;
+        return index.find(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+
+    /**
+     * Called by Zone.setBounds and the zone mutators above.
+     */
+    void zonesChanged() {
+        zoneLayout.incrementAndGet();
+        protectionChanged();
     }
 
     // Leveling
@@ -366,6 +540,7 @@ public class Plot {
 
     public void setLevel(int level) {
         this.level = level;
+        markDirty();
     }
 
     public double getXp() {
@@ -374,10 +549,12 @@ public class Plot {
 
     public void setXp(double xp) {
         this.xp = xp;
+        markDirty();
     }
 
     public void addXp(double amount) {
         this.xp += amount;
+        markDirty();
     }
 
     // Social
@@ -396,6 +573,8 @@ public class Plot {
     public void toggleLike(UUID player) {
         if (likedBy.contains(player)) likedBy.remove(player);
         else likedBy.add(player);
+        listingChanged();
+        markDirty();
     }
 
     // Bans
@@ -406,10 +585,14 @@ public class Plot {
     public void addBan(UUID playerUUID) {
         playerRoles.remove(playerUUID);
         bannedPlayers.add(playerUUID);
+        protectionChanged();
+        markDirty();
     }
 
     public void removeBan(UUID playerUUID) {
         bannedPlayers.remove(playerUUID);
+        protectionChanged();
+        markDirty();
     }
 
     public Set<UUID> getBannedPlayers() {
@@ -431,6 +614,7 @@ public class Plot {
 
     public void setLastUpkeepPayment(long time) {
         this.lastUpkeepPayment = time;
+        markDirty();
     }
 
     public boolean isForSale() {
@@ -440,6 +624,8 @@ public class Plot {
     public void setForSale(boolean forSale, double price) {
         this.isForSale = forSale;
         this.salePrice = price;
+        listingChanged();
+        markDirty();
     }
 
     public double getSalePrice() {
@@ -457,6 +643,8 @@ public class Plot {
     public void setForRent(boolean forRent, double price) {
         this.isForRent = forRent;
         this.rentPrice = price;
+        listingChanged();
+        markDirty();
     }
 
     public UUID getCurrentRenter() {
@@ -470,6 +658,8 @@ public class Plot {
     public void setRenter(UUID renter, long expirationTime) {
         this.currentRenter = renter;
         this.rentExpires = expirationTime;
+        protectionChanged();
+        markDirty();
     }
 
     // Auction
@@ -479,6 +669,9 @@ public class Plot {
 
     public void setPlotStatus(String status) {
         this.plotStatus = status;
+        listingChanged();
+        protectionChanged();
+        markDirty();
     }
 
     public double getCurrentBid() {
@@ -492,6 +685,8 @@ public class Plot {
     public void setCurrentBid(double bid, UUID bidder) {
         this.currentBid = bid;
         this.currentBidder = bidder;
+        listingChanged();
+        markDirty();
     }
 
     // Visuals
@@ -501,6 +696,7 @@ public class Plot {
 
     public void setSpawnLocation(Location loc) {
         this.spawnLocation = loc;
+        markDirty();
     }
 
     public String getWelcomeMessage() {
@@ -509,6 +705,7 @@ public class Plot {
 
     public void setWelcomeMessage(String msg) {
         this.welcomeMessage = msg;
+        markDirty();
     }
 
     public String getFarewellMessage() {
@@ -517,6 +714,7 @@ public class Plot {
 
     public void setFarewellMessage(String msg) {
         this.farewellMessage = msg;
+        markDirty();
     }
 
     public String getSpawnLocationString() {
@@ -528,6 +726,7 @@ public class Plot {
     }
 
     public void setSpawnLocationFromString(String s) {
+        markDirty();
         if (s == null || s.isEmpty()) {
             this.spawnLocation = null;
             return;
@@ -556,6 +755,7 @@ public class Plot {
 
     public void setEntryTitle(String title) {
         this.entryTitle = title;
+        markDirty();
     }
 
     public String getEntrySubtitle() {
@@ -564,6 +764,7 @@ public class Plot {
 
     public void setEntrySubtitle(String sub) {
         this.entrySubtitle = sub;
+        markDirty();
     }
 
     public String getDescription() {
@@ -572,6 +773,7 @@ public class Plot {
 
     public void setDescription(String description) {
         this.description = description;
+        markDirty();
     }
 
     public String getCustomBiome() {
@@ -580,6 +782,7 @@ public class Plot {
 
     public void setCustomBiome(String biome) {
         this.customBiome = biome;
+        markDirty();
     }
 
     // Cosmetics
@@ -589,6 +792,7 @@ public class Plot {
 
     public void setBorderParticle(String particle) {
         this.borderParticle = particle;
+        markDirty();
     }
 
     public String getAmbientParticle() {
@@ -597,6 +801,7 @@ public class Plot {
 
     public void setAmbientParticle(String particle) {
         this.ambientParticle = particle;
+        markDirty();
     }
 
     public String getEntryEffect() {
@@ -605,6 +810,7 @@ public class Plot {
 
     public void setEntryEffect(String effect) {
         this.entryEffect = effect;
+        markDirty();
     }
 
     // Server Warps
@@ -624,6 +830,8 @@ public class Plot {
         this.isServerWarp = isWarp;
         this.warpName = name;
         this.warpIcon = icon;
+        listingChanged();
+        markDirty();
     }
 
     @Override
@@ -0,0 +1,80 @@
+package com.aegisguard.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PlotFlag (Flag Registry) - v1.2.3
+ * - Every built-in plot flag, with its config/storage key and default state.
+ * - Plot keeps built-in flags as two longs (values + "explicitly set" mask),
+ *   indexed by ordinal, so hot protection checks are a single bit test.
+ * - Unknown keys (addon/custom flags) still go through Plot's String API.
+ */
+public enum PlotFlag {
+    PVP("pvp", false),
+    CONTAINERS("containers", true),
+    MOBS("mobs", false), // false protects by default
+    PETS("pets", true),
+    ENTITIES("entities", true),
+    FARM("farm", true),
+    TNT_DAMAGE("tnt-damage", false),
+    FIRE_SPREAD("fire-spread", false),
+    PISTON_USE("piston-use", false),
+    BUILD("build", true),
+    INTERACT("interact", true),
+    FLY("fly", false),
+    ENTRY("entry", true),
+    SAFE_ZONE("safe_zone", false),
+    HUNGER("hunger", true),
+    SLEEP("sleep", true),
+    SHOP_INTERACT("shop-interact", null); // No default: unset until an owner toggles it
+
+    private static final Map<String, PlotFlag> BY_KEY = new HashMap<>();
+    private static final long DEFAULT_MASK;
+    private static final long DEFAULT_VALUES;
+
+    static {
+        long mask = 0L, values = 0L;
+        for (PlotFlag f : values()) {
+            BY_KEY.put(f.key, f);
+            if (f.defaultValue != null) {
+                mask |= f.bit;
+                if (f.defaultValue) values |= f.bit;
+            }
+        }
+        DEFAULT_MASK = mask;
+        DEFAULT_VALUES = values;
+    }
+
+    private final String key;
+    private final Boolean defaultValue;
+    private final long bit = 1L << ordinal();
+
+    PlotFlag(String key, Boolean defaultValue) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    long bit() {
+        return bit;
+    }
+
+    /**
+     * Resolves a storage key (exact, case-sensitive as stored), or null for custom flags.
+     */
+    public static PlotFlag fromKey(String key) {
+        return key == null ? null : BY_KEY.get(key);
+    }
+
+    static long defaultMask() {
+        return DEFAULT_MASK;
+    }
+
+    static long defaultValues() {
+        return DEFAULT_VALUES;
+    }
+}
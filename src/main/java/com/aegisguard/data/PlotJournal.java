@@ -0,0 +1,268 @@
+package com.aegisguard.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * PlotJournal (Write-Ahead Log) - v1.2.3
+ * - Append-only log of plot changes for the YML store: PUT (full plot state, in the
+ *   snapshot entry layout) and REMOVE (plot id).
+ * - Appends only copy bytes into a buffer; a background thread writes and fsyncs it
+ *   every interval, so many edits share one fsync.
+ * - Records are length + CRC32C framed; replay stops at the first torn record and cuts
+ *   the file there before new records are appended.
+ * - The store truncates the log once every change in it is in the plot files (reset()).
+ */
+public final class PlotJournal {
+
+    public static final byte PUT = 1;
+    public static final byte REMOVE = 2;
+
+    /**
+     * Receives replayed records in log order.
+     */
+    public interface Sink {
+        void put(Plot plot);
+        void remove(UUID plotId);
+    }
+
+    private static final int MAGIC = 0x41474A4C; // "AGJL"
+    private static final int HEADER_SIZE = 4 + 4;
+    private static final int RECORD_HEADER = 4 + 4; // length + crc
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+    private final Logger logger;
+    private final long fsyncIntervalMs;
+
+    private FileChannel channel;
+    private ScheduledExecutorService syncer;
+    private final Object ioLock = new Object();  // Channel writes, fsync, truncate
+
+    // --- Append buffer (guarded by 'this') ---
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+    private long written;   // Bytes on disk, header included
+    private boolean closed;
+
+    public PlotJournal(File file, Logger logger, long fsyncIntervalMs) {
+        this.file = file;
+        this.logger = logger;
+        this.fsyncIntervalMs = Math.max(50, fsyncIntervalMs);
+    }
+
+    // ----------------------------------------
+    // --- STARTUP ---
+    // ----------------------------------------
+
+    /**
+     * Replays every intact record into 'sink', drops a torn tail, then opens the log for appends.
+     * Plots in worlds that are not loaded are skipped.
+     * @return the number of records applied.
+     */
+    public int open(Set<String> worlds, Sink sink) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int applied = 0;
+        long valid = HEADER_SIZE;
+
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        boolean usable = size >= HEADER_SIZE && readFully(0, header)
+                && header.getInt(0) == MAGIC && header.getInt(4) == PlotSnapshot.FLAG_LAYOUT;
+
+        if (usable) {
+            ByteBuffer log = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, size - HEADER_SIZE));
+            readFully(HEADER_SIZE, log);
+
+            CRC32C crc = new CRC32C();
+            while (log.remaining() >= RECORD_HEADER) {
+                int start = log.position();
+                int length = log.getInt();
+                int checksum = log.getInt();
+                if (length <= 0 || length > log.remaining()) break;
+
+                ByteBuffer record = log.slice(log.position(), length);
+                crc.reset();
+                crc.update(record.duplicate());
+                if ((int) crc.getValue() != checksum) break;
+
+                try {
+                    byte type = record.get();
+                    if (type == PUT) {
+                        Plot plot = PlotSnapshot.decode(record);
+                        if (worlds.contains(plot.getWorld())) sink.put(plot);
+                    } else if (type == REMOVE) {
+                        sink.remove(new UUID(record.getLong(), record.getLong()));
+                    }
+                    applied++;
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    break;
+                }
+                log.position(start + RECORD_HEADER + length);
+                valid = HEADER_SIZE + log.position();
+            }
+
+            if (valid < size) {
+                logger.warning("Plot journal: dropped " + (size - valid) + " bytes of incomplete records.");
+            }
+        } else if (size > 0) {
+            logger.warning("Plot journal has an unknown format and was discarded.");
+        }
+
+        // Fresh header (or cut the torn tail) before anything new is appended
+        if (!usable) {
+            channel.truncate(0);
+            ByteBuffer fresh = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(PlotSnapshot.FLAG_LAYOUT).flip();
+            while (fresh.hasRemaining()) channel.write(fresh, HEADER_SIZE - fresh.remaining());
+        } else {
+            channel.truncate(valid);
+        }
+        channel.force(false);
+        channel.position(channel.size());
+        written = channel.size();
+
+        syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "AegisGuard-Journal");
+            t.setDaemon(true);
+            return t;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        return applied;
+    }
+
+    private boolean readFully(long position, ByteBuffer into) throws IOException {
+        while (into.hasRemaining()) {
+            if (channel.read(into, position + into.position()) < 0) return false;
+        }
+        into.flip();
+        return true;
+    }
+
+    // ----------------------------------------
+    // --- APPEND (any thread) ---
+    // ----------------------------------------
+
+    /**
+     * Logs the full current state of a plot. Call on the thread that mutated it.
+     */
+    public void appendPut(Plot plot) {
+        byte[] body = PlotSnapshot.encode(plot);
+        ByteBuffer record = ByteBuffer.allocate(1 + body.length).put(PUT).put(body).flip();
+        append(record);
+    }
+
+    public void appendRemove(UUID plotId) {
+        ByteBuffer record = ByteBuffer.allocate(1 + 16).put(REMOVE)
+                .putLong(plotId.getMostSignificantBits()).putLong(plotId.getLeastSignificantBits()).flip();
+        append(record);
+    }
+
+    private void append(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.duplicate());
+        int length = record.remaining();
+
+        synchronized (this) {
+            if (closed) return;
+            if (pending.remaining() < RECORD_HEADER + length) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + RECORD_HEADER + length));
+                pending.flip();
+                bigger.put(pending);
+                pending = bigger;
+            }
+            pending.putInt(length).putInt((int) crc.getValue()).put(record);
+        }
+    }
+
+    /**
+     * Bytes logged so far, buffered ones included.
+     */
+    public synchronized long size() {
+        return written + pending.position();
+    }
+
+    // ----------------------------------------
+    // --- SYNC / COMPACT ---
+    // ----------------------------------------
+
+    /**
+     * Writes buffered records and fsyncs them. Appends are never blocked by the fsync.
+     */
+    public void sync() throws IOException {
+        synchronized (ioLock) {
+            ByteBuffer data;
+            synchronized (this) {
+                if (pending.position() == 0 || channel == null) return;
+                data = pending.flip();
+                pending = spare.clear();
+                spare = data;
+            }
+            while (data.hasRemaining()) channel.write(data);
+            channel.force(false);
+            data.clear();
+            synchronized (this) {
+                written = channel.size();
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            logger.warning("Plot journal sync failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Empties the log if 'folded' still holds once appends are paused, i.e. every logged
+     * change is already in the plot files. Records appended afterwards are kept.
+     * @return true if the log was truncated.
+     */
+    public boolean reset(BooleanSupplier folded) throws IOException {
+        synchronized (ioLock) {
+            if (channel == null) return false;
+            synchronized (this) {
+                if (written <= HEADER_SIZE && pending.position() == 0) return false;
+                if (!folded.getAsBoolean()) return false;
+                pending.clear();
+                written = HEADER_SIZE;
+            }
+            channel.truncate(HEADER_SIZE);
+            channel.force(false);
+            return true;
+        }
+    }
+
+    /**
+     * Final sync; later appends are ignored.
+     */
+    public void close() {
+        if (syncer != null) syncer.shutdownNow();
+        syncQuietly();
+        synchronized (ioLock) {
+            synchronized (this) {
+                closed = true;
+            }
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {}
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.aegisguard.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * PlotListingIndex (Market Cache) - v1.2.3
+ * - Live, sorted secondary indexes over the plot registry:
+ *   for sale (price), auction (current bid), for rent (price),
+ *   server warps (name) and top liked (likes, descending).
+ * - Kept current by Plot listing setters via PlotObserver, so a change costs O(log n).
+ * - Each listing hands out an immutable, pre-sorted List that is only
+ *   re-materialized after that listing changed; a GUI page is O(page size).
+ */
+public class PlotListingIndex {
+
+    public enum Listing {
+        FOR_SALE(Plot::isForSale, Plot::getSalePrice, Plot::getOwnerName),
+        AUCTION(p -> "AUCTION".equals(p.getPlotStatus()), Plot::getCurrentBid, Plot::getOwnerName),
+        FOR_RENT(Plot::isForRent, Plot::getRentPrice, Plot::getOwnerName),
+        SERVER_WARPS(Plot::isServerWarp, p -> 0.0D, Plot::getWarpName),
+        TOP_LIKED(p -> p.getLikes() > 0, p -> -p.getLikes(), Plot::getOwnerName);
+
+        private final Predicate<Plot> filter;
+        private final ToDoubleFunction<Plot> value;
+        private final Function<Plot, String> name;
+
+        Listing(Predicate<Plot> filter, ToDoubleFunction<Plot> value, Function<Plot, String> name) {
+            this.filter = filter;
+            this.value = value;
+            this.name = name;
+        }
+    }
+
+    // Immutable sort key captured at index time; plot fields may change later
+    private record Key(double value, String name, UUID plotId, Plot plot) {}
+
+    private static final Comparator<Key> ORDER = Comparator
+            .comparingDouble(Key::value)
+            .thenComparing(Key::name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Key::plotId);
+
+    private static final class Sorted {
+        final NavigableSet<Key> keys = new ConcurrentSkipListSet<>(ORDER);
+        final Map<UUID, Key> current = new ConcurrentHashMap<>();
+        volatile long version;
+        volatile long snapshotVersion = -1;
+        volatile List<Plot> snapshot = Collections.emptyList();
+    }
+
+    private final Map<Listing, Sorted> listings = new EnumMap<>(Listing.class);
+
+    public PlotListingIndex() {
+        for (Listing listing : Listing.values()) listings.put(listing, new Sorted());
+    }
+
+    // ----------------------------------------
+    // --- READS ---
+    // ----------------------------------------
+
+    /**
+     * Immutable, sorted view of one listing. Do not copy it.
+     */
+    public List<Plot> get(Listing listing) {
+        Sorted s = listings.get(listing);
+        if (s.snapshotVersion == s.version) return s.snapshot;
+        synchronized (s) {
+            if (s.snapshotVersion == s.version) return s.snapshot;
+            long version = s.version;
+            List<Plot> fresh = new ArrayList<>(s.keys.size());
+            for (Key k : s.keys) fresh.add(k.plot());
+            s.snapshot = Collections.unmodifiableList(fresh);
+            s.snapshotVersion = version;
+            return s.snapshot;
+        }
+    }
+
+    // ----------------------------------------
+    // --- MAINTENANCE ---
+    // ----------------------------------------
+
+    /**
+     * Re-evaluates every listing for a plot (call after any listing field changed).
+     */
+    public void update(Plot plot) {
+        for (Listing listing : Listing.values()) {
+            Sorted s = listings.get(listing);
+            synchronized (s) {
+                Key old = s.current.get(plot.getPlotId());
+                Key fresh = listing.filter.test(plot) ? keyFor(listing, plot) : null;
+                if (old == null && fresh == null) continue;
+                if (old != null && fresh != null && ORDER.compare(old, fresh) == 0) continue;
+
+                if (old != null) s.keys.remove(old);
+                if (fresh != null) {
+                    s.keys.add(fresh);
+                    s.current.put(plot.getPlotId(), fresh);
+                } else {
+                    s.current.remove(plot.getPlotId());
+                }
+                s.version++;
+            }
+        }
+    }
+
+    public void remove(Plot plot) {
+        for (Sorted s : listings.values()) {
+            synchronized (s) {
+                Key old = s.current.remove(plot.getPlotId());
+                if (old == null) continue;
+                s.keys.remove(old);
+                s.version++;
+            }
+        }
+    }
+
+    public void clear() {
+        for (Sorted s : listings.values()) {
+            synchronized (s) {
+                s.keys.clear();
+                s.current.clear();
+                s.version++;
+            }
+        }
+    }
+
+    private static Key keyFor(Listing listing, Plot plot) {
+        String name = listing.name.apply(plot);
+        return new Key(listing.value.applyAsDouble(plot), name != null ? name : "Unknown", plot.getPlotId(), plot);
+    }
+}
@@ -0,0 +1,24 @@
+package com.aegisguard.data;
+
+/**
+ * PlotObserver (Index Hook) - v1.2.3
+ * - Notified by Plot mutators so in-memory indexes and the save queue never go stale.
+ * - Attached by the owning IDataStore when a plot is cached, detached on removal.
+ */
+public interface PlotObserver {
+
+    /**
+     * Called after any of the plot's X/Z bounds changed.
+     */
+    void onBoundsChanged(Plot plot);
+
+    /**
+     * Called after a market, auction, warp or like field changed.
+     */
+    default void onListingChanged(Plot plot) {}
+
+    /**
+     * Called after any persisted field changed (see Plot.markDirty).
+     */
+    default void onDirty(Plot plot) {}
+}
@@ -0,0 +1,308 @@
+package com.aegisguard.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PlotRegistry (In-Memory Cache) - v1.2.3
+ * - The in-memory plot model shared by SQL and YML stores.
+ * - Owns the id index, the owner index, the spatial index, the listing index
+ *   and the all-plots snapshot,
+ *   so both stores stay identical and only deal with persistence.
+ * - getAllPlots() returns an immutable snapshot that is rebuilt lazily, and only
+ *   after a plot was added, removed or changed owner.
+ * - generation() increments on those changes and on bounds changes, so periodic
+ *   consumers can skip work when nothing moved.
+ * - Collects plots whose mutators marked them dirty, so stores persist only
+ *   what actually changed (drainDirty / requeueDirty).
+ * - All indexes hang off one reference, so replaceAll() can build a fresh set
+ *   off to the side (in parallel) and publish it in a single swap.
+ */
+public class PlotRegistry implements PlotObserver {
+
+    // --- Indexes (swapped as a unit) ---
+    private record Indexes(Map<UUID, Plot> plotsById, Map<UUID, List<Plot>> plotsByOwner,
+                           PlotSpatialIndex spatialIndex, PlotListingIndex listingIndex) {
+        Indexes() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new PlotSpatialIndex(), new PlotListingIndex());
+        }
+    }
+
+    private volatile Indexes idx = new Indexes();
+
+    // --- Snapshot (copy-on-write) ---
+    private record Snapshot(long membership, List<Plot> plots) {}
+
+    private final AtomicLong membership = new AtomicLong();  // add / remove / owner change
+    private final AtomicLong generation = new AtomicLong();  // membership + bounds changes
+    private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyList());
+
+    // --- Dirty set (plots with unsaved changes) ---
+    private final Set<Plot> dirty = ConcurrentHashMap.newKeySet();
+
+    // ----------------------------------------
+    // --- ACCESSORS ---
+    // ----------------------------------------
+
+    public PlotSpatialIndex spatial() {
+        return idx.spatialIndex();
+    }
+
+    public List<Plot> getListing(PlotListingIndex.Listing listing) {
+        return idx.listingIndex().get(listing);
+    }
+
+    public List<Plot> getPlots(UUID owner) {
+        return idx.plotsByOwner().getOrDefault(owner, Collections.emptyList());
+    }
+
+    public Plot getPlotById(UUID plotId) {
+        return plotId == null ? null : idx.plotsById().get(plotId);
+    }
+
+    public Plot getPlot(UUID owner, UUID plotId) {
+        Plot plot = getPlotById(plotId);
+        return plot != null && plot.getOwner().equals(owner) ? plot : null;
+    }
+
+    /**
+     * Immutable view of every cached plot. Never copy it "just in case".
+     */
+    public List<Plot> getAllPlots() {
+        Snapshot current = snapshot;
+        if (current.membership() == membership.get()) return current.plots();
+        return rebuildSnapshot();
+    }
+
+    /**
+     * Changes on add, remove, owner change and resize only. Flag, status, sale and name
+     * changes do not move it, so only consumers derived from membership and bounds
+     * (spatial memos, the admin plot list) may skip work on an unchanged value.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public int size() {
+        return idx.plotsById().size();
+    }
+
+    // ----------------------------------------
+    // --- MUTATION ---
+    // ----------------------------------------
+
+    public void add(Plot plot) {
+        Indexes i = idx;
+        Plot previous = i.plotsById().put(plot.getPlotId(), plot);
+        if (previous != null) {
+            // Re-adding (or replacing) a cached id must not leave a second owner entry behind
+            unlinkOwner(i, previous, previous.getOwner());
+            if (previous != plot) previous.setObserver(null);
+        }
+        i.plotsByOwner().computeIfAbsent(plot.getOwner(), k -> new CopyOnWriteArrayList<>()).add(plot);
+        i.spatialIndex().add(plot);
+        i.listingIndex().update(plot);
+        plot.setObserver(this);
+        structureChanged();
+    }
+
+    /**
+     * Removes a plot by id from an owner's list.
+     * @return the removed plot, or null if it wasn't cached.
+     */
+    public Plot remove(UUID owner, UUID plotId) {
+        Indexes i = idx;
+        Plot removed = getPlot(owner, plotId);
+        if (removed == null || !i.plotsById().remove(plotId, removed)) return null;
+
+        unlinkOwner(i, removed, owner);
+        detach(i, removed);
+        return removed;
+    }
+
+    /**
+     * Removes every plot owned by a player.
+     * @return the removed plots (empty if none).
+     */
+    public List<Plot> removeAll(UUID owner) {
+        Indexes i = idx;
+        List<Plot> owned = i.plotsByOwner().remove(owner);
+        if (owned == null) return Collections.emptyList();
+        for (Plot p : owned) {
+            i.plotsById().remove(p.getPlotId(), p);
+            detach(i, p);
+        }
+        return new ArrayList<>(owned);
+    }
+
+    /**
+     * Moves a plot to its new owner's bucket (call after the plot's owner was set).
+     */
+    public void ownerChanged(Plot plot, UUID oldOwner) {
+        Indexes i = idx;
+        unlinkOwner(i, plot, oldOwner);
+        i.plotsByOwner().computeIfAbsent(plot.getOwner(), k -> new CopyOnWriteArrayList<>()).add(plot);
+        i.listingIndex().update(plot); // Owner name is a tie-breaker in market order
+        structureChanged();
+    }
+
+    public void clear() {
+        swap(new Indexes());
+    }
+
+    /**
+     * Replaces the whole cache with 'plots' (bulk load). The id/owner maps, the spatial
+     * index and the listing index are built concurrently on 'executor', then published
+     * in one swap; readers see either the old set or the new one, never a mix.
+     * Plots are expected to be fully populated; mutations racing the swap are not carried over.
+     */
+    public void replaceAll(Collection<Plot> plots, Executor executor) {
+        CompletableFuture<Map<UUID, Plot>> byId = CompletableFuture.supplyAsync(() -> {
+            Map<UUID, Plot> map = new ConcurrentHashMap<>(plots.size() * 2);
+            for (Plot p : plots) map.put(p.getPlotId(), p);
+            return map;
+        }, executor);
+
+        CompletableFuture<Map<UUID, List<Plot>>> byOwner = CompletableFuture.supplyAsync(() -> {
+            Map<UUID, List<Plot>> grouped = new HashMap<>();
+            for (Plot p : plots) grouped.computeIfAbsent(p.getOwner(), k -> new ArrayList<>()).add(p);
+            Map<UUID, List<Plot>> map = new ConcurrentHashMap<>(grouped.size() * 2);
+            grouped.forEach((owner, list) -> map.put(owner, new CopyOnWriteArrayList<>(list)));
+            return map;
+        }, executor);
+
+        CompletableFuture<PlotSpatialIndex> spatial = CompletableFuture.supplyAsync(() -> {
+            PlotSpatialIndex index = new PlotSpatialIndex();
+            for (Plot p : plots) index.add(p);
+            return index;
+        }, executor);
+
+        CompletableFuture<PlotListingIndex> listing = CompletableFuture.supplyAsync(() -> {
+            PlotListingIndex index = new PlotListingIndex();
+            for (Plot p : plots) index.update(p);
+            return index;
+        }, executor);
+
+        swap(new Indexes(byId.join(), byOwner.join(), spatial.join(), listing.join()));
+    }
+
+    private synchronized void swap(Indexes fresh) {
+        Indexes old = idx;
+        idx = fresh;
+        for (Plot p : old.plotsById().values()) {
+            if (fresh.plotsById().get(p.getPlotId()) != p) p.setObserver(null);
+        }
+        for (Plot p : fresh.plotsById().values()) p.setObserver(this);
+        dirty.clear();
+        structureChanged();
+    }
+
+    private void unlinkOwner(Indexes i, Plot plot, UUID owner) {
+        List<Plot> list = i.plotsByOwner().get(owner);
+        if (list == null) return;
+        list.remove(plot);
+        if (list.isEmpty()) i.plotsByOwner().remove(owner, list);
+    }
+
+    private void detach(Indexes i, Plot plot) {
+        i.spatialIndex().remove(plot);
+        i.listingIndex().remove(plot);
+        plot.setObserver(null);
+        dirty.remove(plot);
+        structureChanged();
+    }
+
+    // ----------------------------------------
+    // --- DIRTY TRACKING ---
+    // ----------------------------------------
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Removes and returns every plot currently marked dirty.
+     * Plots changed again while being written are simply re-added by their mutators.
+     */
+    public List<Plot> drainDirty() {
+        List<Plot> drained = new ArrayList<>(dirty.size());
+        Iterator<Plot> it = dirty.iterator();
+        while (it.hasNext()) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * Puts plots back after a failed write (skipping ones removed in the meantime).
+     */
+    public void requeueDirty(Collection<Plot> plots) {
+        Indexes i = idx;
+        for (Plot p : plots) {
+            if (i.plotsById().get(p.getPlotId()) == p) dirty.add(p);
+        }
+    }
+
+    public void markClean(Plot plot) {
+        dirty.remove(plot);
+        plot.markSaved(plot.getRevision());
+    }
+
+    /**
+     * Marks every cached plot as persisted (after a load or a full save).
+     */
+    public void markAllClean() {
+        dirty.clear();
+        for (Plot p : getAllPlots()) p.markSaved(p.getRevision());
+    }
+
+    private synchronized List<Plot> rebuildSnapshot() {
+        long version = membership.get();
+        if (snapshot.membership() == version) return snapshot.plots();
+
+        List<Plot> all = new ArrayList<>();
+        for (Collection<Plot> plots : idx.plotsByOwner().values()) all.addAll(plots);
+
+        List<Plot> fresh = Collections.unmodifiableList(all);
+        snapshot = new Snapshot(version, fresh);
+        return fresh;
+    }
+
+    private void structureChanged() {
+        membership.incrementAndGet();
+        generation.incrementAndGet();
+    }
+
+    // ----------------------------------------
+    // --- PLOT OBSERVER ---
+    // ----------------------------------------
+
+    @Override
+    public void onBoundsChanged(Plot plot) {
+        idx.spatialIndex().onBoundsChanged(plot);
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void onListingChanged(Plot plot) {
+        idx.listingIndex().update(plot);
+    }
+
+    @Override
+    public void onDirty(Plot plot) {
+        dirty.add(plot);
+    }
+}
@@ -0,0 +1,475 @@
+package com.aegisguard.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * PlotSnapshot (Binary Cold-Start Cache) - v1.2.3
+ * - One file holding the full state of every plot (bounds, flag bitsets, roles, bans, likes,
+ *   zones, market and cosmetic fields) in a fixed binary layout.
+ * - Header: magic, format, flag layout, store generation, plot count, payload length, CRC32C.
+ *   The payload starts with the worlds that were loaded when the registry was filled.
+ * - Only a cache: it is used at startup when its checksum is valid, its generation equals
+ *   the primary store's and it covers every world loaded now (plots of other worlds are not
+ *   in it); otherwise the store loads normally and rewrites it on the next save.
+ * - Read through a memory-mapped buffer; written to a temp file and renamed into place.
+ */
+public final class PlotSnapshot {
+
+    private static final int MAGIC = 0x41475350; // "AGSP"
+    private static final int FORMAT = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 4 + 8 + 4;
+    static final int FLAG_LAYOUT = flagLayout();
+
+    private final File file;
+    private final Logger logger;
+    private volatile long writtenGeneration = -1; // Generation currently on disk (-1 = unknown)
+    private volatile Set<String> coveredWorlds;    // Worlds loaded when the registry was filled
+
+    public PlotSnapshot(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    // ----------------------------------------
+    // --- STORE HOOKS ---
+    // ----------------------------------------
+
+    /**
+     * Publishes the snapshot into 'registry' if it was taken at the store's current generation.
+     * @return the loaded plots, or null if the store must do its regular load.
+     */
+    public List<Plot> loadInto(PlotRegistry registry, long storeGeneration) {
+        // Recorded either way: the store's own load covers the same worlds
+        Set<String> worlds = loadedWorlds();
+        coveredWorlds = worlds;
+        if (storeGeneration < 0 || readGeneration() != storeGeneration) return null;
+
+        long start = System.nanoTime();
+        List<Plot> plots = read(storeGeneration, worlds);
+        if (plots == null) return null;
+        long decoded = System.nanoTime();
+
+        registry.replaceAll(plots, ForkJoinPool.commonPool());
+        registry.markAllClean(); // Setters used while decoding marked everything dirty
+        writtenGeneration = storeGeneration;
+
+        logger.info("Loaded " + plots.size() + " plots from snapshot (generation " + storeGeneration + ") in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms"
+                + " [decode " + TimeUnit.NANOSECONDS.toMillis(decoded - start) + "ms].");
+        return plots;
+    }
+
+    /**
+     * Rewrites the snapshot after a save, if the store moved past the one on disk.
+     * Callers hold their save lock, so 'storeGeneration' cannot advance meanwhile;
+     * a plot edited while encoding may not be persisted yet, so the file is dropped then.
+     */
+    public void saveFrom(PlotRegistry registry, long storeGeneration) {
+        if (storeGeneration < 0 || storeGeneration == writtenGeneration) return;
+        if (registry.dirtyCount() > 0) return; // Unsaved edits; the next save retries
+
+        long start = System.nanoTime();
+        try {
+            List<Plot> plots = registry.getAllPlots();
+            Set<String> worlds = coveredWorlds;
+            write(plots, storeGeneration, worlds != null ? worlds : loadedWorlds());
+            if (registry.dirtyCount() > 0) {
+                delete();
+                writtenGeneration = -1;
+                return;
+            }
+            writtenGeneration = storeGeneration;
+
+            long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (took >= 1000) logger.warning("Slow plot snapshot: " + plots.size() + " plots took " + took + "ms.");
+        } catch (Exception e) {
+            // Also covers a live collection edited on the main thread while encoding
+            logger.warning("Could not write plot snapshot: " + e);
+            delete();
+            writtenGeneration = -1;
+        }
+    }
+
+    /**
+     * Generation recorded in the snapshot header, or -1 if there is no usable snapshot.
+     */
+    public long readGeneration() {
+        if (!file.isFile()) return -1;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && ch.read(header) >= 0) { }
+            if (header.hasRemaining()) return -1;
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT || header.getInt() != FLAG_LAYOUT) return -1;
+            return header.getLong();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decodes every plot if the snapshot is intact, was taken at 'expectedGeneration' and
+     * covers all of 'worlds'. Plots in worlds that are not loaded are skipped, like the
+     * regular loaders do.
+     * @return the plots, or null if the caller must fall back to the primary store.
+     */
+    public List<Plot> read(long expectedGeneration, Set<String> worlds) {
+        if (!file.isFile()) return null;
+
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE) return null;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT || buf.getInt() != FLAG_LAYOUT) return null;
+            long generation = buf.getLong();
+            int count = buf.getInt();
+            long length = buf.getLong();
+            int crc = buf.getInt();
+
+            if (generation != expectedGeneration) return null;
+            if (length != size - HEADER_SIZE) {
+                logger.warning("Plot snapshot is truncated; loading from storage instead.");
+                return null;
+            }
+
+            ByteBuffer payload = buf.slice();
+            CRC32C check = new CRC32C();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != crc) {
+                logger.warning("Plot snapshot checksum mismatch; loading from storage instead.");
+                return null;
+            }
+
+            // A world that was not loaded when it was written has no plots in it
+            int worldCount = payload.getInt();
+            Set<String> covered = new HashSet<>(worldCount * 2);
+            for (int i = 0; i < worldCount; i++) covered.add(str(payload));
+            if (!covered.containsAll(worlds)) {
+                Set<String> missing = new HashSet<>(worlds);
+                missing.removeAll(covered);
+                logger.info("Plot snapshot does not cover world(s) " + missing + "; loading from storage instead.");
+                return null;
+            }
+
+            List<Plot> plots = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Plot plot = readPlot(payload);
+                if (worlds.contains(plot.getWorld())) plots.add(plot);
+            }
+            return plots;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warning("Could not read plot snapshot (" + e.getMessage() + "); loading from storage instead.");
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of 'plots' tagged with the store generation they reflect and the
+     * worlds they were loaded for. The payload is built in memory and written in one call
+     * before the atomic rename.
+     */
+    public void write(Collection<Plot> plots, long generation, Set<String> worlds) throws IOException {
+        Out out = new Out(Math.max(4096, plots.size() * 256));
+        out.i(worlds.size());
+        for (String world : worlds) out.str(world);
+        for (Plot plot : plots) writePlot(out, plot);
+        ByteBuffer payload = out.buf.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT).putInt(FLAG_LAYOUT).putLong(generation)
+                .putInt(plots.size()).putLong(payload.remaining()).putInt((int) crc.getValue());
+        header.flip();
+
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+        Path tmp = new File(dir, file.getName() + ".tmp").toPath();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = {header, payload};
+            while (header.hasRemaining() || payload.hasRemaining()) ch.write(parts);
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Set<String> loadedWorlds() {
+        Set<String> worlds = new HashSet<>();
+        for (World w : Bukkit.getWorlds()) worlds.add(w.getName());
+        return worlds;
+    }
+
+    public void delete() {
+        if (file.exists() && !file.delete()) file.deleteOnExit();
+    }
+
+    // ----------------------------------------
+    // --- ENCODE ---
+    // ----------------------------------------
+
+    /**
+     * One plot in the snapshot entry layout (also used for journal records).
+     */
+    static byte[] encode(Plot plot) {
+        Out out = new Out(256);
+        writePlot(out, plot);
+        byte[] bytes = new byte[out.buf.position()];
+        out.buf.flip().get(bytes);
+        return bytes;
+    }
+
+    private static void writePlot(Out o, Plot p) {
+        o.uuid(p.getPlotId());
+        o.uuid(p.getOwner());
+        o.str(p.getOwnerName());
+        o.str(p.getWorld());
+        o.i(p.getX1()); o.i(p.getZ1()); o.i(p.getX2()); o.i(p.getZ2());
+        o.l(p.getLastUpkeepPayment());
+        o.i(p.getLevel());
+        o.d(p.getXp());
+        o.i(p.getMaxMembers());
+
+        // Flags: built-ins as the two bitsets, custom ones by key
+        o.l(p.flagMaskBits());
+        o.l(p.flagValueBits());
+        Map<String, Boolean> custom = p.customFlagsView();
+        o.i(custom.size());
+        for (Map.Entry<String, Boolean> e : custom.entrySet()) {
+            o.str(e.getKey());
+            o.bool(e.getValue());
+        }
+
+        // Members
+        Map<UUID, String> roles = new HashMap<>(p.getPlayerRoles());
+        o.i(roles.size());
+        for (Map.Entry<UUID, String> e : roles.entrySet()) {
+            o.uuid(e.getKey());
+            o.str(e.getValue());
+        }
+        List<UUID> bans = new ArrayList<>(p.getBannedPlayers());
+        o.i(bans.size());
+        for (UUID u : bans) o.uuid(u);
+        List<UUID> likes = new ArrayList<>(p.getLikedBy());
+        o.i(likes.size());
+        for (UUID u : likes) o.uuid(u);
+
+        // Zones
+        List<Zone> zones = new ArrayList<>(p.getZones());
+        o.i(zones.size());
+        for (Zone z : zones) {
+            o.uuid(z.getZoneId());
+            o.str(z.getName());
+            o.i(z.getX1()); o.i(z.getY1()); o.i(z.getZ1());
+            o.i(z.getX2()); o.i(z.getY2()); o.i(z.getZ2());
+            o.d(z.getRentPrice());
+            o.uuidOrNull(z.getRenter());
+            o.l(z.getRentExpiration());
+        }
+
+        // Settings
+        o.str(p.getSpawnLocationString());
+        o.str(p.getWelcomeMessage());
+        o.str(p.getFarewellMessage());
+        o.str(p.getEntryTitle());
+        o.str(p.getEntrySubtitle());
+        o.str(p.getDescription());
+        o.str(p.getCustomBiome());
+
+        // Market / rent / auction
+        o.str(p.getPlotStatus());
+        o.bool(p.isForSale());
+        o.d(p.getSalePrice());
+        o.bool(p.isForRent());
+        o.d(p.getRentPrice());
+        o.uuidOrNull(p.getCurrentRenter());
+        o.l(p.getRentExpires());
+        o.d(p.getCurrentBid());
+        o.uuidOrNull(p.getCurrentBidder());
+
+        // Cosmetics & warp
+        o.str(p.getBorderParticle());
+        o.str(p.getAmbientParticle());
+        o.str(p.getEntryEffect());
+        o.bool(p.isServerWarp());
+        o.str(p.getWarpName());
+        o.str(p.getWarpIcon() != null ? p.getWarpIcon().name() : null);
+    }
+
+    // ----------------------------------------
+    // --- DECODE ---
+    // ----------------------------------------
+
+    static Plot decode(ByteBuffer in) {
+        return readPlot(in);
+    }
+
+    private static Plot readPlot(ByteBuffer in) {
+        UUID plotId = uuid(in);
+        UUID owner = uuid(in);
+        String ownerName = str(in);
+        String world = str(in);
+        int x1 = in.getInt(), z1 = in.getInt(), x2 = in.getInt(), z2 = in.getInt();
+
+        Plot plot = new Plot(plotId, owner, ownerName, world, x1, z1, x2, z2, in.getLong());
+        plot.setLevel(in.getInt());
+        plot.setXp(in.getDouble());
+        plot.setMaxMembers(in.getInt());
+
+        long mask = in.getLong();
+        long values = in.getLong();
+        int customCount = in.getInt();
+        Map<String, Boolean> custom = customCount > 0 ? new HashMap<>(customCount * 2) : null;
+        for (int i = 0; i < customCount; i++) custom.put(str(in), in.get() != 0);
+        plot.restoreFlags(mask, values, custom);
+
+        // Roles, then bans, then likes (same precedence as the other loaders)
+        int roles = in.getInt();
+        for (int i = 0; i < roles; i++) plot.setRole(uuid(in), str(in));
+        int bans = in.getInt();
+        for (int i = 0; i < bans; i++) plot.addBan(uuid(in));
+        int likes = in.getInt();
+        for (int i = 0; i < likes; i++) plot.getLikedBy().add(uuid(in));
+
+        int zones = in.getInt();
+        for (int i = 0; i < zones; i++) {
+            UUID zoneId = uuid(in);
+            String name = str(in);
+            Zone zone = new Zone(zoneId, plot, name, in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt());
+            zone.setRentPrice(in.getDouble());
+            UUID renter = uuidOrNull(in);
+            long expires = in.getLong();
+            if (renter != null) zone.setRentState(renter, expires);
+            plot.addZone(zone);
+            zone.markSaved(zone.getVersion()); // Same state as the primary store
+        }
+
+        plot.setSpawnLocationFromString(str(in));
+        plot.setWelcomeMessage(str(in));
+        plot.setFarewellMessage(str(in));
+        plot.setEntryTitle(str(in));
+        plot.setEntrySubtitle(str(in));
+        plot.setDescription(str(in));
+        plot.setCustomBiome(str(in));
+
+        String status = str(in);
+        if (status != null) plot.setPlotStatus(status);
+        plot.setForSale(in.get() != 0, in.getDouble());
+        plot.setForRent(in.get() != 0, in.getDouble());
+        UUID renter = uuidOrNull(in);
+        plot.setRenter(renter, in.getLong());
+        double bid = in.getDouble();
+        plot.setCurrentBid(bid, uuidOrNull(in));
+
+        plot.setBorderParticle(str(in));
+        plot.setAmbientParticle(str(in));
+        plot.setEntryEffect(str(in));
+        boolean warp = in.get() != 0;
+        String warpName = str(in);
+        String icon = str(in);
+        plot.setServerWarp(warp, warpName, icon != null ? Material.matchMaterial(icon) : null);
+        return plot;
+    }
+
+    private static UUID uuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static UUID uuidOrNull(ByteBuffer in) {
+        return in.get() != 0 ? uuid(in) : null;
+    }
+
+    private static String str(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) return null;
+        if (len > in.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Built-in flags are stored by bit position; a snapshot from a build with a different
+     * PlotFlag order must not be decoded.
+     */
+    private static int flagLayout() {
+        StringBuilder sb = new StringBuilder();
+        for (PlotFlag f : PlotFlag.values()) sb.append(f.getKey()).append(',');
+        return sb.toString().hashCode();
+    }
+
+    // --- Growable output buffer ---
+    private static final class Out {
+        ByteBuffer buf;
+
+        Out(int capacity) {
+            buf = ByteBuffer.allocate(capacity);
+        }
+
+        private void ensure(int bytes) {
+            if (buf.remaining() >= bytes) return;
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + bytes));
+            buf.flip();
+            bigger.put(buf);
+            buf = bigger;
+        }
+
+        void i(int v) { ensure(4); buf.putInt(v); }
+        void l(long v) { ensure(8); buf.putLong(v); }
+        void d(double v) { ensure(8); buf.putDouble(v); }
+        void bool(boolean v) { ensure(1); buf.put((byte) (v ? 1 : 0)); }
+
+        void uuid(UUID u) {
+            ensure(16);
+            buf.putLong(u.getMostSignificantBits()).putLong(u.getLeastSignificantBits());
+        }
+
+        void uuidOrNull(UUID u) {
+            bool(u != null);
+            if (u != null) uuid(u);
+        }
+
+        void str(String s) {
+            if (s == null) {
+                i(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length);
+            buf.putInt(bytes.length).put(bytes);
+        }
+    }
+}
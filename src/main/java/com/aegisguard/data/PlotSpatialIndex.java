@@ -0,0 +1,223 @@
+package com.aegisguard.data;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * PlotSpatialIndex (Spatial Cache) - v1.2.3
+ * - Per-world hierarchical grid shared by SQL and YML stores.
+ * - Level 0 cells are chunks (16 blocks); each level above is 16x coarser.
+ *   A plot lives on the finest level where it spans at most 4x4 cells, so even
+ *   huge server zones cost a handful of cells instead of thousands of chunks.
+ * - Cells are packed long keys in a primitive map, so point lookups allocate nothing.
+ * - Answers point containment, rectangle overlap and radius queries.
+ * - Re-indexes plots automatically when their bounds change (see PlotObserver).
+ */
+public class PlotSpatialIndex implements PlotObserver {
+
+    private static final int[] LEVEL_SHIFTS = {4, 8, 12, 16, 20, 24};
+    private static final int MAX_CELLS_PER_AXIS = 4;
+
+    private static final class WorldGrid {
+        final ChunkPlotMap[] cells = new ChunkPlotMap[LEVEL_SHIFTS.length];
+        final List<Set<Plot>> members = new ArrayList<>(LEVEL_SHIFTS.length);
+        final int[] counts = new int[LEVEL_SHIFTS.length];
+
+        WorldGrid() {
+            for (int l = 0; l < LEVEL_SHIFTS.length; l++) {
+                cells[l] = new ChunkPlotMap();
+                members.add(ConcurrentHashMap.newKeySet());
+            }
+        }
+    }
+
+    // Where a plot was registered, so removal never depends on its current bounds
+    private record Entry(String world, int level, int minX, int minZ, int maxX, int maxZ) {}
+
+    private final Map<String, WorldGrid> worlds = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> indexed = new ConcurrentHashMap<>();
+
+    // ----------------------------------------
+    // --- POINT LOOKUPS ---
+    // ----------------------------------------
+
+    public Plot getPlotAt(Location loc) {
+        if (loc == null) return null;
+        World w = loc.getWorld();
+        if (w == null) return null;
+        return getPlotAt(w.getName(), loc.getBlockX(), loc.getBlockZ());
+    }
+
+    public Plot getPlotAt(String world, int x, int z) {
+        WorldGrid grid = worlds.get(world);
+        if (grid == null) return null;
+
+        for (int l = 0; l < LEVEL_SHIFTS.length; l++) {
+            if (grid.counts[l] == 0) continue;
+            int shift = LEVEL_SHIFTS[l];
+
+            Plot[] candidates = grid.cells[l].get(ChunkPlotMap.key(x >> shift, z >> shift));
+            if (candidates == null) continue;
+
+            for (Plot p : candidates) {
+                if (x >= p.getX1() && x <= p.getX2() && z >= p.getZ1() && z <= p.getZ2()) return p;
+            }
+        }
+        return null;
+    }
+
+    // ----------------------------------------
+    // --- AREA QUERIES ---
+    // ----------------------------------------
+
+    /**
+     * Checks whether any indexed plot (other than 'ignore') intersects the rectangle.
+     */
+    public boolean isAreaOverlapping(Plot ignore, String world, int x1, int z1, int x2, int z2) {
+        return !forEachInArea(world, x1, z1, x2, z2, p -> ignore != null && p.equals(ignore));
+    }
+
+    /**
+     * All plots intersecting the rectangle (inclusive block coordinates).
+     */
+    public List<Plot> getPlotsInArea(String world, int x1, int z1, int x2, int z2) {
+        List<Plot> result = new ArrayList<>();
+        forEachInArea(world, x1, z1, x2, z2, p -> {
+            result.add(p);
+            return true;
+        });
+        return result;
+    }
+
+    /**
+     * All plots whose closest edge is within 'radius' blocks of (x, z).
+     */
+    public List<Plot> getPlotsNear(String world, int x, int z, int radius) {
+        long r2 = (long) radius * radius;
+        List<Plot> result = new ArrayList<>();
+        forEachInArea(world, x - radius, z - radius, x + radius, z + radius, p -> {
+            long dx = Math.max(0, Math.max(p.getX1() - x, x - p.getX2()));
+            long dz = Math.max(0, Math.max(p.getZ1() - z, z - p.getZ2()));
+            if (dx * dx + dz * dz <= r2) result.add(p);
+            return true;
+        });
+        return result;
+    }
+
+    /**
+     * Visits every plot intersecting the rectangle exactly once.
+     * @return false if the visitor stopped the walk early.
+     */
+    private boolean forEachInArea(String world, int x1, int z1, int x2, int z2, Predicate<Plot> visitor) {
+        WorldGrid grid = worlds.get(world);
+        if (grid == null) return true;
+
+        int minX = Math.min(x1, x2), maxX = Math.max(x1, x2);
+        int minZ = Math.min(z1, z2), maxZ = Math.max(z1, z2);
+
+        for (int l = 0; l < LEVEL_SHIFTS.length; l++) {
+            if (grid.counts[l] == 0) continue;
+            int shift = LEVEL_SHIFTS[l];
+
+            int qx0 = minX >> shift, qx1 = maxX >> shift;
+            int qz0 = minZ >> shift, qz1 = maxZ >> shift;
+            long cellCount = (long) (qx1 - qx0 + 1) * (qz1 - qz0 + 1);
+
+            // Query wider than the level's population: a straight scan is cheaper
+            if (cellCount > grid.counts[l]) {
+                for (Plot p : grid.members.get(l)) {
+                    if (intersects(p, minX, minZ, maxX, maxZ) && !visitor.test(p)) return false;
+                }
+                continue;
+            }
+
+            for (int cx = qx0; cx <= qx1; cx++) {
+                for (int cz = qz0; cz <= qz1; cz++) {
+                    Plot[] candidates = grid.cells[l].get(ChunkPlotMap.key(cx, cz));
+                    if (candidates == null) continue;
+
+                    for (Plot p : candidates) {
+                        if (!intersects(p, minX, minZ, maxX, maxZ)) continue;
+                        // Report each plot only from the first cell where it meets the query
+                        int refX = Math.max(qx0, Math.min(p.getX1(), p.getX2()) >> shift);
+                        int refZ = Math.max(qz0, Math.min(p.getZ1(), p.getZ2()) >> shift);
+                        if (cx != refX || cz != refZ) continue;
+                        if (!visitor.test(p)) return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(Plot p, int minX, int minZ, int maxX, int maxZ) {
+        return minX <= p.getX2() && maxX >= p.getX1() && minZ <= p.getZ2() && maxZ >= p.getZ1();
+    }
+
+    // ----------------------------------------
+    // --- MAINTENANCE ---
+    // ----------------------------------------
+
+    public synchronized void add(Plot plot) {
+        remove(plot);
+
+        int minBX = Math.min(plot.getX1(), plot.getX2()), maxBX = Math.max(plot.getX1(), plot.getX2());
+        int minBZ = Math.min(plot.getZ1(), plot.getZ2()), maxBZ = Math.max(plot.getZ1(), plot.getZ2());
+
+        int level = 0;
+        while (level < LEVEL_SHIFTS.length - 1) {
+            int shift = LEVEL_SHIFTS[level];
+            if ((maxBX >> shift) - (minBX >> shift) < MAX_CELLS_PER_AXIS
+                    && (maxBZ >> shift) - (minBZ >> shift) < MAX_CELLS_PER_AXIS) break;
+            level++;
+        }
+
+        int shift = LEVEL_SHIFTS[level];
+        Entry entry = new Entry(plot.getWorld(), level, minBX >> shift, minBZ >> shift, maxBX >> shift, maxBZ >> shift);
+
+        WorldGrid grid = worlds.computeIfAbsent(plot.getWorld(), k -> new WorldGrid());
+        for (int x = entry.minX(); x <= entry.maxX(); x++) {
+            for (int z = entry.minZ(); z <= entry.maxZ(); z++) {
+                grid.cells[level].add(ChunkPlotMap.key(x, z), plot);
+            }
+        }
+        grid.members.get(level).add(plot);
+        grid.counts[level]++;
+        indexed.put(plot.getPlotId(), entry);
+    }
+
+    public synchronized void remove(Plot plot) {
+        Entry entry = indexed.remove(plot.getPlotId());
+        if (entry == null) return;
+
+        WorldGrid grid = worlds.get(entry.world());
+        if (grid == null) return;
+
+        for (int x = entry.minX(); x <= entry.maxX(); x++) {
+            for (int z = entry.minZ(); z <= entry.maxZ(); z++) {
+                grid.cells[entry.level()].remove(ChunkPlotMap.key(x, z), plot);
+            }
+        }
+        if (grid.members.get(entry.level()).remove(plot)) {
+            grid.counts[entry.level()]--;
+        }
+    }
+
+    public synchronized void clear() {
+        worlds.clear();
+        indexed.clear();
+    }
+
+    @Override
+    public void onBoundsChanged(Plot plot) {
+        if (indexed.containsKey(plot.getPlotId())) add(plot);
+    }
+}
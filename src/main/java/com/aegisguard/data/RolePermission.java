@@ -0,0 +1,83 @@
+package com.aegisguard.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RolePermission (Permission Keys) - v1.2.3
+ * - Every permission a role can list under roles.<role>.permissions.
+ * - Roles are compiled once per config load into a long bitmask (see AGConfig),
+ *   so Plot.hasPermission is a map read plus a bit test, with no allocation.
+ * - Config names match exactly (as before); names that are not listed here (addon or
+ *   custom permissions) are kept per role as plain strings, see customNames().
+ */
+public enum RolePermission {
+    ALL,
+    BUILD,
+    BLOCK_BREAK,
+    BLOCK_PLACE,
+    INTERACT,
+    CONTAINER,
+    CONTAINERS,
+    USE_DOORS,
+    USE_BUTTONS,
+    PET_DAMAGE,
+    FARM_TRAMPLE;
+
+    private static final Map<String, RolePermission> BY_NAME = new HashMap<>();
+
+    static {
+        for (RolePermission p : values()) BY_NAME.put(p.name(), p);
+    }
+
+    private final long bit = 1L << ordinal();
+
+    public long bit() {
+        return bit;
+    }
+
+    /**
+     * True if the compiled role mask grants this permission (directly or via ALL).
+     */
+    public boolean isGrantedBy(long mask) {
+        return (mask & (bit | ALL.bit)) != 0;
+    }
+
+    /**
+     * Resolves a config/permission name, or null if it is not a known permission.
+     */
+    public static RolePermission fromName(String name) {
+        if (name == null) return null;
+        return BY_NAME.get(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Compiles a list of configured permission names into a bitmask (exact names only).
+     */
+    public static long compile(List<String> names) {
+        long mask = 0L;
+        if (names == null) return mask;
+        for (String name : names) {
+            RolePermission p = BY_NAME.get(name);
+            if (p != null) mask |= p.bit;
+        }
+        return mask;
+    }
+
+    /**
+     * The configured names compile() does not cover, as written in the config.
+     */
+    public static Set<String> customNames(List<String> names) {
+        if (names == null) return Collections.emptySet();
+        Set<String> custom = new HashSet<>();
+        for (String name : names) {
+            if (name != null && !BY_NAME.containsKey(name)) custom.add(name);
+        }
+        return custom.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(custom);
+    }
+}
@@ -1,85 +1,137 @@
 package com.aegisguard.data;
 
 import com.aegisguard.AegisGuard;
-import com.zaxxer.hikari.HikariConfig;
+import com.aegisguard.hooks.WildernessRevertEngine;
 import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
 
 import java.io.File;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * SQLDataStore (v1.2.2+)
  * - Supports MySQL, MariaDB, and SQLite transparently.
- * - Automatically saves changes immediately (Async) to prevent data loss.
+ * - Saves are write-behind: plots mark themselves dirty and one async worker flushes
+ *   the dirty set in JDBC batches inside a single transaction (see getSaveMetrics());
+ *   a failed batch falls back to one transaction per plot.
  * - Uses REPLACE INTO for universal compatibility.
- * - Stores advanced plot data in 'settings' blob (progression, market, warps, cosmetics, likes, bans...).
+ * - Schema is versioned (see SQLSchema): plot settings live in typed columns, likes/bans/roles
+ *   in child tables; the legacy 'settings'/'roles' blobs are migrated once and no longer written.
  * - UPDATED: Adds full Zone (sub-claim) persistence via aegis_zones table.
+ * - Zones keep their zone_id across saves; a flush upserts only changed zones
+ *   and deletes only removed ones.
+ * - Startup load streams and parses rows on a worker pool (SQLPlotLoader).
+ * - Every plot write bumps aegis_store_state.generation; a binary snapshot (PlotSnapshot)
+ *   taken at the current generation replaces the SQL load on the next start.
  */
 public class SQLDataStore implements IDataStore {
 
     private final AegisGuard plugin;
-    private HikariDataSource hikari;
+    private final String type;
+    private SQLPools pools;
+    private HikariDataSource hikari; // Writes (the single writer connection on SQLite)
+    private HikariDataSource reader; // Reads; same pool as 'hikari' unless SQLite runs in WAL mode
 
     // --- CACHES ---
-    private final Map<UUID, List<Plot>> plotsByOwner = new ConcurrentHashMap<>();
-    private final Map<String, Map<String, Set<Plot>>> plotsByChunk = new ConcurrentHashMap<>();
+    private final PlotRegistry registry = new PlotRegistry();
 
     private volatile boolean isDirty = false;
 
+    // --- PLOT SAVES (dirty set, single writer) ---
+    private static final int PLOT_BATCH_SIZE = 500;
+    private static final long SLOW_FLUSH_MS = 1000;
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private volatile boolean shuttingDown = false;
+    private final StorageExecutor storage; // Per-plot ordered writes behind the async API
+
+    // --- Save metrics ---
+    private final LongAdder plotRowsWritten = new LongAdder();
+    private final LongAdder zoneRowsWritten = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private final LongAdder zoneRowsDeleted = new LongAdder();
+    private final LongAdder memberRowsWritten = new LongAdder(); // likes/bans/roles inserts + deletes
+
+    // Child rows currently stored per plot; only touched under saveLock
+    static final class StoredRows {
+        final Set<UUID> zones = new HashSet<>();
+        final Set<UUID> likes = new HashSet<>();
+        final Set<UUID> bans = new HashSet<>();
+        final Map<UUID, String> roles = new HashMap<>();
+        final List<String> legacyZoneKeys = new ArrayList<>(); // Stored zone_ids that are not UUIDs (null = NULL)
+    }
+
+    private static final StoredRows NOTHING_STORED = new StoredRows();
+    private final Map<UUID, StoredRows> storedRows = new ConcurrentHashMap<>();
+
+    // --- COLD-START SNAPSHOT (null when disabled) ---
+    private final PlotSnapshot snapshot;
+
+    // --- WILDERNESS LOG (write-behind) ---
+    private final WildernessLogBuffer wildernessLog;
+    private final ReentrantLock wildernessFlushLock = new ReentrantLock();
+    private final WildernessRevertEngine revertEngine;
+    private volatile long revertCursor = 0; // Last log id handed to the engine; wraps to 0 at the end
+
     // --- QUERIES ---
-    private static final String CREATE_PLOTS_TABLE =
-            "CREATE TABLE IF NOT EXISTS aegis_plots (" +
-                    " plot_id VARCHAR(36) PRIMARY KEY," +
-                    " owner_uuid VARCHAR(36)," +
-                    " owner_name VARCHAR(16)," +
-                    " world VARCHAR(32)," +
-                    " x1 INT, z1 INT," +
-                    " x2 INT, z2 INT," +
-                    " level INT," +
-                    " xp DOUBLE," +
-                    " last_upkeep BIGINT," +
-                    " flags TEXT," +
-                    " roles TEXT," +
-                    " settings TEXT" +
-                    " )";
-
-    // 3D zones: x1,y1,z1,x2,y2,z2 + rent info
-    private static final String CREATE_ZONES_TABLE =
-            "CREATE TABLE IF NOT EXISTS aegis_zones (" +
-                    " zone_id VARCHAR(36)," +
-                    " plot_id VARCHAR(36)," +
-                    " name VARCHAR(32)," +
-                    " x1 INT, y1 INT, z1 INT," +
-                    " x2 INT, y2 INT, z2 INT," +
-                    " renter VARCHAR(36)," +
-                    " price DOUBLE," +
-                    " expires BIGINT," +
-                    " PRIMARY KEY (zone_id)" +
-                    " )";
-
-    // REPLACE INTO for cross-DB upsert of plots
+    // REPLACE INTO for cross-DB upsert of plots (schema v2 columns; roles/settings are left NULL)
     private static final String UPSERT_PLOT =
             "REPLACE INTO aegis_plots " +
-                    "(plot_id, owner_uuid, owner_name, world, x1, z1, x2, z2, level, xp, last_upkeep, flags, roles, settings) " +
-                    "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+                    "(plot_id, owner_uuid, owner_name, world, x1, z1, x2, z2, level, xp, last_upkeep, flags, " +
+                    "max_members, spawn, welcome, farewell, entry_title, entry_subtitle, description, custom_biome, " +
+                    "plot_status, for_sale, sale_price, for_rent, rent_price, rent_expires, current_renter, " +
+                    "current_bid, current_bidder, border_particle, ambient_particle, entry_effect, " +
+                    "server_warp, warp_name, warp_icon) " +
+                    "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
 
     private static final String DELETE_PLOT =
             "DELETE FROM aegis_plots WHERE plot_id = ?";
-    private static final String DELETE_PLOTS_BY_OWNER =
-            "DELETE FROM aegis_plots WHERE owner_uuid = ?";
+    private static final String SELECT_PLOT_IDS_BY_OWNER =
+            "SELECT plot_id FROM aegis_plots WHERE owner_uuid = ?";
 
-    // Zones maintenance
+    // Zones maintenance (zone_id is stable, so saves upsert/delete individual rows)
     private static final String DELETE_ZONES_BY_PLOT =
             "DELETE FROM aegis_zones WHERE plot_id = ?";
-    private static final String INSERT_ZONE =
-            "INSERT INTO aegis_zones " +
+    private static final String DELETE_ZONE =
+            "DELETE FROM aegis_zones WHERE zone_id = ?";
+    private static final String DELETE_LEGACY_ZONE =
+            "DELETE FROM aegis_zones WHERE plot_id = ? AND (zone_id = ? OR (? IS NULL AND zone_id IS NULL))";
+
+    // Likes / bans / roles (one row per player, diffed on save)
+    private static final String INSERT_LIKE =
+            "INSERT INTO aegis_plot_likes (plot_id, player_uuid) VALUES (?,?)";
+    private static final String DELETE_LIKE =
+            "DELETE FROM aegis_plot_likes WHERE plot_id = ? AND player_uuid = ?";
+    private static final String INSERT_BAN =
+            "INSERT INTO aegis_plot_bans (plot_id, player_uuid) VALUES (?,?)";
+    private static final String DELETE_BAN =
+            "DELETE FROM aegis_plot_bans WHERE plot_id = ? AND player_uuid = ?";
+    private static final String UPSERT_ROLE =
+            "REPLACE INTO aegis_plot_roles (plot_id, player_uuid, role) VALUES (?,?,?)";
+    private static final String DELETE_ROLE =
+            "DELETE FROM aegis_plot_roles WHERE plot_id = ? AND player_uuid = ?";
+    private static final String[] DELETE_CHILDREN_BY_PLOT = {
+            DELETE_ZONES_BY_PLOT,
+            "DELETE FROM aegis_plot_likes WHERE plot_id = ?",
+            "DELETE FROM aegis_plot_bans WHERE plot_id = ?",
+            "DELETE FROM aegis_plot_roles WHERE plot_id = ?"
+    };
+    private static final String UPSERT_ZONE =
+            "REPLACE INTO aegis_zones " +
                     "(zone_id, plot_id, name, x1, y1, z1, x2, y2, z2, renter, price, expires) " +
                     "VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
 
@@ -87,493 +139,439 @@ public class SQLDataStore implements IDataStore {
     private static final String LOG_WILDERNESS =
             "INSERT INTO aegis_wilderness_log (world, x, y, z, old_material, new_material, timestamp, player_uuid) VALUES (?,?,?,?,?,?,?,?)";
     private static final String GET_REVERTABLE_BLOCKS =
-            "SELECT id, world, x, y, z, old_material FROM aegis_wilderness_log WHERE timestamp < ? LIMIT ?";
+            "SELECT id, world, x, y, z, old_material, new_material FROM aegis_wilderness_log WHERE timestamp < ? AND id > ? ORDER BY id LIMIT ?";
     private static final String DELETE_WILDERNESS_BY_ID =
             "DELETE FROM aegis_wilderness_log WHERE id = ?";
+    private static final String EXPORT_WILDERNESS =
+            "SELECT id, world, x, y, z, old_material, new_material, timestamp, player_uuid FROM aegis_wilderness_log WHERE id > ? ORDER BY id LIMIT ?";
 
     public SQLDataStore(AegisGuard plugin) {
+        this(plugin, plugin.cfg().raw().getString("storage.type", "sqlite"));
+    }
+
+    /**
+     * @param type "mysql"/"mariadb" for a server database, anything else for the local SQLite file.
+     */
+    public SQLDataStore(AegisGuard plugin, String type) {
         this.plugin = plugin;
+        this.type = type.equalsIgnoreCase("mysql") || type.equalsIgnoreCase("mariadb") ? "mysql" : "sqlite";
+        this.wildernessLog = new WildernessLogBuffer(
+                plugin.cfg().raw().getInt("wilderness_revert.log_buffer_capacity", 50000),
+                plugin.cfg().raw().getInt("wilderness_revert.log_batch_size", 500));
+        this.revertEngine = new WildernessRevertEngine(plugin);
+        this.storage = new StorageExecutor("AegisGuard-Storage", plugin.getLogger(), plugin.cfg().raw().getInt("storage.async_threads", 2));
+        this.snapshot = plugin.cfg().raw().getBoolean("storage.snapshot", true)
+                ? new PlotSnapshot(new File(plugin.getDataFolder(), "plots-" + this.type + ".snapshot"), plugin.getLogger())
+                : null;
         connect();
     }
 
     private void connect() {
-        ConfigurationSection db = plugin.cfg().raw().getConfigurationSection("storage.database");
-        String type = plugin.cfg().raw().getString("storage.type", "sqlite");
-
-        HikariConfig config = new HikariConfig();
-        config.setPoolName("AegisGuard-Pool");
-        config.setConnectionTimeout(30000);
-        config.setLeakDetectionThreshold(10000);
-
-        if (type.equalsIgnoreCase("mysql") || type.equalsIgnoreCase("mariadb")) {
-            String host = db.getString("host", "localhost");
-            int port = db.getInt("port", 3306);
-            String database = db.getString("database", "aegisguard");
-            boolean useSSL = db.getBoolean("useSSL", false);
-
-            config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=" + useSSL + "&autoReconnect=true");
-            config.setUsername(db.getString("username", "root"));
-            config.setPassword(db.getString("password", ""));
-
-            // Performance optimizations
-            config.addDataSourceProperty("cachePrepStmts", "true");
-            config.addDataSourceProperty("prepStmtCacheSize", "250");
-            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-
-            plugin.getLogger().info("Connecting to SQL Database (" + host + ")...");
-        } else {
-            File file = new File(plugin.getDataFolder(), "aegisguard.db");
-            if (!file.getParentFile().exists()) {
-                file.getParentFile().mkdirs();
-            }
-            config.setJdbcUrl("jdbc:sqlite:" + file.getAbsolutePath());
-            config.setDriverClassName("org.sqlite.JDBC");
-            plugin.getLogger().info("Using local SQLite database file.");
-        }
-
-        this.hikari = new HikariDataSource(config);
-
-        try (Connection conn = hikari.getConnection();
-             Statement s = conn.createStatement()) {
-            s.execute(CREATE_PLOTS_TABLE);
-            s.execute(CREATE_ZONES_TABLE);
-            s.execute("CREATE TABLE IF NOT EXISTS aegis_wilderness_log ( " +
-                    "id INTEGER PRIMARY KEY AUTO_INCREMENT, " +
-                    "world VARCHAR(32), x INT, y INT, z INT, " +
-                    "old_material VARCHAR(32), new_material VARCHAR(32), " +
-                    "timestamp BIGINT, player_uuid VARCHAR(36) )");
+        this.pools = new SQLPools(plugin.cfg().raw().getConfigurationSection("storage"), plugin.getDataFolder(), type, plugin.getLogger());
+        this.hikari = pools.writer();
+        this.reader = pools.reader();
+
+        // Every query below relies on the current schema: refuse to run without it
+        int version;
+        try (Connection conn = hikari.getConnection()) {
+            version = new SQLSchema(plugin.getLogger(), type.equals("sqlite")).migrate(conn);
         } catch (SQLException e) {
-            plugin.getLogger().severe("Database Error: " + e.getMessage());
+            pools.close();
+            throw new IllegalStateException("Could not prepare the " + type + " database schema: " + e.getMessage(), e);
         }
+        if (version != SQLSchema.CURRENT_VERSION) {
+            pools.close();
+            throw new IllegalStateException("Database schema is at v" + version + " but this version of AegisGuard expects v"
+                    + SQLSchema.CURRENT_VERSION + ".");
+        }
+        pools.selfTest();
     }
 
     @Override
     public void load() {
-        plotsByOwner.clear();
-        plotsByChunk.clear();
-
-        int count = 0;
-
-        // Temp index to allow attaching zones after plots are loaded
-        Map<UUID, Plot> plotsById = new HashMap<>();
-
-        // 1) Load plots
-        try (Connection conn = hikari.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT * FROM aegis_plots")) {
-
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                try {
-                    UUID plotId = UUID.fromString(rs.getString("plot_id"));
-                    UUID ownerId = UUID.fromString(rs.getString("owner_uuid"));
-                    String ownerName = rs.getString("owner_name");
-                    String worldName = rs.getString("world");
-
-                    if (Bukkit.getWorld(worldName) == null) continue;
-
-                    int x1 = rs.getInt("x1");
-                    int z1 = rs.getInt("z1");
-                    int x2 = rs.getInt("x2");
-                    int z2 = rs.getInt("z2");
-
-                    Plot plot = new Plot(plotId, ownerId, ownerName, worldName, x1, z1, x2, z2);
-
-                    plot.setLevel(rs.getInt("level"));
-                    plot.setXp(rs.getDouble("xp"));
-                    plot.setLastUpkeepPayment(rs.getLong("last_upkeep"));
-
-                    // Restore Flags
-                    String flagsStr = rs.getString("flags");
-                    if (flagsStr != null && !flagsStr.isEmpty()) {
-                        for (String part : flagsStr.split(",")) {
-                            String[] kv = part.split(":", 2);
-                            if (kv.length == 2) {
-                                plot.setFlag(kv[0], Boolean.parseBoolean(kv[1]));
-                            }
-                        }
-                    }
-
-                    // Restore Roles
-                    String rolesStr = rs.getString("roles");
-                    if (rolesStr != null && !rolesStr.isEmpty()) {
-                        for (String part : rolesStr.split(",")) {
-                            String[] kv = part.split(":", 2);
-                            if (kv.length == 2) {
-                                try {
-                                    UUID u = UUID.fromString(kv[0]);
-                                    plot.setRole(u, kv[1]);
-                                } catch (IllegalArgumentException ignored) {}
-                            }
-                        }
-                    }
-
-                    // Restore Advanced Settings from 'settings'
-                    String settings = rs.getString("settings");
-                    if (settings != null && !settings.isEmpty()) {
-                        applySettings(plot, settings);
-                    }
-
-                    cachePlot(plot);
-                    plotsById.put(plotId, plot);
-                    count++;
-                } catch (Exception ex) {
-                    plugin.getLogger().warning("Skipped invalid plot in DB.");
-                }
+        // Snapshot if it is current, else streaming, parallel load (see SQLPlotLoader);
+        // the stored-rows view is replaced with what was loaded
+        saveLock.lock();
+        try {
+            List<Plot> cached = snapshot != null ? snapshot.loadInto(registry, readGeneration()) : null;
+            storedRows.clear();
+            if (cached != null) {
+                // The snapshot matches the database row for row
+                for (Plot plot : cached) storedRows.put(plot.getPlotId(), storedView(plot));
+                return;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        // 2) Load zones and attach to plots
-        int zoneCount = 0;
-        try (Connection conn = hikari.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT * FROM aegis_zones")) {
-
-            ResultSet rs = ps.executeQuery();
-            long now = System.currentTimeMillis();
-
-            while (rs.next()) {
-                try {
-                    UUID plotId = UUID.fromString(rs.getString("plot_id"));
-                    Plot parent = plotsById.get(plotId);
-                    if (parent == null) continue; // Orphaned zone; plot was deleted
-
-                    String name = rs.getString("name");
-
-                    int x1 = rs.getInt("x1");
-                    int y1 = rs.getInt("y1");
-                    int z1 = rs.getInt("z1");
-                    int x2 = rs.getInt("x2");
-                    int y2 = rs.getInt("y2");
-                    int z2 = rs.getInt("z2");
-
-                    Zone zone = new Zone(parent, name, x1, y1, z1, x2, y2, z2);
-
-                    double price = rs.getDouble("price");
-                    zone.setRentPrice(price);
-
-                    String renterStr = rs.getString("renter");
-                    long expires = rs.getLong("expires");
-
-                    if (renterStr != null && !renterStr.isEmpty() && expires > now) {
-                        try {
-                            UUID renter = UUID.fromString(renterStr);
-                            // Keep the same absolute expiration using remaining duration
-                            zone.rentTo(renter, expires - now);
-                        } catch (IllegalArgumentException ignored) {}
-                    }
-
-                    parent.addZone(zone);
-                    zoneCount++;
-                } catch (Exception ignored) {
-                    // Corrupt zone row; skip
-                }
+            SQLPlotLoader.Result result;
+            try {
+                result = new SQLPlotLoader(plugin, reader).load(registry);
+            } catch (IllegalStateException e) {
+                // Nothing was loaded: close up so no save or snapshot can overwrite the stored plots
+                pools.close();
+                throw e;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            storedRows.putAll(result.stored());
+        } finally {
+            saveLock.unlock();
         }
-
-        plugin.getLogger().info("Loaded " + count + " plots and " + zoneCount + " zones from Database.");
     }
 
     @Override
     public void save() {
-        // Bulk save routine (e.g. on auto-save task)
-        for (Collection<Plot> plots : plotsByOwner.values()) {
-            for (Plot p : plots) {
-                savePlot(p);
-            }
-        }
+        // Periodic auto-save: only plots whose mutators marked them dirty are written
+        isDirty = false;
+        flushDirtyPlots(false);
+        writeSnapshot(false);
     }
 
     @Override
     public void saveSync() {
         // Called on shutdown
-        save();
-        if (hikari != null && !hikari.isClosed()) {
-            hikari.close();
+        shuttingDown = true;
+        if (!storage.shutdown(10_000)) plugin.getLogger().warning("Storage writes still running at shutdown; remaining plots are saved below.");
+        flushDirtyPlots(true);
+        writeSnapshot(true);
+        flushWildernessLog(true);
+        plugin.getLogger().info("Plot saves: " + getSaveMetrics());
+        if (pools != null && !pools.isClosed()) {
+            pools.close();
         }
     }
 
     @Override
     public void savePlot(Plot plot) {
-        plugin.runGlobalAsync(() -> {
-            try (Connection conn = hikari.getConnection()) {
-                // 1) Upsert plot row
-                try (PreparedStatement ps = conn.prepareStatement(UPSERT_PLOT)) {
-                    ps.setString(1, plot.getPlotId().toString());
-                    ps.setString(2, plot.getOwner().toString());
-                    ps.setString(3, plot.getOwnerName());
-                    ps.setString(4, plot.getWorld());
-                    ps.setInt(5, plot.getX1());
-                    ps.setInt(6, plot.getZ1());
-                    ps.setInt(7, plot.getX2());
-                    ps.setInt(8, plot.getZ2());
-                    ps.setInt(9, plot.getLevel());
-                    ps.setDouble(10, plot.getXp());
-                    ps.setLong(11, plot.getLastUpkeepPayment());
-
-                    // Serialize Flags & Roles
-                    ps.setString(12, plot.serializeFlags());
-                    ps.setString(13, plot.serializeRoles());
-
-                    // Advanced settings blob
-                    ps.setString(14, serializeSettings(plot));
-
-                    ps.executeUpdate();
-                }
+        // Callers may have mutated a live collection (getZones(), getLikedBy()...) directly
+        plot.markDirty();
+        requestFlush();
+    }
 
-                // 2) Refresh zones for this plot
-                try (PreparedStatement del = conn.prepareStatement(DELETE_ZONES_BY_PLOT)) {
-                    del.setString(1, plot.getPlotId().toString());
-                    del.executeUpdate();
-                }
+    /**
+     * Schedules one async flush; further saves until it starts ride along with it.
+     */
+    private void requestFlush() {
+        if (shuttingDown || !flushQueued.compareAndSet(false, true)) return;
+        plugin.runGlobalAsync(() -> {
+            flushQueued.set(false);
+            flushDirtyPlots(false);
+        });
+    }
 
-                if (!plot.getZones().isEmpty()) {
-                    try (PreparedStatement ins = conn.prepareStatement(INSERT_ZONE)) {
-                        for (Zone zone : plot.getZones()) {
-                            String zoneId = UUID.randomUUID().toString();
-
-                            ins.setString(1, zoneId);
-                            ins.setString(2, plot.getPlotId().toString());
-                            ins.setString(3, zone.getName());
-                            ins.setInt(4, zone.getX1());
-                            ins.setInt(5, zone.getY1());
-                            ins.setInt(6, zone.getZ1());
-                            ins.setInt(7, zone.getX2());
-                            ins.setInt(8, zone.getY2());
-                            ins.setInt(9, zone.getZ2());
-
-                            UUID renter = zone.getRenter();
-                            ins.setString(10, renter != null ? renter.toString() : null);
-                            ins.setDouble(11, zone.getRentPrice());
-                            ins.setLong(12, zone.getRentExpiration());
-
-                            ins.addBatch();
+    /**
+     * Writes every dirty plot (row + zones) in JDBC batches inside a single transaction.
+     * If that transaction fails, the plots are retried one per transaction so a row the
+     * database rejects only holds back its own plot; those are requeued and retried by the
+     * next auto-save rather than straight away.
+     * @param wait true to block until a concurrent flush finishes (shutdown).
+     */
+    private void flushDirtyPlots(boolean wait) {
+        if (hikari == null || hikari.isClosed()) return;
+        if (wait) saveLock.lock();
+        else if (!saveLock.tryLock()) return; // The running flush reschedules if more work arrives
+
+        boolean failures = false;
+        try {
+            List<Plot> batch = registry.drainDirty();
+            batch.removeIf(plot -> !plot.isDirty()); // Already written by flushPlot
+            if (batch.isEmpty()) return;
+
+            // Capture revisions before serializing: later edits keep the plot dirty
+            long[] revisions = new long[batch.size()];
+            for (int i = 0; i < batch.size(); i++) revisions[i] = batch.get(i).getRevision();
+
+            long start = System.nanoTime();
+            int childRows = 0;
+            int written = batch.size();
+            try {
+                childRows = writePlotBatch(batch);
+                for (int i = 0; i < batch.size(); i++) batch.get(i).markSaved(revisions[i]);
+            } catch (SQLException e) {
+                List<Plot> failed = new ArrayList<>();
+                if (isConnectionFailure(e)) {
+                    failed.addAll(batch); // Database unreachable: per-plot retries would only time out
+                    plugin.getLogger().severe("Failed to save " + batch.size() + " plots (will retry): " + e.getMessage());
+                } else {
+                    plugin.getLogger().warning("Batch save of " + batch.size() + " plots failed (" + e.getMessage() + "), retrying them one by one.");
+                    boolean unreachable = false;
+                    for (int i = 0; i < batch.size(); i++) {
+                        Plot plot = batch.get(i);
+                        if (unreachable) {
+                            failed.add(plot);
+                            continue;
+                        }
+                        try {
+                            childRows += writePlotBatch(Collections.singletonList(plot));
+                            plot.markSaved(revisions[i]);
+                        } catch (SQLException single) {
+                            unreachable = isConnectionFailure(single);
+                            failed.add(plot);
+                            plugin.getLogger().severe("Failed to save plot " + plot.getPlotId() + " (will retry): " + single.getMessage());
                         }
-                        ins.executeBatch();
                     }
                 }
-
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to save plot " + plot.getPlotId() + ": " + e.getMessage());
+                if (!failed.isEmpty()) {
+                    registry.requeueDirty(failed);
+                    flushFailures.increment();
+                    written -= failed.size();
+                    failures = true;
+                }
             }
-        });
-    }
-
-    // --- Settings Serialization Helpers ---
-
-    private String serializeSettings(Plot plot) {
-        StringBuilder sb = new StringBuilder();
+            long took = System.nanoTime() - start;
 
-        java.util.function.BiConsumer<String, String> add = (k, v) -> {
-            if (v == null) return;
-            if (sb.length() > 0) sb.append(";");
-            sb.append(k).append("=").append(v);
-        };
+            plotRowsWritten.add(written);
+            flushCount.increment();
+            totalFlushNanos.add(took);
+            lastFlushNanos = took;
+            maxFlushNanos.accumulateAndGet(took, Math::max);
 
-        add.accept("maxMembers", String.valueOf(plot.getMaxMembers()));
-        add.accept("spawn", plot.getSpawnLocationString());
-        add.accept("welcome", plot.getWelcomeMessage());
-        add.accept("farewell", plot.getFarewellMessage());
-        add.accept("entryTitle", plot.getEntryTitle());
-        add.accept("entrySubtitle", plot.getEntrySubtitle());
-        add.accept("description", plot.getDescription());
-        add.accept("customBiome", plot.getCustomBiome());
-
-        add.accept("plotStatus", plot.getPlotStatus());
-        add.accept("isForSale", String.valueOf(plot.isForSale()));
-        add.accept("salePrice", String.valueOf(plot.getSalePrice()));
-        add.accept("isForRent", String.valueOf(plot.isForRent()));
-        add.accept("rentPrice", String.valueOf(plot.getRentPrice()));
-        add.accept("rentExpires", String.valueOf(plot.getRentExpires()));
-
-        UUID renter = plot.getCurrentRenter();
-        add.accept("currentRenter", renter != null ? renter.toString() : null);
-
-        add.accept("currentBid", String.valueOf(plot.getCurrentBid()));
-        UUID bidder = plot.getCurrentBidder();
-        add.accept("currentBidder", bidder != null ? bidder.toString() : null);
-
-        // Likes
-        if (!plot.getLikedBy().isEmpty()) {
-            String liked = plot.getLikedBy().stream()
-                    .map(UUID::toString)
-                    .collect(Collectors.joining(","));
-            add.accept("likedBy", liked);
-        }
-
-        // Bans
-        if (!plot.getBannedPlayers().isEmpty()) {
-            String banned = plot.getBannedPlayers().stream()
-                    .map(UUID::toString)
-                    .collect(Collectors.joining(","));
-            add.accept("banned", banned);
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(took);
+            if (tookMs >= SLOW_FLUSH_MS) {
+                plugin.getLogger().warning("Slow plot save: " + batch.size() + " plots / " + childRows + " child rows took " + tookMs + "ms.");
+            }
+        } finally {
+            saveLock.unlock();
+            // Not after failures: rejected rows would be retried in a tight loop
+            if (!wait && !failures && registry.dirtyCount() > 0) requestFlush();
         }
-
-        // Cosmetics
-        add.accept("borderParticle", plot.getBorderParticle());
-        add.accept("ambientParticle", plot.getAmbientParticle());
-        add.accept("entryEffect", plot.getEntryEffect());
-
-        // Warp
-        add.accept("isServerWarp", String.valueOf(plot.isServerWarp()));
-        add.accept("warpName", plot.getWarpName());
-        add.accept("warpIcon", plot.getWarpIcon() != null ? plot.getWarpIcon().name() : null);
-
-        // Zones are stored in aegis_zones, not in settings.
-
-        return sb.toString();
     }
 
-    private void applySettings(Plot plot, String settings) {
-        if (settings == null || settings.isEmpty()) return;
-
-        String[] parts = settings.split(";");
-        for (String part : parts) {
-            if (part.isEmpty()) continue;
-            String[] kv = part.split("=", 2);
-            if (kv.length != 2) continue;
-            String key = kv[0];
-            String value = kv[1];
-
-            try {
-                switch (key) {
-                    case "maxMembers":
-                        plot.setMaxMembers(Integer.parseInt(value));
-                        break;
-                    case "spawn":
-                        plot.setSpawnLocationFromString(value);
-                        break;
-                    case "welcome":
-                        plot.setWelcomeMessage(value);
-                        break;
-                    case "farewell":
-                        plot.setFarewellMessage(value);
-                        break;
-                    case "entryTitle":
-                        plot.setEntryTitle(value);
-                        break;
-                    case "entrySubtitle":
-                        plot.setEntrySubtitle(value);
-                        break;
-                    case "description":
-                        plot.setDescription(value);
-                        break;
-                    case "customBiome":
-                        plot.setCustomBiome(value);
-                        break;
-
-                    case "plotStatus":
-                        plot.setPlotStatus(value);
-                        break;
-
-                    case "isForSale": {
-                        boolean fs = Boolean.parseBoolean(value);
-                        plot.setForSale(fs, fs ? plot.getSalePrice() : 0.0D);
-                        break;
-                    }
-                    case "salePrice": {
-                        double price = Double.parseDouble(value);
-                        plot.setForSale(plot.isForSale(), price);
-                        break;
-                    }
+    /**
+     * True if the error means the database could not be reached, not that it rejected a row.
+     */
+    private static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransientConnectionException || e instanceof SQLNonTransientConnectionException
+                || (state != null && state.startsWith("08"));
+    }
 
-                    case "isForRent": {
-                        boolean fr = Boolean.parseBoolean(value);
-                        plot.setForRent(fr, fr ? plot.getRentPrice() : 0.0D);
-                        break;
+    /**
+     * Writes plot rows plus a diff of their child rows: only new or changed zones are
+     * upserted, only zones no longer on the plot are deleted (by stable id), and likes,
+     * bans and roles are inserted/deleted per player against what is already stored.
+     * @return child rows touched.
+     */
+    private int writePlotBatch(List<Plot> batch) throws SQLException {
+        List<Zone> savedZones = new ArrayList<>();
+        List<Long> savedVersions = new ArrayList<>();
+        Map<UUID, StoredRows> nextStored = new HashMap<>();
+        int zoneUpserts = 0, zoneDeletes = 0, memberRows = 0;
+
+        try (Connection conn = hikari.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement up = conn.prepareStatement(UPSERT_PLOT);
+                 PreparedStatement upZone = conn.prepareStatement(UPSERT_ZONE);
+                 PreparedStatement delZone = conn.prepareStatement(DELETE_ZONE);
+                 PreparedStatement delLegacy = conn.prepareStatement(DELETE_LEGACY_ZONE);
+                 PreparedStatement insLike = conn.prepareStatement(INSERT_LIKE);
+                 PreparedStatement delLike = conn.prepareStatement(DELETE_LIKE);
+                 PreparedStatement insBan = conn.prepareStatement(INSERT_BAN);
+                 PreparedStatement delBan = conn.prepareStatement(DELETE_BAN);
+                 PreparedStatement upRole = conn.prepareStatement(UPSERT_ROLE);
+                 PreparedStatement delRole = conn.prepareStatement(DELETE_ROLE)) {
+
+                PreparedStatement[] all = {up, upZone, delZone, delLegacy, insLike, delLike, insBan, delBan, upRole, delRole};
+                int pending = 0;
+                for (Plot plot : batch) {
+                    String plotId = plot.getPlotId().toString();
+                    StoredRows prev = storedRows.getOrDefault(plot.getPlotId(), NOTHING_STORED);
+                    StoredRows next = new StoredRows();
+
+                    // 1) Upsert plot row
+                    bindPlot(up, plot);
+                    up.addBatch();
+
+                    // 2) Zones
+                    for (Zone zone : new ArrayList<>(plot.getZones())) {
+                        next.zones.add(zone.getZoneId());
+                        if (!zone.isDirty() && prev.zones.contains(zone.getZoneId())) continue;
+
+                        // Capture the version before reading fields: later edits keep the zone dirty
+                        savedZones.add(zone);
+                        savedVersions.add(zone.getVersion());
+                        bindZone(upZone, plotId, zone);
+                        upZone.addBatch();
+                        zoneUpserts++;
                     }
-                    case "rentPrice": {
-                        double rp = Double.parseDouble(value);
-                        plot.setForRent(plot.isForRent(), rp);
-                        break;
+                    for (UUID removed : prev.zones) {
+                        if (next.zones.contains(removed)) continue;
+                        delZone.setString(1, removed.toString());
+                        delZone.addBatch();
+                        zoneDeletes++;
                     }
-                    case "rentExpires":
-                        plot.setRenter(plot.getCurrentRenter(), Long.parseLong(value));
-                        break;
-                    case "currentRenter": {
-                        UUID renter = UUID.fromString(value);
-                        plot.setRenter(renter, plot.getRentExpires());
-                        break;
+                    // Rows loaded under an invalid id; their zones were upserted above under a new one
+                    for (String key : prev.legacyZoneKeys) {
+                        delLegacy.setString(1, plotId);
+                        delLegacy.setString(2, key);
+                        delLegacy.setString(3, key);
+                        delLegacy.addBatch();
+                        zoneDeletes++;
                     }
 
-                    case "currentBid": {
-                        double bid = Double.parseDouble(value);
-                        plot.setCurrentBid(bid, plot.getCurrentBidder());
-                        break;
+                    // 3) Likes, bans, roles
+                    next.likes.addAll(plot.getLikedBy());
+                    next.bans.addAll(plot.getBannedPlayers());
+                    next.roles.putAll(plot.getPlayerRoles());
+                    memberRows += diffMembers(plotId, prev.likes, next.likes, insLike, delLike);
+                    memberRows += diffMembers(plotId, prev.bans, next.bans, insBan, delBan);
+                    for (Map.Entry<UUID, String> e : next.roles.entrySet()) {
+                        if (e.getValue().equals(prev.roles.get(e.getKey()))) continue;
+                        upRole.setString(1, plotId);
+                        upRole.setString(2, e.getKey().toString());
+                        upRole.setString(3, e.getValue());
+                        upRole.addBatch();
+                        memberRows++;
                     }
-                    case "currentBidder": {
-                        UUID bidder = UUID.fromString(value);
-                        plot.setCurrentBid(plot.getCurrentBid(), bidder);
-                        break;
-                    }
-
-                    case "likedBy": {
-                        String[] uuids = value.split(",");
-                        for (String uStr : uuids) {
-                            if (uStr.isEmpty()) continue;
-                            try {
-                                plot.toggleLike(UUID.fromString(uStr));
-                            } catch (IllegalArgumentException ignored) {}
-                        }
-                        break;
+                    for (UUID player : prev.roles.keySet()) {
+                        if (next.roles.containsKey(player)) continue;
+                        delRole.setString(1, plotId);
+                        delRole.setString(2, player.toString());
+                        delRole.addBatch();
+                        memberRows++;
                     }
 
-                    case "banned": {
-                        String[] uuids = value.split(",");
-                        for (String uStr : uuids) {
-                            if (uStr.isEmpty()) continue;
-                            try {
-                                plot.addBan(UUID.fromString(uStr));
-                            } catch (IllegalArgumentException ignored) {}
-                        }
-                        break;
-                    }
+                    nextStored.put(plot.getPlotId(), next);
 
-                    case "borderParticle":
-                        plot.setBorderParticle(value);
-                        break;
-                    case "ambientParticle":
-                        plot.setAmbientParticle(value);
-                        break;
-                    case "entryEffect":
-                        plot.setEntryEffect(value);
-                        break;
-
-                    case "isServerWarp": {
-                        boolean isWarp = Boolean.parseBoolean(value);
-                        plot.setServerWarp(isWarp, plot.getWarpName(), plot.getWarpIcon());
-                        break;
+                    // Bound driver memory on very large flushes
+                    if (++pending >= PLOT_BATCH_SIZE) {
+                        for (PreparedStatement ps : all) ps.executeBatch();
+                        pending = 0;
                     }
-                    case "warpName":
-                        plot.setServerWarp(plot.isServerWarp(), value, plot.getWarpIcon());
-                        break;
-                    case "warpIcon":
-                        if (!value.isEmpty()) {
-                            try {
-                                Material icon = Material.valueOf(value);
-                                plot.setServerWarp(plot.isServerWarp(), plot.getWarpName(), icon);
-                            } catch (IllegalArgumentException ignored) {}
-                        }
-                        break;
                 }
-            } catch (Exception ignored) {
-                // Avoid hard-crashing loads because of malformed settings
+                for (PreparedStatement ps : all) ps.executeBatch();
+                bumpGeneration(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
+
+        // Committed: advance the stored view
+        for (Map.Entry<UUID, StoredRows> e : nextStored.entrySet()) {
+            // Skip plots deleted meanwhile (their removal runs after this flush releases the lock)
+            if (registry.getPlotById(e.getKey()) != null) storedRows.put(e.getKey(), e.getValue());
+        }
+        for (int i = 0; i < savedZones.size(); i++) savedZones.get(i).markSaved(savedVersions.get(i));
+
+        zoneRowsWritten.add(zoneUpserts);
+        zoneRowsDeleted.add(zoneDeletes);
+        memberRowsWritten.add(memberRows);
+        return zoneUpserts + zoneDeletes + memberRows;
+    }
+
+    private int diffMembers(String plotId, Set<UUID> prev, Set<UUID> next,
+                            PreparedStatement insert, PreparedStatement delete) throws SQLException {
+        int rows = 0;
+        for (UUID player : next) {
+            if (prev.contains(player)) continue;
+            insert.setString(1, plotId);
+            insert.setString(2, player.toString());
+            insert.addBatch();
+            rows++;
+        }
+        for (UUID player : prev) {
+            if (next.contains(player)) continue;
+            delete.setString(1, plotId);
+            delete.setString(2, player.toString());
+            delete.addBatch();
+            rows++;
+        }
+        return rows;
+    }
+
+    private void bindPlot(PreparedStatement ps, Plot plot) throws SQLException {
+        ps.setString(1, plot.getPlotId().toString());
+        ps.setString(2, plot.getOwner().toString());
+        ps.setString(3, plot.getOwnerName());
+        ps.setString(4, plot.getWorld());
+        ps.setInt(5, plot.getX1());
+        ps.setInt(6, plot.getZ1());
+        ps.setInt(7, plot.getX2());
+        ps.setInt(8, plot.getZ2());
+        ps.setInt(9, plot.getLevel());
+        ps.setDouble(10, plot.getXp());
+        ps.setLong(11, plot.getLastUpkeepPayment());
+        ps.setString(12, plot.serializeFlags());
+
+        // Settings
+        ps.setInt(13, plot.getMaxMembers());
+        ps.setString(14, plot.getSpawnLocationString());
+        ps.setString(15, plot.getWelcomeMessage());
+        ps.setString(16, plot.getFarewellMessage());
+        ps.setString(17, plot.getEntryTitle());
+        ps.setString(18, plot.getEntrySubtitle());
+        ps.setString(19, plot.getDescription());
+        ps.setString(20, plot.getCustomBiome());
+
+        // Market / rent / auction
+        ps.setString(21, plot.getPlotStatus());
+        ps.setBoolean(22, plot.isForSale());
+        ps.setDouble(23, plot.getSalePrice());
+        ps.setBoolean(24, plot.isForRent());
+        ps.setDouble(25, plot.getRentPrice());
+        ps.setLong(26, plot.getRentExpires());
+        UUID renter = plot.getCurrentRenter();
+        ps.setString(27, renter != null ? renter.toString() : null);
+        ps.setDouble(28, plot.getCurrentBid());
+        UUID bidder = plot.getCurrentBidder();
+        ps.setString(29, bidder != null ? bidder.toString() : null);
+
+        // Cosmetics & warp
+        ps.setString(30, plot.getBorderParticle());
+        ps.setString(31, plot.getAmbientParticle());
+        ps.setString(32, plot.getEntryEffect());
+        ps.setBoolean(33, plot.isServerWarp());
+        ps.setString(34, plot.getWarpName());
+        ps.setString(35, plot.getWarpIcon() != null ? plot.getWarpIcon().name() : null);
+    }
+
+    private void bindZone(PreparedStatement ps, String plotId, Zone zone) throws SQLException {
+        ps.setString(1, zone.getZoneId().toString());
+        ps.setString(2, plotId);
+        ps.setString(3, zone.getName());
+        ps.setInt(4, zone.getX1());
+        ps.setInt(5, zone.getY1());
+        ps.setInt(6, zone.getZ1());
+        ps.setInt(7, zone.getX2());
+        ps.setInt(8, zone.getY2());
+        ps.setInt(9, zone.getZ2());
+
+        UUID renter = zone.getRenter();
+        ps.setString(10, renter != null ? renter.toString() : null);
+        ps.setDouble(11, zone.getRentPrice());
+        ps.setLong(12, zone.getRentExpiration());
+    }
+
+    public int getDirtyPlotCount() {
+        return registry.dirtyCount();
+    }
+
+    public String getSaveMetrics() {
+        long flushes = flushCount.sum();
+        long avgMs = flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalFlushNanos.sum() / flushes);
+        return "dirty=" + registry.dirtyCount()
+                + ", flushes=" + flushes
+                + ", plots=" + plotRowsWritten.sum()
+                + ", zones upserted/deleted=" + zoneRowsWritten.sum() + "/" + zoneRowsDeleted.sum()
+                + ", likes/bans/roles=" + memberRowsWritten.sum()
+                + ", latency last/avg/max=" + TimeUnit.NANOSECONDS.toMillis(lastFlushNanos)
+                + "/" + avgMs + "/" + TimeUnit.NANOSECONDS.toMillis(maxFlushNanos.get()) + "ms"
+                + ", failures=" + flushFailures.sum();
     }
 
     // --- HELPER: Cache Management ---
     private void cachePlot(Plot plot) {
-        plotsByOwner.computeIfAbsent(plot.getOwner(), k -> new ArrayList<>()).add(plot);
-        indexPlot(plot);
+        registry.add(plot);
     }
 
     // --- INTERFACE METHODS ---
 
     @Override
     public void createPlot(UUID owner, Location c1, Location c2) {
+        createPlotAsync(owner, c1, c2);
+    }
+
+    @Override
+    public CompletableFuture<Plot> createPlotAsync(UUID owner, Location c1, Location c2) {
         UUID id = UUID.randomUUID();
         String ownerName = Bukkit.getOfflinePlayer(owner).getName();
 
@@ -585,6 +583,7 @@ public class SQLDataStore implements IDataStore {
         Plot plot = new Plot(id, owner, ownerName, c1.getWorld().getName(), x1, z1, x2, z2, System.currentTimeMillis());
 
         addPlot(plot);
+        return flushPlot(plot).thenApply(v -> plot);
     }
 
     @Override
@@ -596,55 +595,250 @@ public class SQLDataStore implements IDataStore {
 
     @Override
     public void removePlot(UUID owner, UUID plotId) {
-        List<Plot> list = plotsByOwner.get(owner);
-        if (list != null) {
-            list.removeIf(p -> p.getPlotId().equals(plotId));
-        }
+        removePlotAsync(owner, plotId);
+    }
 
-        plugin.runGlobalAsync(() -> {
+    @Override
+    public CompletableFuture<Void> removePlotAsync(UUID owner, UUID plotId) {
+        registry.remove(owner, plotId);
+        return deletePlotRows(plotId);
+    }
+
+    /**
+     * Deletes a plot's row and its zones, likes, bans and roles on the plot's storage queue.
+     */
+    private CompletableFuture<Void> deletePlotRows(UUID plotId) {
+        return storage.submit(plotId, () -> {
+            // Serialized with flushes so an in-flight write cannot resurrect the row
+            saveLock.lock();
             try (Connection conn = hikari.getConnection()) {
+                bumpGeneration(conn); // First: a crash mid-delete must still invalidate the snapshot
                 try (PreparedStatement ps = conn.prepareStatement(DELETE_PLOT)) {
                     ps.setString(1, plotId.toString());
                     ps.executeUpdate();
                 }
-                try (PreparedStatement ps = conn.prepareStatement(DELETE_ZONES_BY_PLOT)) {
-                    ps.setString(1, plotId.toString());
-                    ps.executeUpdate();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
+                deleteChildRows(conn, Collections.singletonList(plotId));
+                return null;
+            } finally {
+                saveLock.unlock();
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> flushPlot(Plot plot) {
+        return storage.submit(plot.getPlotId(), () -> {
+            if (!plot.isDirty()) return null;
+            if (hikari == null || hikari.isClosed()) throw new IllegalStateException("Database is closed");
+
+            saveLock.lock();
+            try {
+                // Re-checked under the lock: a batch flush may have just written it, or it was removed
+                if (!plot.isDirty() || registry.getPlotById(plot.getPlotId()) != plot) return null;
+                long revision = plot.getRevision();
+                writePlotBatch(Collections.singletonList(plot));
+                plot.markSaved(revision); // Still in the dirty set; the next flush skips it if clean
+                plotRowsWritten.increment();
+                return null;
+            } finally {
+                saveLock.unlock();
             }
         });
     }
 
     @Override
     public void removeAllPlots(UUID owner) {
-        List<Plot> owned = plotsByOwner.remove(owner);
-        if (owned != null) {
-            for (Plot plot : owned) deIndexPlot(plot);
+        for (Plot plot : registry.removeAll(owner)) deletePlotRows(plot.getPlotId());
+
+        // Plots in worlds that are not loaded exist only in the database
+        storage.submit(owner, () -> {
+            List<UUID> ids = new ArrayList<>();
+            try (Connection conn = reader.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(SELECT_PLOT_IDS_BY_OWNER)) {
+                ps.setString(1, owner.toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID id = SQLPlotLoader.parseUuid(rs.getString(1));
+                        if (id != null) ids.add(id);
+                    }
+                }
+            }
+            for (UUID id : ids) {
+                if (registry.getPlotById(id) == null) deletePlotRows(id); // Skip plots claimed since
+            }
+            return null;
+        });
+    }
+
+    // ----------------------------------------
+    // --- GENERATION / SNAPSHOT ---
+    // ----------------------------------------
+
+    private void bumpGeneration(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQLSchema.BUMP_GENERATION)) {
+            ps.executeUpdate();
         }
+    }
 
-        plugin.runGlobalAsync(() -> {
+    /**
+     * Current store generation, or -1 if it cannot be read.
+     */
+    private long readGeneration() {
+        if (hikari == null || hikari.isClosed()) return -1;
+        try (Connection conn = reader.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQLSchema.SELECT_GENERATION);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Child rows as stored for a plot that is known to be fully persisted.
+     */
+    private static StoredRows storedView(Plot plot) {
+        StoredRows st = new StoredRows();
+        for (Zone zone : plot.getZones()) st.zones.add(zone.getZoneId());
+        st.likes.addAll(plot.getLikedBy());
+        st.bans.addAll(plot.getBannedPlayers());
+        st.roles.putAll(plot.getPlayerRoles());
+        return st;
+    }
+
+    private void writeSnapshot(boolean wait) {
+        if (snapshot == null) return;
+        if (wait) saveLock.lock();
+        else if (!saveLock.tryLock()) return; // A flush is running; the next save writes it
+
+        try {
+            snapshot.saveFrom(registry, readGeneration());
+        } finally {
+            saveLock.unlock();
+            if (!wait && registry.dirtyCount() > 0) requestFlush();
+        }
+    }
+
+    // ----------------------------------------
+    // --- BULK TRANSFER (storage migration) ---
+    // ----------------------------------------
+
+    @Override
+    public boolean importPlots(Collection<Plot> plots, Collection<UUID> removed) {
+        if (hikari == null || hikari.isClosed()) return false;
+
+        if (!removed.isEmpty()) {
+            List<UUID> ids = new ArrayList<>(removed);
+            for (UUID id : ids) {
+                Plot current = registry.getPlotById(id);
+                if (current != null) registry.remove(current.getOwner(), id);
+            }
+            saveLock.lock();
             try (Connection conn = hikari.getConnection()) {
-                try (PreparedStatement ps = conn.prepareStatement(DELETE_PLOTS_BY_OWNER)) {
-                    ps.setString(1, owner.toString());
-                    ps.executeUpdate();
+                bumpGeneration(conn);
+                try (PreparedStatement ps = conn.prepareStatement(DELETE_PLOT)) {
+                    for (UUID id : ids) {
+                        ps.setString(1, id.toString());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
                 }
-                // Clean up zones for all plots owned by this UUID (brute-force if needed)
-                // Optional: if you also store owner_uuid in zones, you could target more precisely.
+                deleteChildRows(conn, ids);
             } catch (SQLException e) {
-                e.printStackTrace();
+                plugin.getLogger().warning("Failed to delete " + ids.size() + " plots: " + e.getMessage());
+                return false;
+            } finally {
+                saveLock.unlock();
             }
-        });
+        }
+
+        // Plots this store never loaded (e.g. unloaded worlds) may still have child rows; the
+        // diff would only insert on top of them
+        List<UUID> unknown = new ArrayList<>();
+        for (Plot plot : plots) {
+            if (!storedRows.containsKey(plot.getPlotId())) unknown.add(plot.getPlotId());
+        }
+        if (!unknown.isEmpty()) {
+            saveLock.lock();
+            try (Connection conn = hikari.getConnection()) {
+                deleteChildRows(conn, unknown);
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to clear rows of " + unknown.size() + " plots: " + e.getMessage());
+                return false;
+            } finally {
+                saveLock.unlock();
+            }
+        }
+
+        for (Plot plot : plots) {
+            Plot current = registry.getPlotById(plot.getPlotId());
+            if (current != null) registry.remove(current.getOwner(), current.getPlotId());
+            cachePlot(plot);
+            plot.markDirty();
+        }
+        flushDirtyPlots(true);
+        for (Plot plot : plots) {
+            if (plot.isDirty()) return false;
+        }
+        return true;
     }
 
     @Override
-    public void changePlotOwner(Plot plot, UUID newOwner, String newOwnerName) {
-        List<Plot> oldList = plotsByOwner.get(plot.getOwner());
-        if (oldList != null) oldList.remove(plot);
+    public List<Plot> readStoredPlots() {
+        if (reader == null || reader.isClosed()) throw new IllegalStateException("Database is not connected.");
+        return new SQLPlotLoader(plugin, reader).readAll();
+    }
+
+    @Override
+    public long exportWildernessLog(long afterId, int limit, Consumer<WildernessLogBuffer.Entry> sink) {
+        if (hikari == null || hikari.isClosed()) return afterId;
+        flushWildernessLog(true); // Buffered entries first, so nothing is skipped
+
+        long last = afterId;
+        try (Connection conn = reader.getConnection();
+             PreparedStatement ps = conn.prepareStatement(EXPORT_WILDERNESS)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String player = rs.getString("player_uuid");
+                    sink.accept(new WildernessLogBuffer.Entry(rs.getString("world"), rs.getInt("x"), rs.getInt("y"), rs.getInt("z"),
+                            rs.getString("old_material"), rs.getString("new_material"), rs.getLong("timestamp"),
+                            SQLPlotLoader.parseUuid(player)));
+                    last = rs.getLong("id");
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to read wilderness log: " + e.getMessage());
+        }
+        return last;
+    }
+
+    @Override
+    public boolean importWildernessLog(List<WildernessLogBuffer.Entry> entries) {
+        if (hikari == null || hikari.isClosed()) return false;
+        return entries.isEmpty() || writeWildernessBatch(entries);
+    }
 
+    private void deleteChildRows(Connection conn, List<UUID> plotIds) throws SQLException {
+        if (plotIds.isEmpty()) return;
+        for (String sql : DELETE_CHILDREN_BY_PLOT) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (UUID plotId : plotIds) {
+                    ps.setString(1, plotId.toString());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        for (UUID plotId : plotIds) storedRows.remove(plotId);
+    }
+
+    @Override
+    public void changePlotOwner(Plot plot, UUID newOwner, String newOwnerName) {
+        UUID oldOwner = plot.getOwner();
         plot.internalSetOwner(newOwner, newOwnerName);
-        plotsByOwner.computeIfAbsent(newOwner, k -> new ArrayList<>()).add(plot);
+        registry.ownerChanged(plot, oldOwner);
 
         savePlot(plot);
     }
@@ -669,80 +863,140 @@ public class SQLDataStore implements IDataStore {
     }
 
     // ==============================================================    
-    // --- Indexing Helpers ---
+    // --- Wilderness Logging ---
     // ==============================================================    
 
-    private void indexPlot(Plot plot) {
-        String w = plot.getWorld();
-        int minX = plot.getX1() >> 4;
-        int minZ = plot.getZ1() >> 4;
-        int maxX = plot.getX2() >> 4;
-        int maxZ = plot.getZ2() >> 4;
-
-        Map<String, Set<Plot>> worldChunks = plotsByChunk.computeIfAbsent(w, k -> new ConcurrentHashMap<>());
+    @Override
+    public void logWildernessBlock(Location loc, String oldMat, String newMat, UUID playerUUID) {
+        if (loc == null || loc.getWorld() == null) return;
 
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                String key = x + "," + z;
-                worldChunks.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(plot);
-            }
+        // Cheap enqueue on the calling thread; rows are written in batches by flushWildernessLog()
+        WildernessLogBuffer.Entry entry = new WildernessLogBuffer.Entry(loc.getWorld().getName(),
+                loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), oldMat, newMat, System.currentTimeMillis(), playerUUID);
+        if (wildernessLog.offer(entry)) {
+            plugin.runGlobalAsync(this::flushWildernessLog);
         }
     }
 
-    private void deIndexPlot(Plot plot) {
-        Map<String, Set<Plot>> worldChunks = plotsByChunk.get(plot.getWorld());
-        if (worldChunks == null) return;
+    @Override
+    public void flushWildernessLog() {
+        flushWildernessLog(false);
+    }
 
-        int minX = plot.getX1() >> 4;
-        int minZ = plot.getZ1() >> 4;
-        int maxX = plot.getX2() >> 4;
-        int maxZ = plot.getZ2() >> 4;
+    /**
+     * Drains the write-behind buffer in JDBC batches, one transaction per batch.
+     * @param wait true to block until a concurrent flush finishes (shutdown).
+     */
+    private void flushWildernessLog(boolean wait) {
+        if (hikari == null || hikari.isClosed()) return;
+        if (wait) wildernessFlushLock.lock();
+        else if (!wildernessFlushLock.tryLock()) return;
+
+        try {
+            long droppedBefore = wildernessLog.getDropped();
+            List<WildernessLogBuffer.Entry> batch;
+            while (!(batch = wildernessLog.drain()).isEmpty()) {
+                if (!writeWildernessBatch(batch)) break;
+            }
+            long droppedNow = wildernessLog.getDropped();
+            if (droppedNow > droppedBefore) {
+                plugin.getLogger().warning("Wilderness log buffer full, dropped " + (droppedNow - droppedBefore)
+                        + " entries. Consider raising wilderness_revert.log_buffer_capacity. [" + wildernessLog + "]");
+            }
+        } finally {
+            wildernessFlushLock.unlock();
+        }
+    }
 
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                String key = x + "," + z;
-                Set<Plot> set = worldChunks.get(key);
-                if (set != null) {
-                    set.remove(plot);
-                    if (set.isEmpty()) worldChunks.remove(key);
+    private boolean writeWildernessBatch(List<WildernessLogBuffer.Entry> batch) {
+        try (Connection conn = hikari.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(LOG_WILDERNESS)) {
+                for (WildernessLogBuffer.Entry e : batch) {
+                    ps.setString(1, e.world());
+                    ps.setInt(2, e.x());
+                    ps.setInt(3, e.y());
+                    ps.setInt(4, e.z());
+                    ps.setString(5, e.oldMaterial());
+                    ps.setString(6, e.newMaterial());
+                    ps.setLong(7, e.timestamp());
+                    ps.setString(8, e.player() != null ? e.player().toString() : null);
+                    ps.addBatch();
                 }
+                ps.executeBatch();
+                conn.commit();
+                wildernessLog.recordWritten(batch.size());
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
+        } catch (SQLException e) {
+            wildernessLog.recordFailed(batch.size());
+            plugin.getLogger().warning("Failed to write " + batch.size() + " wilderness log entries: " + e.getMessage());
+            return false;
         }
     }
 
-    private Set<String> getChunksInArea(String world, int x1, int z1, int x2, int z2) {
-        return Collections.emptySet();
+    public WildernessLogBuffer getWildernessLog() {
+        return wildernessLog;
     }
 
-    // ==============================================================    
-    // --- Wilderness Logging ---
-    // ==============================================================    
-
     @Override
-    public void logWildernessBlock(Location loc, String oldMat, String newMat, UUID playerUUID) {
-        if (loc == null || loc.getWorld() == null) return;
-
-        plugin.runGlobalAsync(() -> {
-            try (Connection conn = hikari.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(LOG_WILDERNESS)) {
-                ps.setString(1, loc.getWorld().getName());
-                ps.setInt(2, loc.getBlockX());
-                ps.setInt(3, loc.getBlockY());
-                ps.setInt(4, loc.getBlockZ());
-                ps.setString(5, oldMat);
-                ps.setString(6, newMat);
-                ps.setLong(7, System.currentTimeMillis());
-                ps.setString(8, playerUUID.toString());
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                // Suppress minor logging errors
+    public void revertWildernessBlocks(long timestamp, int limit) {
+        if (hikari == null || hikari.isClosed() || limit <= 0) return;
+        if (revertEngine.isRunning()) return; // Previous page still being applied
+
+        // Make buffered edits visible before paging
+        flushWildernessLog();
+
+        List<WildernessRevertEngine.Block> page = new ArrayList<>();
+        long cursor = revertCursor;
+        try (Connection conn = reader.getConnection();
+             PreparedStatement ps = conn.prepareStatement(GET_REVERTABLE_BLOCKS)) {
+            ps.setLong(1, timestamp);
+            ps.setLong(2, cursor);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new WildernessRevertEngine.Block(rs.getLong("id"), rs.getString("world"),
+                            rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), rs.getString("old_material"), rs.getString("new_material")));
+                }
             }
-        });
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to query wilderness log: " + e.getMessage());
+            return;
+        }
+
+        // A short page means we reached the end; start over so skipped chunks are retried
+        revertCursor = page.size() < limit ? 0 : page.get(page.size() - 1).id();
+        if (page.isEmpty()) return;
+
+        revertEngine.submit(page, this::deleteWildernessRows);
     }
 
-    @Override
-    public void revertWildernessBlocks(long timestamp, int limit) {
-        // TODO: implement rollback logic if you want SQL-driven wilderness revert
+    private void deleteWildernessRows(List<Long> ids) {
+        if (ids.isEmpty() || hikari == null || hikari.isClosed()) return;
+        try (Connection conn = hikari.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_WILDERNESS_BY_ID)) {
+                for (long id : ids) {
+                    ps.setLong(1, id);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to delete " + ids.size() + " reverted wilderness rows: " + e.getMessage());
+        }
     }
 
     // ==============================================================    
@@ -751,7 +1005,7 @@ public class SQLDataStore implements IDataStore {
 
     @Override
     public boolean isDirty() {
-        return isDirty;
+        return isDirty || registry.dirtyCount() > 0;
     }
 
     @Override
@@ -761,56 +1015,72 @@ public class SQLDataStore implements IDataStore {
 
     @Override
     public List<Plot> getPlots(UUID owner) {
-        return plotsByOwner.getOrDefault(owner, Collections.emptyList());
+        return registry.getPlots(owner);
     }
 
     @Override
     public Collection<Plot> getAllPlots() {
-        return plotsByOwner.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        return registry.getAllPlots();
     }
 
     @Override
-    public Collection<Plot> getPlotsForSale() {
-        return getAllPlots().stream().filter(Plot::isForSale).collect(Collectors.toList());
+    public long getPlotsGeneration() {
+        return registry.generation();
     }
 
     @Override
-    public Collection<Plot> getPlotsForAuction() {
-        return getAllPlots().stream().filter(p -> "AUCTION".equals(p.getPlotStatus())).collect(Collectors.toList());
+    public List<Plot> getPlotsForSale() {
+        return registry.getListing(PlotListingIndex.Listing.FOR_SALE);
     }
 
     @Override
-    public Plot getPlot(UUID owner, UUID plotId) {
-        return getPlots(owner).stream().filter(p -> p.getPlotId().equals(plotId)).findFirst().orElse(null);
+    public List<Plot> getPlotsForAuction() {
+        return registry.getListing(PlotListingIndex.Listing.AUCTION);
     }
 
     @Override
-    public Plot getPlotAt(Location loc) {
-        String worldName = loc.getWorld().getName();
-        String key = (loc.getBlockX() >> 4) + "," + (loc.getBlockZ() >> 4);
+    public List<Plot> getPlotsForRent() {
+        return registry.getListing(PlotListingIndex.Listing.FOR_RENT);
+    }
 
-        Map<String, Set<Plot>> worldChunks = plotsByChunk.get(worldName);
-        if (worldChunks == null) return null;
+    @Override
+    public List<Plot> getServerWarps() {
+        return registry.getListing(PlotListingIndex.Listing.SERVER_WARPS);
+    }
 
-        Set<Plot> chunkPlots = worldChunks.get(key);
-        if (chunkPlots == null) return null;
+    @Override
+    public List<Plot> getTopLikedPlots() {
+        return registry.getListing(PlotListingIndex.Listing.TOP_LIKED);
+    }
 
-        for (Plot p : chunkPlots) {
-            if (p.isInside(loc)) return p;
-        }
-        return null;
+    @Override
+    public Plot getPlot(UUID owner, UUID plotId) {
+        return registry.getPlot(owner, plotId);
+    }
+
+    @Override
+    public Plot getPlotById(UUID plotId) {
+        return registry.getPlotById(plotId);
+    }
+
+    @Override
+    public Plot getPlotAt(Location loc) {
+        return registry.spatial().getPlotAt(loc);
     }
 
     @Override
     public boolean isAreaOverlapping(Plot plotToIgnore, String world, int x1, int z1, int x2, int z2) {
-        for (Plot p : getAllPlots()) {
-            if (!p.getWorld().equals(world)) continue;
-            if (plotToIgnore != null && p.getPlotId().equals(plotToIgnore.getPlotId())) continue;
+        return registry.spatial().isAreaOverlapping(plotToIgnore, world, x1, z1, x2, z2);
+    }
 
-            if (x1 <= p.getX2() && x2 >= p.getX1() && z1 <= p.getZ2() && z2 >= p.getZ1()) {
-                return true;
-            }
-        }
-        return false;
+    @Override
+    public Collection<Plot> getPlotsInArea(String world, int x1, int z1, int x2, int z2) {
+        return registry.spatial().getPlotsInArea(world, x1, z1, x2, z2);
+    }
+
+    @Override
+    public Collection<Plot> getPlotsNear(Location loc, int radius) {
+        if (loc == null || loc.getWorld() == null) return Collections.emptyList();
+        return registry.spatial().getPlotsNear(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockZ(), radius);
     }
 }
@@ -0,0 +1,431 @@
+package com.aegisguard.data;
+
+import com.aegisguard.AegisGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SQLPlotLoader (Startup Loader) - v1.2.3
+ * - Streams aegis_plots with a bounded fetch size and hands row chunks to a worker
+ *   pool, so Plot objects are built while later rows are still being fetched.
+ * - Zones and likes/bans/roles are fetched concurrently on their own connections,
+ *   then attached in parallel (each plot belongs to exactly one worker chunk).
+ * - Indexes are built in parallel by PlotRegistry.replaceAll and published in one swap.
+ * - readAll() runs the same pipeline over every world without publishing (store migration).
+ * - A failed query aborts the whole load before anything is published: a partial registry
+ *   would leave claims unprotected and members without their roles.
+ * - Logs a per-phase timing breakdown.
+ */
+public class SQLPlotLoader {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int CHUNK_SIZE = 1024;
+
+    // Column order matches SQLDataStore.UPSERT_PLOT
+    private static final String SELECT_PLOTS =
+            "SELECT plot_id, owner_uuid, owner_name, world, x1, z1, x2, z2, level, xp, last_upkeep, flags, " +
+                    "max_members, spawn, welcome, farewell, entry_title, entry_subtitle, description, custom_biome, " +
+                    "plot_status, for_sale, sale_price, for_rent, rent_price, rent_expires, current_renter, " +
+                    "current_bid, current_bidder, border_particle, ambient_particle, entry_effect, " +
+                    "server_warp, warp_name, warp_icon FROM aegis_plots";
+    private static final String SELECT_ZONES =
+            "SELECT zone_id, plot_id, name, x1, y1, z1, x2, y2, z2, renter, price, expires FROM aegis_zones";
+    private static final String SELECT_ROLES = "SELECT plot_id, player_uuid, role FROM aegis_plot_roles";
+    private static final String SELECT_BANS = "SELECT plot_id, player_uuid FROM aegis_plot_bans";
+    private static final String SELECT_LIKES = "SELECT plot_id, player_uuid FROM aegis_plot_likes";
+
+    public record Result(int plots, int skipped, int zones, int members, Map<UUID, SQLDataStore.StoredRows> stored) {}
+
+    private final AegisGuard plugin;
+    private final HikariDataSource hikari;
+    private final int threads;
+
+    public SQLPlotLoader(AegisGuard plugin, HikariDataSource hikari) {
+        this.plugin = plugin;
+        this.hikari = hikari;
+        int configured = plugin.cfg().raw().getInt("storage.load_threads", 0);
+        this.threads = configured > 0 ? configured : Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Loads every plot and publishes it into 'registry' (replacing its contents).
+     * @throws IllegalStateException if any table could not be read; 'registry' is left untouched.
+     */
+    public Result load(PlotRegistry registry) {
+        // Resolve loaded worlds once on the calling thread
+        Set<String> worlds = new HashSet<>();
+        for (World w : Bukkit.getWorlds()) worlds.add(w.getName());
+        return run(registry, worlds, null);
+    }
+
+    /**
+     * Reads every plot, whatever its world, as detached objects; nothing is published.
+     * @throws IllegalStateException if any table or plot row could not be read.
+     */
+    public List<Plot> readAll() {
+        List<Plot> out = new ArrayList<>();
+        Result result = run(null, null, out);
+        if (result.skipped() > 0) {
+            throw new IllegalStateException(result.skipped() + " plot rows could not be read.");
+        }
+        return out;
+    }
+
+    /**
+     * @param registry null to collect into 'out' instead of publishing.
+     * @param worlds null for every world.
+     */
+    private Result run(PlotRegistry registry, Set<String> worlds, List<Plot> out) {
+        ExecutorService io = Executors.newFixedThreadPool(4, named("AegisGuard-Load-IO"));
+        ExecutorService workers = Executors.newFixedThreadPool(threads, named("AegisGuard-Load"));
+        try {
+            long start = System.nanoTime();
+
+            // Child tables stream in the background while plots are fetched
+            CompletableFuture<Map<UUID, List<Object[]>>> zones = fetchGrouped(SELECT_ZONES, 1, io);
+            CompletableFuture<Map<UUID, List<Object[]>>> roles = fetchGrouped(SELECT_ROLES, 0, io);
+            CompletableFuture<Map<UUID, List<Object[]>>> bans = fetchGrouped(SELECT_BANS, 0, io);
+            CompletableFuture<Map<UUID, List<Object[]>>> likes = fetchGrouped(SELECT_LIKES, 0, io);
+
+            // 1) Stream plot rows; parse chunks on workers
+            AtomicInteger skipped = new AtomicInteger();
+            List<CompletableFuture<List<Plot>>> parsing = new ArrayList<>();
+            int rows = 0;
+            try (Connection conn = hikari.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(SELECT_PLOTS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    int cols = rs.getMetaData().getColumnCount();
+                    List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+                    while (rs.next()) {
+                        chunk.add(readRow(rs, cols));
+                        rows++;
+                        if (chunk.size() >= CHUNK_SIZE) {
+                            parsing.add(parseAsync(chunk, worlds, skipped, workers));
+                            chunk = new ArrayList<>(CHUNK_SIZE);
+                        }
+                    }
+                    if (!chunk.isEmpty()) parsing.add(parseAsync(chunk, worlds, skipped, workers));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to load plots: " + e.getMessage(), e);
+            }
+            long fetched = System.nanoTime();
+
+            List<Plot> plots = new ArrayList<>(rows);
+            for (CompletableFuture<List<Plot>> f : parsing) plots.addAll(f.join());
+            long parsed = System.nanoTime();
+
+            // 2) Attach zones / roles / bans / likes
+            Map<UUID, List<Object[]>> zoneRows = join(zones);
+            Map<UUID, List<Object[]>> roleRows = join(roles);
+            Map<UUID, List<Object[]>> banRows = join(bans);
+            Map<UUID, List<Object[]>> likeRows = join(likes);
+            long childrenFetched = System.nanoTime();
+
+            Map<UUID, SQLDataStore.StoredRows> stored = new ConcurrentHashMap<>();
+            AtomicInteger zoneCount = new AtomicInteger();
+            AtomicInteger memberCount = new AtomicInteger();
+            long now = System.currentTimeMillis();
+
+            List<CompletableFuture<Void>> attaching = new ArrayList<>();
+            for (int from = 0; from < plots.size(); from += CHUNK_SIZE) {
+                List<Plot> slice = plots.subList(from, Math.min(plots.size(), from + CHUNK_SIZE));
+                attaching.add(CompletableFuture.runAsync(() -> {
+                    for (Plot plot : slice) {
+                        SQLDataStore.StoredRows st = new SQLDataStore.StoredRows();
+                        UUID id = plot.getPlotId();
+                        zoneCount.addAndGet(attachZones(plot, zoneRows.get(id), st, now));
+                        memberCount.addAndGet(attachMembers(plot, roleRows.get(id), banRows.get(id), likeRows.get(id), st));
+                        stored.put(id, st);
+                    }
+                }, workers));
+            }
+            CompletableFuture.allOf(attaching.toArray(new CompletableFuture[0])).join();
+            long attached = System.nanoTime();
+
+            if (registry == null) {
+                out.addAll(plots);
+                return new Result(plots.size(), skipped.get(), zoneCount.get(), memberCount.get(), stored);
+            }
+
+            // 3) Build indexes in parallel and publish
+            registry.replaceAll(plots, workers);
+            registry.markAllClean(); // Setters used while rebuilding marked everything dirty
+            for (Map.Entry<UUID, SQLDataStore.StoredRows> e : stored.entrySet()) {
+                // Zones stored under an invalid id: rewrite them under their new id
+                if (!e.getValue().legacyZoneKeys.isEmpty()) registry.getPlotById(e.getKey()).markDirty();
+            }
+            long published = System.nanoTime();
+
+            plugin.getLogger().info("Loaded " + plots.size() + " plots, " + zoneCount.get() + " zones and "
+                    + memberCount.get() + " likes/bans/roles from Database in " + ms(published - start) + "ms"
+                    + " [stream " + ms(fetched - start)
+                    + ", parse wait " + ms(parsed - fetched)
+                    + ", child tables wait " + ms(childrenFetched - parsed)
+                    + ", attach " + ms(attached - childrenFetched)
+                    + ", index+publish " + ms(published - attached)
+                    + "; " + threads + " workers]"
+                    + (skipped.get() > 0 ? " Skipped " + skipped.get() + " plots (invalid or world not loaded)." : ""));
+
+            return new Result(plots.size(), skipped.get(), zoneCount.get(), memberCount.get(), stored);
+        } finally {
+            io.shutdownNow();
+            workers.shutdown();
+        }
+    }
+
+    // ----------------------------------------
+    // --- FETCH ---
+    // ----------------------------------------
+
+    private CompletableFuture<Map<UUID, List<Object[]>>> fetchGrouped(String sql, int plotIdColumn, ExecutorService io) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<UUID, List<Object[]>> grouped = new HashMap<>();
+            try (Connection conn = hikari.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    int cols = rs.getMetaData().getColumnCount();
+                    while (rs.next()) {
+                        Object[] row = readRow(rs, cols);
+                        UUID plotId = parseUuid(str(row[plotIdColumn]));
+                        if (plotId != null) grouped.computeIfAbsent(plotId, k -> new ArrayList<>()).add(row);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to load rows (" + sql + "): " + e.getMessage(), e);
+            }
+            return grouped;
+        }, io);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IllegalStateException cause) throw cause;
+            throw new IllegalStateException("Failed to load plots: " + e.getCause(), e.getCause());
+        }
+    }
+
+    private static Object[] readRow(ResultSet rs, int cols) throws SQLException {
+        Object[] row = new Object[cols];
+        for (int i = 0; i < cols; i++) row[i] = rs.getObject(i + 1);
+        return row;
+    }
+
+    // ----------------------------------------
+    // --- PARSE / ATTACH (workers) ---
+    // ----------------------------------------
+
+    private CompletableFuture<List<Plot>> parseAsync(List<Object[]> chunk, Set<String> worlds, AtomicInteger skipped, ExecutorService workers) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Plot> out = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                try {
+                    Plot plot = parsePlot(row, worlds);
+                    if (plot != null) out.add(plot);
+                    else skipped.incrementAndGet();
+                } catch (Exception ex) {
+                    skipped.incrementAndGet();
+                }
+            }
+            return out;
+        }, workers);
+    }
+
+    private Plot parsePlot(Object[] r, Set<String> worlds) {
+        UUID plotId = UUID.fromString(str(r[0]));
+        UUID ownerId = UUID.fromString(str(r[1]));
+        String worldName = str(r[3]);
+        if (worldName == null || (worlds != null && !worlds.contains(worldName))) return null;
+
+        Plot plot = new Plot(plotId, ownerId, str(r[2]), worldName, i(r[4]), i(r[5]), i(r[6]), i(r[7]));
+        plot.setLevel(i(r[8]));
+        plot.setXp(d(r[9]));
+        plot.setLastUpkeepPayment(l(r[10]));
+
+        // Flags
+        String flagsStr = str(r[11]);
+        if (flagsStr != null && !flagsStr.isEmpty()) {
+            for (String part : flagsStr.split(",")) {
+                String[] kv = part.split(":", 2);
+                if (kv.length == 2) plot.setFlag(kv[0], Boolean.parseBoolean(kv[1]));
+            }
+        }
+
+        // Settings
+        plot.setMaxMembers(i(r[12]));
+        plot.setSpawnLocationFromString(str(r[13]));
+        plot.setWelcomeMessage(str(r[14]));
+        plot.setFarewellMessage(str(r[15]));
+        plot.setEntryTitle(str(r[16]));
+        plot.setEntrySubtitle(str(r[17]));
+        plot.setDescription(str(r[18]));
+        plot.setCustomBiome(str(r[19]));
+
+        // Market / rent / auction
+        String status = str(r[20]);
+        if (status != null) plot.setPlotStatus(status);
+        plot.setForSale(b(r[21]), d(r[22]));
+        plot.setForRent(b(r[23]), d(r[24]));
+        plot.setRenter(parseUuid(str(r[26])), l(r[25]));
+        plot.setCurrentBid(d(r[27]), parseUuid(str(r[28])));
+
+        // Cosmetics & warp
+        plot.setBorderParticle(str(r[29]));
+        plot.setAmbientParticle(str(r[30]));
+        plot.setEntryEffect(str(r[31]));
+        plot.setServerWarp(b(r[32]), str(r[33]), parseMaterial(str(r[34])));
+        return plot;
+    }
+
+    private int attachZones(Plot plot, List<Object[]> rows, SQLDataStore.StoredRows st, long now) {
+        if (rows == null) return 0;
+        int count = 0;
+        for (Object[] z : rows) {
+            try {
+                String storedId = str(z[0]);
+                UUID zoneId = parseUuid(storedId);
+                boolean legacy = zoneId == null;
+                if (legacy) zoneId = UUID.randomUUID(); // Left dirty: saved under this id, old row deleted
+
+                Zone zone = new Zone(zoneId, plot, str(z[2]), i(z[3]), i(z[4]), i(z[5]), i(z[6]), i(z[7]), i(z[8]));
+                zone.setRentPrice(d(z[10]));
+
+                UUID renter = parseUuid(str(z[9]));
+                long expires = l(z[11]);
+                if (renter != null && expires > now) {
+                    // Keep the exact stored expiration
+                    zone.setRentState(renter, expires);
+                }
+
+                plot.addZone(zone);
+                if (legacy) st.legacyZoneKeys.add(storedId);
+                else if (st.zones.add(zoneId)) zone.markSaved(zone.getVersion());
+                count++;
+            } catch (Exception ignored) {
+                // Corrupt zone row; skip
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Roles, then bans, then likes (same precedence as the old blob order).
+     */
+    private int attachMembers(Plot plot, List<Object[]> roles, List<Object[]> bans, List<Object[]> likes, SQLDataStore.StoredRows st) {
+        int count = 0;
+        for (Object[] r : rows(roles)) {
+            UUID player = parseUuid(str(r[1]));
+            String role = str(r[2]);
+            if (player == null || role == null) continue;
+            plot.setRole(player, role);
+            st.roles.put(player, role);
+            count++;
+        }
+        for (Object[] r : rows(bans)) {
+            UUID player = parseUuid(str(r[1]));
+            if (player == null) continue;
+            plot.addBan(player);
+            st.bans.add(player);
+            count++;
+        }
+        for (Object[] r : rows(likes)) {
+            UUID player = parseUuid(str(r[1]));
+            if (player == null) continue;
+            if (!plot.hasLiked(player)) plot.toggleLike(player);
+            st.likes.add(player);
+            count++;
+        }
+        return count;
+    }
+
+    private static List<Object[]> rows(List<Object[]> rows) {
+        return rows != null ? rows : Collections.emptyList();
+    }
+
+    // ----------------------------------------
+    // --- VALUE HELPERS (driver-neutral) ---
+    // ----------------------------------------
+
+    private static String str(Object o) {
+        return o == null ? null : o.toString();
+    }
+
+    private static int i(Object o) {
+        if (o instanceof Number n) return n.intValue();
+        return o == null ? 0 : Integer.parseInt(o.toString());
+    }
+
+    private static long l(Object o) {
+        if (o instanceof Number n) return n.longValue();
+        return o == null ? 0L : Long.parseLong(o.toString());
+    }
+
+    private static double d(Object o) {
+        if (o instanceof Number n) return n.doubleValue();
+        return o == null ? 0.0D : Double.parseDouble(o.toString());
+    }
+
+    private static boolean b(Object o) {
+        if (o instanceof Boolean bool) return bool;
+        if (o instanceof Number n) return n.intValue() != 0;
+        return o != null && (o.toString().equals("1") || Boolean.parseBoolean(o.toString()));
+    }
+
+    static UUID parseUuid(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Material parseMaterial(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return Material.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long ms(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package com.aegisguard.data;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * SQLPools (Connection Pools) - v1.2.3
+ * - Builds the Hikari pools for SQLDataStore from 'storage.pool' and 'storage.sqlite'.
+ * - MySQL/MariaDB: one pool for reads and writes, sized by config, with the driver's
+ *   prepared statement cache.
+ * - SQLite: WAL journal, synchronous=NORMAL, and a single writer connection, so autosave,
+ *   wilderness log and async saves queue in the pool instead of failing on a busy file.
+ *   Reads (startup load, revert paging) use separate query-only connections that WAL lets
+ *   run alongside the writer. Without WAL one connection serves everything.
+ * - selfTest() logs the settings the database actually applied.
+ */
+public final class SQLPools {
+
+    private final Logger logger;
+    private final boolean sqlite;
+    private final boolean wal;
+    private final String synchronous;
+    private final HikariDataSource writer;
+    private final HikariDataSource reader; // Same as writer unless SQLite runs in WAL mode
+
+    /**
+     * @param type "mysql" or "sqlite" (already normalized).
+     */
+    public SQLPools(ConfigurationSection storage, File dataFolder, String type, Logger logger) {
+        this.logger = logger;
+        this.sqlite = !type.equals("mysql");
+
+        ConfigurationSection db = section(storage, "database");
+        ConfigurationSection pool = section(storage, "pool");
+        ConfigurationSection lite = section(storage, "sqlite");
+
+        this.wal = sqlite && lite.getBoolean("wal", true);
+        String sync = lite.getString("synchronous", "NORMAL").toUpperCase();
+        this.synchronous = sync.equals("OFF") || sync.equals("FULL") || sync.equals("EXTRA") ? sync : "NORMAL";
+
+        if (!sqlite) {
+            String host = db.getString("host", "localhost");
+            int port = db.getInt("port", 3306);
+            String database = db.getString("database", "aegisguard");
+            boolean useSSL = db.getBoolean("useSSL", false);
+
+            HikariConfig config = base(pool, "AegisGuard-Pool");
+            config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=" + useSSL + "&autoReconnect=true&rewriteBatchedStatements=true");
+            config.setUsername(db.getString("username", "root"));
+            config.setPassword(db.getString("password", ""));
+            config.setMaximumPoolSize(Math.max(1, pool.getInt("maximum_pool_size", 10)));
+            config.setMinimumIdle(Math.max(0, Math.min(config.getMaximumPoolSize(), pool.getInt("minimum_idle", 2))));
+
+            // Performance optimizations
+            int cacheSize = pool.getInt("statement_cache_size", 250);
+            config.addDataSourceProperty("cachePrepStmts", String.valueOf(cacheSize > 0));
+            config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(Math.max(0, cacheSize)));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(pool.getInt("statement_cache_sql_limit", 2048)));
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("useCursorFetch", "true"); // Honour setFetchSize() when streaming the startup load
+
+            logger.info("Connecting to SQL Database (" + host + ")...");
+            this.writer = new HikariDataSource(config);
+            this.reader = writer;
+            return;
+        }
+
+        File file = new File(dataFolder, db.getString("file", "aegisguard.db"));
+        if (!file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        String url = "jdbc:sqlite:" + file.getAbsolutePath();
+
+        // One connection: SQLite allows a single writer, so more only adds lock contention
+        HikariConfig w = sqliteConfig(pool, lite, url, "AegisGuard-Writer");
+        w.setMaximumPoolSize(1);
+        w.setMinimumIdle(1);
+        if (wal) w.addDataSourceProperty("journal_mode", "WAL");
+        this.writer = new HikariDataSource(w);
+
+        if (wal) {
+            HikariConfig r = sqliteConfig(pool, lite, url, "AegisGuard-Reader");
+            r.setMaximumPoolSize(Math.max(1, lite.getInt("read_connections", 4)));
+            r.setMinimumIdle(0);
+            r.setConnectionInitSql("PRAGMA query_only = ON");
+            this.reader = new HikariDataSource(r);
+        } else {
+            this.reader = writer;
+        }
+        logger.info("Using local SQLite database file (" + file.getName() + ").");
+    }
+
+    private static ConfigurationSection section(ConfigurationSection parent, String path) {
+        ConfigurationSection sec = parent != null ? parent.getConfigurationSection(path) : null;
+        return sec != null ? sec : new YamlConfiguration();
+    }
+
+    private static HikariConfig base(ConfigurationSection pool, String name) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setConnectionTimeout(Math.max(250, pool.getLong("connection_timeout_ms", 30000)));
+        config.setIdleTimeout(pool.getLong("idle_timeout_ms", 600000));
+        config.setMaxLifetime(pool.getLong("max_lifetime_ms", 1800000));
+        config.setLeakDetectionThreshold(pool.getLong("leak_detection_ms", 10000));
+        return config;
+    }
+
+    private HikariConfig sqliteConfig(ConfigurationSection pool, ConfigurationSection lite, String url, String name) {
+        HikariConfig config = base(pool, name);
+        config.setJdbcUrl(url);
+        config.setDriverClassName("org.sqlite.JDBC");
+        // Applied by the driver on every new connection
+        config.addDataSourceProperty("synchronous", synchronous);
+        config.addDataSourceProperty("busy_timeout", String.valueOf(Math.max(0, lite.getInt("busy_timeout_ms", 5000))));
+        config.addDataSourceProperty("cache_size", String.valueOf(-Math.max(64, lite.getInt("cache_size_kb", 16384))));
+        config.addDataSourceProperty("temp_store", "MEMORY");
+        return config;
+    }
+
+    /**
+     * Connections for writes (the single writer on SQLite).
+     */
+    public HikariDataSource writer() {
+        return writer;
+    }
+
+    /**
+     * Connections for reads; never write through these.
+     */
+    public HikariDataSource reader() {
+        return reader;
+    }
+
+    // ----------------------------------------
+    // --- SELF-TEST ---
+    // ----------------------------------------
+
+    /**
+     * Round-trips both pools and logs the effective settings, warning when the database
+     * ignored one (e.g. WAL is not available on some network filesystems).
+     */
+    public void selfTest() {
+        try {
+            long start = System.nanoTime();
+            StringBuilder sb = new StringBuilder("SQL self-test: ");
+            try (Connection conn = writer.getConnection(); Statement s = conn.createStatement()) {
+                DatabaseMetaData meta = conn.getMetaData();
+                sb.append(meta.getDatabaseProductName()).append(' ').append(meta.getDatabaseProductVersion());
+
+                if (sqlite) {
+                    String journal = pragma(s, "journal_mode");
+                    String sync = pragma(s, "synchronous");
+                    sb.append(", journal_mode=").append(journal)
+                            .append(", synchronous=").append(SYNC_NAMES[clamp(sync)])
+                            .append(", busy_timeout=").append(pragma(s, "busy_timeout")).append("ms")
+                            .append(", writer=1");
+                    if (wal && !"wal".equalsIgnoreCase(journal)) {
+                        logger.warning("SQLite did not enable WAL (journal_mode=" + journal + "); writes will block reads.");
+                    }
+                    if (!SYNC_NAMES[clamp(sync)].equals(synchronous)) {
+                        logger.warning("SQLite synchronous is " + SYNC_NAMES[clamp(sync)] + ", expected " + synchronous + ".");
+                    }
+                } else {
+                    sb.append(", pool=").append(writer.getMaximumPoolSize())
+                            .append(" (min idle ").append(writer.getMinimumIdle()).append(')');
+                    try (ResultSet rs = s.executeQuery("SELECT @@transaction_isolation")) {
+                        if (rs.next()) sb.append(", isolation=").append(rs.getString(1));
+                    } catch (SQLException ignored) {
+                        // Older servers name it @@tx_isolation; not worth a second query
+                    }
+                }
+            }
+
+            if (reader != writer) {
+                try (Connection conn = reader.getConnection(); Statement s = conn.createStatement()) {
+                    String queryOnly = pragma(s, "query_only");
+                    sb.append(", readers=").append(reader.getMaximumPoolSize())
+                            .append("1".equals(queryOnly) ? " (query-only)" : " (writable!)");
+                }
+            }
+
+            sb.append(", timeout=").append(writer.getConnectionTimeout()).append("ms")
+                    .append(", round trip ").append((System.nanoTime() - start) / 1_000_000).append("ms");
+            logger.info(sb.toString());
+        } catch (SQLException e) {
+            logger.severe("SQL self-test failed: " + e.getMessage());
+        }
+    }
+
+    private static final String[] SYNC_NAMES = { "OFF", "NORMAL", "FULL", "EXTRA" };
+
+    private static int clamp(String level) {
+        try {
+            return Math.max(0, Math.min(3, Integer.parseInt(level.trim())));
+        } catch (NumberFormatException | NullPointerException e) {
+            return 1;
+        }
+    }
+
+    private static String pragma(Statement s, String name) throws SQLException {
+        try (ResultSet rs = s.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getString(1) : "?";
+        }
+    }
+
+    public boolean isClosed() {
+        return writer.isClosed();
+    }
+
+    public void close() {
+        if (reader != writer && !reader.isClosed()) reader.close();
+        if (!writer.isClosed()) writer.close();
+    }
+}
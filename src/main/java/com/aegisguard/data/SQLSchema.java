@@ -0,0 +1,454 @@
+package com.aegisguard.data;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * SQLSchema (Versioned Migrations) - v1.2.3
+ * - Tracks the schema version in aegis_schema_version and upgrades it step by step.
+ * - v1: original layout (flags/roles/settings packed into TEXT columns) plus the
+ *   wilderness log; created here with per-dialect DDL (SQLite vs MySQL/MariaDB).
+ * - v2: typed plot columns plus child tables for likes, bans and roles, with indexes
+ *   for owner, market, rent, auction and warp lookups. Legacy blobs are copied over
+ *   in one transaction and cleared; the old columns are left in place.
+ * - v3: aegis_store_state, a single-row generation counter bumped by every plot write,
+ *   so caches (the binary plot snapshot) can tell whether they are still current.
+ * - DDL steps check the catalog first, so a migration interrupted before its data
+ *   step simply resumes on the next start.
+ */
+public final class SQLSchema {
+
+    public static final int CURRENT_VERSION = 3;
+
+    // --- v1: base tables ---
+    private static final String CREATE_PLOTS_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_plots (" +
+                    " plot_id VARCHAR(36) PRIMARY KEY," +
+                    " owner_uuid VARCHAR(36)," +
+                    " owner_name VARCHAR(16)," +
+                    " world VARCHAR(32)," +
+                    " x1 INT, z1 INT," +
+                    " x2 INT, z2 INT," +
+                    " level INT," +
+                    " xp DOUBLE," +
+                    " last_upkeep BIGINT," +
+                    " flags TEXT," +
+                    " roles TEXT," +
+                    " settings TEXT" +
+                    " )";
+
+    // 3D zones: x1,y1,z1,x2,y2,z2 + rent info
+    private static final String CREATE_ZONES_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_zones (" +
+                    " zone_id VARCHAR(36)," +
+                    " plot_id VARCHAR(36)," +
+                    " name VARCHAR(32)," +
+                    " x1 INT, y1 INT, z1 INT," +
+                    " x2 INT, y2 INT, z2 INT," +
+                    " renter VARCHAR(36)," +
+                    " price DOUBLE," +
+                    " expires BIGINT," +
+                    " PRIMARY KEY (zone_id)" +
+                    " )";
+
+    // %s: the auto-increment id column, which SQLite and MySQL spell differently
+    private static final String CREATE_WILDERNESS_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_wilderness_log (" +
+                    " %s," +
+                    " world VARCHAR(32), x INT, y INT, z INT," +
+                    " old_material VARCHAR(32), new_material VARCHAR(32)," +
+                    " timestamp BIGINT, player_uuid VARCHAR(36)" +
+                    " )";
+    private static final String WILDERNESS_ID_SQLITE = "id INTEGER PRIMARY KEY AUTOINCREMENT";
+    private static final String WILDERNESS_ID_MYSQL = "id BIGINT PRIMARY KEY AUTO_INCREMENT";
+
+    private static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_schema_version (" +
+                    " version INT NOT NULL," +
+                    " applied_at BIGINT" +
+                    " )";
+
+    // --- v2: typed plot columns (name, type) ---
+    private static final String[][] PLOT_COLUMNS_V2 = {
+            {"max_members", "INT DEFAULT 2"},
+            {"spawn", "VARCHAR(128)"},
+            {"welcome", "TEXT"},
+            {"farewell", "TEXT"},
+            {"entry_title", "TEXT"},
+            {"entry_subtitle", "TEXT"},
+            {"description", "TEXT"},
+            {"custom_biome", "VARCHAR(64)"},
+            {"plot_status", "VARCHAR(16) DEFAULT 'ACTIVE'"},
+            {"for_sale", "TINYINT DEFAULT 0"},
+            {"sale_price", "DOUBLE DEFAULT 0"},
+            {"for_rent", "TINYINT DEFAULT 0"},
+            {"rent_price", "DOUBLE DEFAULT 0"},
+            {"rent_expires", "BIGINT DEFAULT 0"},
+            {"current_renter", "VARCHAR(36)"},
+            {"current_bid", "DOUBLE DEFAULT 0"},
+            {"current_bidder", "VARCHAR(36)"},
+            {"border_particle", "VARCHAR(64)"},
+            {"ambient_particle", "VARCHAR(64)"},
+            {"entry_effect", "VARCHAR(64)"},
+            {"server_warp", "TINYINT DEFAULT 0"},
+            {"warp_name", "VARCHAR(64)"},
+            {"warp_icon", "VARCHAR(64)"}
+    };
+
+    private static final String CREATE_LIKES_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_plot_likes (" +
+                    " plot_id VARCHAR(36) NOT NULL," +
+                    " player_uuid VARCHAR(36) NOT NULL," +
+                    " PRIMARY KEY (plot_id, player_uuid)" +
+                    " )";
+    private static final String CREATE_BANS_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_plot_bans (" +
+                    " plot_id VARCHAR(36) NOT NULL," +
+                    " player_uuid VARCHAR(36) NOT NULL," +
+                    " PRIMARY KEY (plot_id, player_uuid)" +
+                    " )";
+    private static final String CREATE_ROLES_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_plot_roles (" +
+                    " plot_id VARCHAR(36) NOT NULL," +
+                    " player_uuid VARCHAR(36) NOT NULL," +
+                    " role VARCHAR(32) NOT NULL," +
+                    " PRIMARY KEY (plot_id, player_uuid)" +
+                    " )";
+
+    // --- v2: indexes (table, name, columns) ---
+    private static final String[][] INDEXES_V2 = {
+            {"aegis_plots", "idx_plots_owner", "owner_uuid"},
+            {"aegis_plots", "idx_plots_sale", "for_sale, sale_price"},
+            {"aegis_plots", "idx_plots_rent", "for_rent, rent_price"},
+            {"aegis_plots", "idx_plots_status", "plot_status, current_bid"},
+            {"aegis_plots", "idx_plots_warp", "server_warp"},
+            {"aegis_zones", "idx_zones_plot", "plot_id"},
+            {"aegis_plot_likes", "idx_likes_player", "player_uuid"},
+            {"aegis_plot_bans", "idx_bans_player", "player_uuid"},
+            {"aegis_plot_roles", "idx_roles_player", "player_uuid"}
+    };
+
+    private static final String MIGRATE_PLOT_V2 =
+            "UPDATE aegis_plots SET " +
+                    "max_members=?, spawn=?, welcome=?, farewell=?, entry_title=?, entry_subtitle=?, description=?, custom_biome=?, " +
+                    "plot_status=?, for_sale=?, sale_price=?, for_rent=?, rent_price=?, rent_expires=?, current_renter=?, " +
+                    "current_bid=?, current_bidder=?, border_particle=?, ambient_particle=?, entry_effect=?, " +
+                    "server_warp=?, warp_name=?, warp_icon=?, roles=NULL, settings=NULL " +
+                    "WHERE plot_id=?";
+
+    private static final int MIGRATE_BATCH_SIZE = 500;
+
+    // --- v3: store generation ---
+    private static final String CREATE_STATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS aegis_store_state (" +
+                    " id INT NOT NULL PRIMARY KEY," +
+                    " generation BIGINT NOT NULL" +
+                    " )";
+
+    public static final String SELECT_GENERATION = "SELECT generation FROM aegis_store_state WHERE id = 1";
+    public static final String BUMP_GENERATION = "UPDATE aegis_store_state SET generation = generation + 1 WHERE id = 1";
+
+    private final Logger logger;
+    private final boolean sqlite;
+
+    /**
+     * @param sqlite true for the local SQLite file, false for MySQL/MariaDB.
+     */
+    public SQLSchema(Logger logger, boolean sqlite) {
+        this.logger = logger;
+        this.sqlite = sqlite;
+    }
+
+    /**
+     * Creates the v1 tables if missing, then brings the schema up to CURRENT_VERSION.
+     * @return the version the schema is at afterwards (higher than CURRENT_VERSION if a
+     *         newer plugin version wrote this database).
+     */
+    public int migrate(Connection conn) throws SQLException {
+        try (Statement s = conn.createStatement()) {
+            s.execute(CREATE_PLOTS_TABLE);
+            s.execute(CREATE_ZONES_TABLE);
+            s.execute(String.format(CREATE_WILDERNESS_TABLE, sqlite ? WILDERNESS_ID_SQLITE : WILDERNESS_ID_MYSQL));
+            s.execute(CREATE_VERSION_TABLE);
+        }
+
+        int version = readVersion(conn);
+        if (version < 2) {
+            long start = System.currentTimeMillis();
+            migrateToV2(conn);
+            version = 2;
+            logger.info("Database schema upgraded to v2 (typed columns, likes/bans/roles tables) in "
+                    + (System.currentTimeMillis() - start) + "ms.");
+        }
+        if (version < 3) {
+            migrateToV3(conn);
+            version = 3;
+            logger.info("Database schema upgraded to v3 (store generation).");
+        }
+        return version;
+    }
+
+    private int readVersion(Connection conn) throws SQLException {
+        try (Statement s = conn.createStatement();
+             ResultSet rs = s.executeQuery("SELECT MAX(version) FROM aegis_schema_version")) {
+            int v = rs.next() ? rs.getInt(1) : 0;
+            return Math.max(1, v); // No row yet: legacy (or brand new) v1 layout
+        }
+    }
+
+    // ----------------------------------------
+    // --- v1 -> v2 ---
+    // ----------------------------------------
+
+    private void migrateToV2(Connection conn) throws SQLException {
+        // 1) DDL (auto-commits on MySQL, so every step is idempotent)
+        try (Statement s = conn.createStatement()) {
+            for (String[] col : PLOT_COLUMNS_V2) {
+                if (!hasColumn(conn, "aegis_plots", col[0])) {
+                    s.execute("ALTER TABLE aegis_plots ADD COLUMN " + col[0] + " " + col[1]);
+                }
+            }
+            s.execute(CREATE_LIKES_TABLE);
+            s.execute(CREATE_BANS_TABLE);
+            s.execute(CREATE_ROLES_TABLE);
+            for (String[] idx : INDEXES_V2) {
+                if (!hasIndex(conn, idx[0], idx[1])) {
+                    s.execute("CREATE INDEX " + idx[1] + " ON " + idx[0] + " (" + idx[2] + ")");
+                }
+            }
+        }
+
+        // 2) Data: unpack blobs + record version, all or nothing
+        conn.setAutoCommit(false);
+        try (PreparedStatement update = conn.prepareStatement(MIGRATE_PLOT_V2);
+             PreparedStatement like = conn.prepareStatement("INSERT INTO aegis_plot_likes (plot_id, player_uuid) VALUES (?,?)");
+             PreparedStatement ban = conn.prepareStatement("INSERT INTO aegis_plot_bans (plot_id, player_uuid) VALUES (?,?)");
+             PreparedStatement role = conn.prepareStatement("INSERT INTO aegis_plot_roles (plot_id, player_uuid, role) VALUES (?,?,?)");
+             PreparedStatement mark = conn.prepareStatement("INSERT INTO aegis_schema_version (version, applied_at) VALUES (?,?)")) {
+
+            // Read first: the updates below change the rows this query filters on
+            List<String[]> legacy = new ArrayList<>();
+            try (Statement select = conn.createStatement();
+                 ResultSet rs = select.executeQuery(
+                         "SELECT plot_id, roles, settings FROM aegis_plots WHERE roles IS NOT NULL OR settings IS NOT NULL")) {
+                while (rs.next()) {
+                    legacy.add(new String[]{rs.getString("plot_id"), rs.getString("roles"), rs.getString("settings")});
+                }
+            }
+
+            int pending = 0;
+            for (String[] row : legacy) {
+                String plotId = row[0];
+                Map<String, String> s = parseSettings(row[2]);
+
+                update.setInt(1, parseInt(s.get("maxMembers"), 2));
+                update.setString(2, s.get("spawn"));
+                update.setString(3, s.get("welcome"));
+                update.setString(4, s.get("farewell"));
+                update.setString(5, s.get("entryTitle"));
+                update.setString(6, s.get("entrySubtitle"));
+                update.setString(7, s.get("description"));
+                update.setString(8, s.get("customBiome"));
+                update.setString(9, s.getOrDefault("plotStatus", "ACTIVE"));
+                update.setBoolean(10, Boolean.parseBoolean(s.get("isForSale")));
+                update.setDouble(11, parseDouble(s.get("salePrice")));
+                update.setBoolean(12, Boolean.parseBoolean(s.get("isForRent")));
+                update.setDouble(13, parseDouble(s.get("rentPrice")));
+                update.setLong(14, parseLong(s.get("rentExpires")));
+                update.setString(15, uuidOrNull(s.get("currentRenter")));
+                update.setDouble(16, parseDouble(s.get("currentBid")));
+                update.setString(17, uuidOrNull(s.get("currentBidder")));
+                update.setString(18, s.get("borderParticle"));
+                update.setString(19, s.get("ambientParticle"));
+                update.setString(20, s.get("entryEffect"));
+                update.setBoolean(21, Boolean.parseBoolean(s.get("isServerWarp")));
+                update.setString(22, s.get("warpName"));
+                update.setString(23, s.get("warpIcon"));
+                update.setString(24, plotId);
+                update.addBatch();
+
+                for (String u : uuidList(s.get("likedBy"))) {
+                    like.setString(1, plotId);
+                    like.setString(2, u);
+                    like.addBatch();
+                }
+                for (String u : uuidList(s.get("banned"))) {
+                    ban.setString(1, plotId);
+                    ban.setString(2, u);
+                    ban.addBatch();
+                }
+                for (Map.Entry<String, String> e : parseRoles(row[1]).entrySet()) {
+                    role.setString(1, plotId);
+                    role.setString(2, e.getKey());
+                    role.setString(3, e.getValue());
+                    role.addBatch();
+                }
+
+                if (++pending >= MIGRATE_BATCH_SIZE) {
+                    executeAll(update, like, ban, role);
+                    pending = 0;
+                }
+            }
+            executeAll(update, like, ban, role);
+
+            mark.setInt(1, 2);
+            mark.setLong(2, System.currentTimeMillis());
+            mark.executeUpdate();
+            conn.commit();
+
+            if (!legacy.isEmpty()) logger.info("Migrated settings of " + legacy.size() + " plots to the v2 schema.");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ----------------------------------------
+    // --- v2 -> v3 ---
+    // ----------------------------------------
+
+    private void migrateToV3(Connection conn) throws SQLException {
+        try (Statement s = conn.createStatement()) {
+            s.execute(CREATE_STATE_TABLE);
+        }
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement seed = conn.prepareStatement("INSERT INTO aegis_store_state (id, generation) VALUES (1, 0)");
+             PreparedStatement mark = conn.prepareStatement("INSERT INTO aegis_schema_version (version, applied_at) VALUES (?,?)")) {
+            boolean seeded;
+            try (Statement s = conn.createStatement(); ResultSet rs = s.executeQuery(SELECT_GENERATION)) {
+                seeded = rs.next();
+            }
+            if (!seeded) seed.executeUpdate();
+
+            mark.setInt(1, 3);
+            mark.setLong(2, System.currentTimeMillis());
+            mark.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void executeAll(PreparedStatement... statements) throws SQLException {
+        for (PreparedStatement ps : statements) ps.executeBatch();
+    }
+
+    // ----------------------------------------
+    // --- CATALOG CHECKS ---
+    // ----------------------------------------
+
+    private boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, table, null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+
+    // ----------------------------------------
+    // --- LEGACY BLOB PARSING ---
+    // ----------------------------------------
+
+    /**
+     * Parses the v1 'settings' blob (key=value pairs separated by ';').
+     */
+    static Map<String, String> parseSettings(String settings) {
+        Map<String, String> out = new HashMap<>();
+        if (settings == null || settings.isEmpty()) return out;
+        for (String part : settings.split(";")) {
+            String[] kv = part.split("=", 2);
+            if (kv.length == 2 && !kv[0].isEmpty()) out.put(kv[0], kv[1]);
+        }
+        return out;
+    }
+
+    /**
+     * Parses the v1 'roles' column (uuid:role pairs separated by ',').
+     */
+    static Map<String, String> parseRoles(String roles) {
+        Map<String, String> out = new HashMap<>();
+        if (roles == null || roles.isEmpty()) return out;
+        for (String part : roles.split(",")) {
+            String[] kv = part.split(":", 2);
+            if (kv.length != 2) continue;
+            String uuid = uuidOrNull(kv[0]);
+            String role = kv[1].toLowerCase();
+            // Same rule as Plot.setRole: "default"/"none" mean no role
+            if (uuid != null && !role.isEmpty() && !role.equals("default") && !role.equals("none")) out.put(uuid, role);
+        }
+        return out;
+    }
+
+    private static Set<String> uuidList(String value) {
+        Set<String> out = new LinkedHashSet<>();
+        if (value == null || value.isEmpty()) return out;
+        for (String part : value.split(",")) {
+            String uuid = uuidOrNull(part);
+            if (uuid != null) out.add(uuid);
+        }
+        return out;
+    }
+
+    private static String uuidOrNull(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return UUID.fromString(value).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(String value, int def) {
+        try {
+            return value != null ? Integer.parseInt(value) : def;
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return value != null ? Double.parseDouble(value) : 0.0D;
+        } catch (NumberFormatException e) {
+            return 0.0D;
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
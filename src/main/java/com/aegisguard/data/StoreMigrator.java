@@ -0,0 +1,371 @@
+package com.aegisguard.data;
+
+import com.aegisguard.AegisGuard;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * StoreMigrator (Storage Type Migration) - v1.2.3
+ * - Copies every plot (zones, members, settings) and the wilderness log from the active
+ *   store into another storage type, in bounded batches on its own thread; the server
+ *   keeps running.
+ * - Progress goes to whoever started it and to the console. 'migration.yml' records the
+ *   last batch written, so an interrupted run resumes where it stopped.
+ * - Plots are read from the source's storage, so plots in worlds that are not loaded are
+ *   copied too; loaded plots use their live state instead.
+ * - Ends by reading the target fresh from storage and comparing plot counts and per-plot
+ *   checksums with the source; plots edited meanwhile are copied again.
+ * - The target becomes an exact copy: stored target plots the source doesn't have are removed.
+ */
+public final class StoreMigrator implements Runnable {
+
+    public static final List<String> TYPES = List.of("yml", "sqlite", "mysql");
+
+    private static final int VERIFY_ROUNDS = 3;
+    private static final long REPORT_INTERVAL_MS = 5000;
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+
+    private final AegisGuard plugin;
+    private final IDataStore source;
+    private final String sourceType;
+    private final String targetType;
+    private final int batchSize;
+    private final boolean restart;
+    private final Consumer<String> report;
+    private final File checkpointFile;
+
+    private long lastReport;
+
+    // --- Checkpoint ---
+    private UUID lastPlot;
+    private int plotsCopied;
+    private long lastLogId;
+    private long logRowsCopied;
+
+    public StoreMigrator(AegisGuard plugin, String targetType, boolean restart, Consumer<String> report) {
+        this.plugin = plugin;
+        this.source = plugin.store();
+        this.sourceType = typeOf(plugin.cfg().raw().getString("storage.type", "yml"));
+        this.targetType = targetType.toLowerCase();
+        this.batchSize = Math.max(50, plugin.cfg().raw().getInt("storage.migration_batch_size", 500));
+        this.restart = restart;
+        this.report = report;
+        this.checkpointFile = new File(plugin.getDataFolder(), "migration.yml");
+    }
+
+    /**
+     * Normalizes a storage.type value the same way AegisGuard picks its store.
+     */
+    public static String typeOf(String configured) {
+        String type = configured == null ? "yml" : configured.toLowerCase();
+        if (type.contains("mysql") || type.contains("mariadb")) return "mysql";
+        if (type.contains("sql")) return "sqlite";
+        return "yml";
+    }
+
+    public static boolean isRunning() {
+        return RUNNING.get();
+    }
+
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    /**
+     * Starts the migration on its own thread.
+     * @return false if one is already running.
+     */
+    public boolean start() {
+        if (!RUNNING.compareAndSet(false, true)) return false;
+        Thread t = new Thread(this, "AegisGuard-Migration");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    @Override
+    public void run() {
+        long start = System.currentTimeMillis();
+        try {
+            boolean resumed = loadCheckpoint();
+            int live = source.getAllPlots().size();
+            Map<UUID, Plot> plots = sourcePlots();
+            say("Migrating " + plots.size() + " plots (" + (plots.size() - live) + " in worlds that are not loaded) from "
+                    + sourceType + " to " + targetType
+                    + (resumed ? " (resuming after " + plotsCopied + " plots, " + logRowsCopied + " log rows)" : "") + "...");
+
+            IDataStore target = open(targetType);
+            try {
+                copyPlots(target, new ArrayList<>(plots.values()));
+                copyWildernessLog(target);
+            } finally {
+                target.saveSync();
+            }
+
+            boolean verified = verify();
+            saveCheckpoint(verified ? "done" : "unverified");
+            long took = (System.currentTimeMillis() - start) / 1000;
+            if (verified) {
+                say("Migration complete in " + took + "s. Set storage.type to '" + targetType
+                        + "' and restart now; changes made after this point are not copied.");
+            } else {
+                say("Migration finished in " + took + "s but the target still differs from the source plots."
+                        + " Run the command again to retry.");
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Storage migration failed: " + e);
+            say("Migration stopped: " + e.getMessage() + " Run the command again to resume.");
+        } finally {
+            RUNNING.set(false);
+        }
+    }
+
+    // ----------------------------------------
+    // --- PHASES ---
+    // ----------------------------------------
+
+    /**
+     * @param plots sorted by id (the checkpoint resumes after the last id written).
+     */
+    private void copyPlots(IDataStore target, List<Plot> plots) throws IOException {
+        int from = 0;
+        if (lastPlot != null) {
+            while (from < plots.size() && plots.get(from).getPlotId().compareTo(lastPlot) <= 0) from++;
+        }
+
+        long phaseStart = System.currentTimeMillis();
+        int done = 0;
+        for (int i = from; i < plots.size(); i += batchSize) {
+            List<Plot> batch = plots.subList(i, Math.min(plots.size(), i + batchSize));
+            List<Plot> copies = new ArrayList<>(batch.size());
+            for (Plot plot : batch) {
+                Plot copy = copyOf(plot);
+                if (copy != null) copies.add(copy); // Edited mid-copy: verification picks it up
+            }
+
+            if (!target.importPlots(copies, Collections.emptyList())) {
+                throw new IllegalStateException("The " + targetType + " store could not write a batch (see console).");
+            }
+
+            lastPlot = batch.get(batch.size() - 1).getPlotId();
+            plotsCopied += batch.size();
+            done += batch.size();
+            saveCheckpoint("plots");
+
+            long elapsed = Math.max(1, System.currentTimeMillis() - phaseStart);
+            progress("Plots: " + (from + done) + "/" + plots.size() + " (" + (done * 1000L / elapsed) + "/s)");
+        }
+    }
+
+    private void copyWildernessLog(IDataStore target) throws IOException {
+        List<WildernessLogBuffer.Entry> rows = new ArrayList<>(batchSize);
+        long after = source.exportWildernessLog(lastLogId, batchSize, rows::add);
+        if (rows.isEmpty()) return;
+        if (targetType.equals("yml")) {
+            say("Wilderness log skipped: YML storage keeps no wilderness log.");
+            return;
+        }
+
+        while (!rows.isEmpty()) {
+            if (!target.importWildernessLog(rows)) {
+                throw new IllegalStateException("The " + targetType + " store could not write wilderness log rows (see console).");
+            }
+            lastLogId = after;
+            logRowsCopied += rows.size();
+            saveCheckpoint("wilderness");
+            progress("Wilderness log: " + logRowsCopied + " rows");
+
+            rows.clear();
+            after = source.exportWildernessLog(lastLogId, batchSize, rows::add);
+        }
+    }
+
+    /**
+     * Reads the target fresh from storage and compares it with the source plots, recopying
+     * what differs, until both match or VERIFY_ROUNDS is used up.
+     */
+    private boolean verify() throws IOException {
+        saveCheckpoint("verify");
+        for (int round = 1; round <= VERIFY_ROUNDS; round++) {
+            Map<UUID, Plot> live = sourcePlots();
+
+            IDataStore check = open(targetType);
+            try {
+                Map<UUID, Long> stored = new HashMap<>();
+                for (Plot plot : check.readStoredPlots()) stored.put(plot.getPlotId(), digest(plot));
+
+                List<Plot> recopy = new ArrayList<>();
+                long liveSum = 0, storedSum = 0;
+                for (Plot plot : live.values()) {
+                    Long expected = digest(plot);
+                    liveSum += expected != null ? expected : 0;
+                    if (expected == null || !expected.equals(stored.get(plot.getPlotId()))) {
+                        Plot copy = copyOf(plot);
+                        if (copy != null) recopy.add(copy);
+                    }
+                }
+                List<UUID> extra = new ArrayList<>();
+                for (Map.Entry<UUID, Long> e : stored.entrySet()) {
+                    storedSum += e.getValue() != null ? e.getValue() : 0;
+                    if (!live.containsKey(e.getKey())) extra.add(e.getKey());
+                }
+
+                say("Verify #" + round + ": source " + live.size() + " plots (checksum " + Long.toHexString(liveSum)
+                        + "), target " + stored.size() + " plots (checksum " + Long.toHexString(storedSum) + ")"
+                        + (logRowsCopied > 0 ? ", " + logRowsCopied + " wilderness log rows copied" : "") + ".");
+                if (recopy.isEmpty() && extra.isEmpty()) return true;
+
+                say("Recopying " + recopy.size() + " changed plots, removing " + extra.size() + " stale ones...");
+                check.importPlots(recopy, extra);
+            } finally {
+                check.saveSync();
+            }
+        }
+        return false;
+    }
+
+    // ----------------------------------------
+    // --- HELPERS ---
+    // ----------------------------------------
+
+    private IDataStore open(String type) {
+        return type.equals("yml") ? new YMLDataStore(plugin) : new SQLDataStore(plugin, type);
+    }
+
+    /**
+     * Every plot in the source's storage, by id, with loaded plots replaced by their live
+     * state (newer than storage until the next save).
+     * @throws IllegalStateException if the source's storage could not be read completely.
+     */
+    private Map<UUID, Plot> sourcePlots() {
+        Map<UUID, Plot> plots = new TreeMap<>();
+        for (Plot plot : source.readStoredPlots()) plots.put(plot.getPlotId(), plot);
+        for (Plot plot : source.getAllPlots()) plots.put(plot.getPlotId(), plot);
+        return plots;
+    }
+
+    /**
+     * Detached deep copy (the original stays with the source store).
+     * @return null if the plot was being edited while it was read.
+     */
+    private static Plot copyOf(Plot plot) {
+        try {
+            return PlotSnapshot.decode(ByteBuffer.wrap(PlotSnapshot.encode(plot)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Order-independent checksum of everything both stores persist.
+     * The owner name is left out: YML stores a default for missing names.
+     * @return null if the plot was being edited while it was read.
+     */
+    static Long digest(Plot p) {
+        try {
+            StringBuilder sb = new StringBuilder(512);
+            sb.append(p.getPlotId()).append('|').append(p.getOwner()).append('|').append(p.getWorld())
+                    .append('|').append(p.getX1()).append(',').append(p.getZ1()).append(',').append(p.getX2()).append(',').append(p.getZ2())
+                    .append('|').append(p.getLevel()).append('|').append(p.getXp()).append('|').append(p.getMaxMembers())
+                    .append('|').append(p.getLastUpkeepPayment())
+                    .append('|').append(new TreeMap<>(p.getFlags()))
+                    .append('|').append(new TreeMap<>(p.getPlayerRoles()))
+                    .append('|').append(sorted(p.getBannedPlayers()))
+                    .append('|').append(sorted(p.getLikedBy()));
+
+            List<Zone> zones = new ArrayList<>(p.getZones());
+            zones.sort(Comparator.comparing(Zone::getZoneId));
+            for (Zone z : zones) {
+                sb.append("|zone:").append(z.getZoneId()).append(',').append(z.getName())
+                        .append(',').append(z.getX1()).append(',').append(z.getY1()).append(',').append(z.getZ1())
+                        .append(',').append(z.getX2()).append(',').append(z.getY2()).append(',').append(z.getZ2())
+                        .append(',').append(z.getRentPrice()).append(',').append(z.getRenter());
+                if (z.getRenter() != null) sb.append(',').append(z.getRentExpiration());
+            }
+
+            sb.append('|').append(p.getSpawnLocationString())
+                    .append('|').append(p.getWelcomeMessage()).append('|').append(p.getFarewellMessage())
+                    .append('|').append(p.getEntryTitle()).append('|').append(p.getEntrySubtitle())
+                    .append('|').append(p.getDescription()).append('|').append(p.getCustomBiome())
+                    .append('|').append(p.getPlotStatus())
+                    .append('|').append(p.isForSale()).append(',').append(p.getSalePrice())
+                    .append('|').append(p.isForRent()).append(',').append(p.getRentPrice())
+                    .append(',').append(p.getCurrentRenter()).append(',').append(p.getRentExpires())
+                    .append('|').append(p.getCurrentBid()).append(',').append(p.getCurrentBidder())
+                    .append('|').append(p.getBorderParticle()).append(',').append(p.getAmbientParticle()).append(',').append(p.getEntryEffect())
+                    .append('|').append(p.isServerWarp()).append(',').append(p.getWarpName()).append(',').append(p.getWarpIcon());
+
+            CRC32C crc = new CRC32C();
+            crc.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static List<UUID> sorted(Collection<UUID> ids) {
+        List<UUID> list = new ArrayList<>(ids);
+        Collections.sort(list);
+        return list;
+    }
+
+    private void say(String message) {
+        lastReport = System.currentTimeMillis();
+        report.accept(message);
+    }
+
+    private void progress(String message) {
+        if (System.currentTimeMillis() - lastReport >= REPORT_INTERVAL_MS) say(message);
+    }
+
+    // ----------------------------------------
+    // --- CHECKPOINT ---
+    // ----------------------------------------
+
+    /**
+     * @return true if a matching, unfinished run is being resumed.
+     */
+    private boolean loadCheckpoint() {
+        if (restart || !checkpointFile.exists()) return false;
+
+        YamlConfiguration cp = YamlConfiguration.loadConfiguration(checkpointFile);
+        if (!sourceType.equals(cp.getString("source")) || !targetType.equals(cp.getString("target"))
+                || "done".equals(cp.getString("phase"))) {
+            return false;
+        }
+        lastPlot = SQLPlotLoader.parseUuid(cp.getString("last-plot"));
+        plotsCopied = cp.getInt("plots-copied");
+        lastLogId = cp.getLong("last-log-id");
+        logRowsCopied = cp.getLong("log-rows-copied");
+        return lastPlot != null || lastLogId > 0;
+    }
+
+    private void saveCheckpoint(String phase) throws IOException {
+        YamlConfiguration cp = new YamlConfiguration();
+        cp.set("source", sourceType);
+        cp.set("target", targetType);
+        cp.set("phase", phase);
+        cp.set("last-plot", lastPlot != null ? lastPlot.toString() : null);
+        cp.set("plots-copied", plotsCopied);
+        cp.set("last-log-id", lastLogId);
+        cp.set("log-rows-copied", logRowsCopied);
+        cp.set("updated", System.currentTimeMillis());
+        YMLDataStore.writeAtomically(checkpointFile, cp.saveToString());
+    }
+}
@@ -0,0 +1,126 @@
+package com.aegisguard.data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WildernessLogBuffer (Write-Behind Queue) - v1.2.3
+ * - Bounded, lock-free queue between block events and the wilderness log table.
+ * - Event threads only enqueue; the store drains it in batches off-thread.
+ * - Repeated edits of the same block inside one batch are coalesced
+ *   (first old material, last new material / time / player).
+ * - When full, new entries are dropped and counted instead of blocking the server.
+ */
+public class WildernessLogBuffer {
+
+    public record Entry(String world, int x, int y, int z, String oldMaterial, String newMaterial, long timestamp, UUID player) {}
+
+    private record BlockKey(String world, int x, int y, int z) {}
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final int capacity;
+    private final int batchSize;
+
+    // --- Metrics ---
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicInteger highWater = new AtomicInteger();
+
+    public WildernessLogBuffer(int capacity, int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        this.capacity = Math.max(this.batchSize, capacity);
+    }
+
+    // ----------------------------------------
+    // --- PRODUCERS (any thread) ---
+    // ----------------------------------------
+
+    /**
+     * Enqueues an entry.
+     * @return true if the caller should schedule a flush (size threshold reached).
+     */
+    public boolean offer(Entry entry) {
+        int size = pending.incrementAndGet();
+        if (size > capacity) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return flushRequested.compareAndSet(false, true);
+        }
+        queue.add(entry);
+        accepted.increment();
+        highWater.accumulateAndGet(size, Math::max);
+        return size >= batchSize && flushRequested.compareAndSet(false, true);
+    }
+
+    // ----------------------------------------
+    // --- CONSUMER (flush thread) ---
+    // ----------------------------------------
+
+    /**
+     * Removes up to one batch of entries, coalesced per block.
+     */
+    public List<Entry> drain() {
+        flushRequested.set(false);
+
+        Map<BlockKey, Entry> merged = new LinkedHashMap<>();
+        int taken = 0;
+        Entry e;
+        while (taken < batchSize && (e = queue.poll()) != null) {
+            taken++;
+            BlockKey key = new BlockKey(e.world(), e.x(), e.y(), e.z());
+            Entry first = merged.get(key);
+            if (first == null) {
+                merged.put(key, e);
+            } else {
+                merged.put(key, new Entry(e.world(), e.x(), e.y(), e.z(), first.oldMaterial(), e.newMaterial(), e.timestamp(), e.player()));
+                coalesced.increment();
+            }
+        }
+        if (taken > 0) pending.addAndGet(-taken);
+        return new ArrayList<>(merged.values());
+    }
+
+    public void recordWritten(int count) {
+        written.add(count);
+        batches.incrementAndGet();
+    }
+
+    public void recordFailed(int count) {
+        failed.add(count);
+    }
+
+    // ----------------------------------------
+    // --- METRICS ---
+    // ----------------------------------------
+
+    public int getPending() { return pending.get(); }
+    public int getCapacity() { return capacity; }
+    public int getHighWater() { return highWater.get(); }
+    public long getAccepted() { return accepted.sum(); }
+    public long getDropped() { return dropped.sum(); }
+    public long getCoalesced() { return coalesced.sum(); }
+    public long getWritten() { return written.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getBatches() { return batches.get(); }
+
+    @Override
+    public String toString() {
+        return "pending=" + getPending() + "/" + capacity + " (peak " + getHighWater() + ")"
+                + ", accepted=" + getAccepted() + ", written=" + getWritten() + " in " + getBatches() + " batches"
+                + ", coalesced=" + getCoalesced() + ", dropped=" + getDropped() + ", failed=" + getFailed();
+    }
+}
@@ -11,33 +11,79 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * YMLDataStore (v1.2.2+)
- * - Manages plot data using 'plots.yml'.
+ * - Manages plot data as one YAML file per plot under 'plots/<bucket>/'.
  * - Implements strict IDataStore contract for 1.2.x.
- * - Ensures data persistence with immediate saving on modification.
+ * - Saves are write-behind: only plots marked dirty are written, off-thread,
+ *   each via temp file + atomic rename (a crash never leaves a half-written plot). Temp files
+ *   and their directories are fsynced before the journal may be truncated.
+ * - A legacy single 'plots.yml' is split into per-plot files on first start.
+ * - 'plots/generation' is bumped before any plot file changes; a binary snapshot
+ *   (PlotSnapshot) taken at that generation replaces parsing the files on the next start.
+ * - With the journal on, savePlot() appends the plot to 'plots/journal.log' (PlotJournal)
+ *   instead of writing its file; files catch up in the background and on autosave, then the
+ *   journal is truncated. Unfolded records are replayed on load.
  * - UPDATED: Saves advanced systems (rent, auction, bans, likes, cosmetics, warps, biomes, zones).
  */
 public class YMLDataStore implements IDataStore {
 
     private final AegisGuard plugin;
-    private final File file;
-    private FileConfiguration config;
+    private final File plotsDir;
+    private final File legacyFile;
+    private final File generationFile;
 
     // --- CACHES ---
-    private final Map<UUID, List<Plot>> plotsByOwner = new ConcurrentHashMap<>();
-    // Map<WorldName, Map<ChunkKey, Set<Plot>>> for fast spatial lookups
-    private final Map<String, Map<String, Set<Plot>>> plotsByChunk = new ConcurrentHashMap<>();
+    // Owner index, spatial grid and all-plots snapshot
+    private final PlotRegistry registry = new PlotRegistry();
 
     private volatile boolean isDirty = false;
 
+    // --- SAVES (dirty set, single writer) ---
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private volatile boolean shuttingDown = false;
+    private final StorageExecutor storage; // Per-plot ordered writes behind the async API
+
+    // --- COLD-START SNAPSHOT (null when disabled) ---
+    private final PlotSnapshot snapshot;
+    private volatile long generation = -1; // Only changed under saveLock
+
+    // --- WRITE-AHEAD JOURNAL (null when disabled) ---
+    private final boolean journalEnabled;
+    private final long journalFsyncMs;
+    private final long journalCompactBytes;
+    private volatile PlotJournal journal;
+    private final AtomicInteger pendingDeletes = new AtomicInteger(); // Removals not yet applied to files
+
     public YMLDataStore(AegisGuard plugin) {
         this.plugin = plugin;
-        this.file = new File(plugin.getDataFolder(), "plots.yml");
+        this.plotsDir = new File(plugin.getDataFolder(), "plots");
+        this.legacyFile = new File(plugin.getDataFolder(), "plots.yml");
+        this.generationFile = new File(plotsDir, "generation");
+        this.snapshot = plugin.cfg().raw().getBoolean("storage.snapshot", true)
+                ? new PlotSnapshot(new File(plugin.getDataFolder(), "plots-yml.snapshot"), plugin.getLogger())
+                : null;
+        this.journalEnabled = plugin.cfg().raw().getBoolean("storage.journal.enabled", true);
+        this.journalFsyncMs = plugin.cfg().raw().getLong("storage.journal.fsync_interval_ms", 1000);
+        this.journalCompactBytes = Math.max(64, plugin.cfg().raw().getLong("storage.journal.compact_after_kb", 4096)) * 1024;
+        this.storage = new StorageExecutor("AegisGuard-Storage", plugin.getLogger(), plugin.cfg().raw().getInt("storage.async_threads", 2));
     }
 
     // ==============================================================    
@@ -46,237 +92,587 @@ public class YMLDataStore implements IDataStore {
 
     @Override
     public void load() {
-        plotsByOwner.clear();
-        plotsByChunk.clear();
+        migrateLegacyFile();
 
-        if (!file.exists()) {
-            try {
-                file.createNewFile();
-            } catch (IOException ignored) {}
+        saveLock.lock();
+        try {
+            long stored = readGenerationFile();
+            if (snapshot == null || snapshot.loadInto(registry, stored) == null) loadPlotFiles();
+            openJournal();
+        } finally {
+            saveLock.unlock();
         }
+    }
 
-        config = YamlConfiguration.loadConfiguration(file);
-        int count = 0;
-
-        // Iterate through all Plot UUIDs in the file
-        for (String key : config.getKeys(false)) {
-            try {
-                UUID plotId = UUID.fromString(key);
-                ConfigurationSection sec = config.getConfigurationSection(key);
-                if (sec == null) continue;
-
-                // Basic Info
-                UUID ownerId = UUID.fromString(sec.getString("owner"));
-                String ownerName = sec.getString("owner-name", "Unknown");
-                String worldName = sec.getString("world");
-
-                if (Bukkit.getWorld(worldName) == null) continue; // Skip invalid worlds
-
-                int x1 = sec.getInt("x1");
-                int z1 = sec.getInt("z1");
-                int x2 = sec.getInt("x2");
-                int z2 = sec.getInt("z2");
-
-                // Create Plot Object
-                Plot plot = new Plot(plotId, ownerId, ownerName, worldName, x1, z1, x2, z2);
-
-                // Progression
-                plot.setLevel(sec.getInt("level", 1));
-                plot.setXp(sec.getDouble("xp", 0.0));
-                plot.setLastUpkeep(sec.getLong("last-upkeep", System.currentTimeMillis()));
-                plot.setMaxMembers(sec.getInt("max-members", 2));
-
-                // Visuals
-                plot.setSpawnLocationFromString(sec.getString("spawn-location"));
-                plot.setWelcomeMessage(sec.getString("welcome-message"));
-                plot.setFarewellMessage(sec.getString("farewell-message"));
-                plot.setEntryTitle(sec.getString("entry-title"));
-                plot.setEntrySubtitle(sec.getString("entry-subtitle"));
-                plot.setDescription(sec.getString("description"));
-                plot.setCustomBiome(sec.getString("custom-biome"));
-
-                // Economy & Market
-                // New-style section
-                if (sec.isConfigurationSection("market")) {
-                    ConfigurationSection market = sec.getConfigurationSection("market");
-                    if (market != null) {
-                        if (market.getBoolean("is-for-sale", false)) {
-                            plot.setForSale(true, market.getDouble("sale-price", 0.0));
-                        }
-                        if (market.getBoolean("is-for-rent", false)) {
-                            plot.setForRent(true, market.getDouble("rent-price", 0.0));
-                        }
-                        String renterStr = market.getString("current-renter");
-                        if (renterStr != null && !renterStr.isEmpty()) {
-                            try {
-                                UUID renter = UUID.fromString(renterStr);
-                                long expires = market.getLong("rent-expires", 0L);
-                                plot.setRenter(renter, expires);
-                            } catch (IllegalArgumentException ignored) {}
-                        }
-                    }
-                } else {
-                    // Backwards compatibility with old flat keys
-                    if (sec.getBoolean("market.is-for-sale", false)) {
-                        plot.setForSale(true, sec.getDouble("market.sale-price", 0.0));
+    private void loadPlotFiles() {
+        List<Plot> plots = new ArrayList<>();
+        int failed = 0;
+        File[] buckets = plotsDir.listFiles(File::isDirectory);
+        if (buckets != null) {
+            for (File bucket : buckets) {
+                File[] files = bucket.listFiles((dir, name) -> name.endsWith(".yml"));
+                if (files == null) continue;
+                for (File f : files) {
+                    String key = f.getName().substring(0, f.getName().length() - 4);
+                    try {
+                        Plot plot = readPlot(UUID.fromString(key), YamlConfiguration.loadConfiguration(f), true);
+                        if (plot != null) plots.add(plot);
+                    } catch (Exception e) {
+                        failed++;
+                        plugin.getLogger().warning("Failed to load plot: " + key);
                     }
                 }
+            }
+        }
 
-                plot.setPlotStatus(sec.getString("plot-status", "ACTIVE"));
-
-                // Auction
-                if (sec.isConfigurationSection("auction")) {
-                    ConfigurationSection auction = sec.getConfigurationSection("auction");
-                    if (auction != null) {
-                        double bid = auction.getDouble("current-bid", 0.0);
-                        String bidderStr = auction.getString("current-bidder");
-                        UUID bidder = null;
-                        if (bidderStr != null && !bidderStr.isEmpty()) {
-                            try {
-                                bidder = UUID.fromString(bidderStr);
-                            } catch (IllegalArgumentException ignored) {}
-                        }
-                        plot.setCurrentBid(bid, bidder);
-                    }
-                }
+        registry.clear();
+        for (Plot plot : plots) cachePlot(plot);
+        registry.markAllClean(); // Rebuilding plots through setters marked them dirty
+        plugin.getLogger().info("Loaded " + plots.size() + " plots from YML." + (failed > 0 ? " (" + failed + " failed)" : ""));
+    }
 
-                // Flags
-                if (sec.isConfigurationSection("flags")) {
-                    ConfigurationSection flags = sec.getConfigurationSection("flags");
-                    for (String f : flags.getKeys(false)) {
-                        plot.setFlag(f, flags.getBoolean(f));
-                    }
-                }
+    /**
+     * Rebuilds a plot from its file (same layout the single plots.yml used per plot).
+     * @param loadedOnly true to skip plots whose world is not loaded.
+     * @return null if the plot was skipped.
+     */
+    private Plot readPlot(UUID plotId, ConfigurationSection sec, boolean loadedOnly) {
+        // Basic Info
+        UUID ownerId = UUID.fromString(sec.getString("owner"));
+        String ownerName = sec.getString("owner-name", "Unknown");
+        String worldName = sec.getString("world");
 
-                // Roles
-                if (sec.isConfigurationSection("roles")) {
-                    ConfigurationSection roles = sec.getConfigurationSection("roles");
-                    for (String pUuid : roles.getKeys(false)) {
-                        try {
-                            plot.setRole(UUID.fromString(pUuid), roles.getString(pUuid));
-                        } catch (Exception ignored) {}
-                    }
-                }
+        if (worldName == null || (loadedOnly && Bukkit.getWorld(worldName) == null)) return null; // Skip invalid worlds
+
+        int x1 = sec.getInt("x1");
+        int z1 = sec.getInt("z1");
+        int x2 = sec.getInt("x2");
+        int z2 = sec.getInt("z2");
+
+        // Create Plot Object
+        Plot plot = new Plot(plotId, ownerId, ownerName, worldName, x1, z1, x2, z2);
+
+        // Progression
+        plot.setLevel(sec.getInt("level", 1));
+        plot.setXp(sec.getDouble("xp", 0.0));
+        plot.setLastUpkeep(sec.getLong("last-upkeep", System.currentTimeMillis()));
+        plot.setMaxMembers(sec.getInt("max-members", 2));
 
-                // Likes
-                for (String uuidStr : sec.getStringList("liked-by")) {
+        // Visuals
+        plot.setSpawnLocationFromString(sec.getString("spawn-location"));
+        plot.setWelcomeMessage(sec.getString("welcome-message"));
+        plot.setFarewellMessage(sec.getString("farewell-message"));
+        plot.setEntryTitle(sec.getString("entry-title"));
+        plot.setEntrySubtitle(sec.getString("entry-subtitle"));
+        plot.setDescription(sec.getString("description"));
+        plot.setCustomBiome(sec.getString("custom-biome"));
+
+        // Economy & Market
+        // New-style section
+        if (sec.isConfigurationSection("market")) {
+            ConfigurationSection market = sec.getConfigurationSection("market");
+            if (market != null) {
+                if (market.getBoolean("is-for-sale", false)) {
+                    plot.setForSale(true, market.getDouble("sale-price", 0.0));
+                }
+                if (market.getBoolean("is-for-rent", false)) {
+                    plot.setForRent(true, market.getDouble("rent-price", 0.0));
+                }
+                String renterStr = market.getString("current-renter");
+                if (renterStr != null && !renterStr.isEmpty()) {
                     try {
-                        plot.toggleLike(UUID.fromString(uuidStr));
+                        UUID renter = UUID.fromString(renterStr);
+                        long expires = market.getLong("rent-expires", 0L);
+                        plot.setRenter(renter, expires);
                     } catch (IllegalArgumentException ignored) {}
                 }
+            }
+        } else {
+            // Backwards compatibility with old flat keys
+            if (sec.getBoolean("market.is-for-sale", false)) {
+                plot.setForSale(true, sec.getDouble("market.sale-price", 0.0));
+            }
+        }
 
-                // Bans
-                for (String uuidStr : sec.getStringList("banned")) {
+        plot.setPlotStatus(sec.getString("plot-status", "ACTIVE"));
+
+        // Auction
+        if (sec.isConfigurationSection("auction")) {
+            ConfigurationSection auction = sec.getConfigurationSection("auction");
+            if (auction != null) {
+                double bid = auction.getDouble("current-bid", 0.0);
+                String bidderStr = auction.getString("current-bidder");
+                UUID bidder = null;
+                if (bidderStr != null && !bidderStr.isEmpty()) {
                     try {
-                        plot.addBan(UUID.fromString(uuidStr));
+                        bidder = UUID.fromString(bidderStr);
                     } catch (IllegalArgumentException ignored) {}
                 }
+                plot.setCurrentBid(bid, bidder);
+            }
+        }
 
-                // Cosmetics
-                if (sec.isConfigurationSection("cosmetics")) {
-                    ConfigurationSection cos = sec.getConfigurationSection("cosmetics");
-                    plot.setBorderParticle(cos.getString("border-particle"));
-                    plot.setAmbientParticle(cos.getString("ambient-particle"));
-                    plot.setEntryEffect(cos.getString("entry-effect"));
-                }
+        // Flags
+        if (sec.isConfigurationSection("flags")) {
+            ConfigurationSection flags = sec.getConfigurationSection("flags");
+            for (String f : flags.getKeys(false)) {
+                plot.setFlag(f, flags.getBoolean(f));
+            }
+        }
 
-                // Warp
-                if (sec.isConfigurationSection("warp")) {
-                    ConfigurationSection warp = sec.getConfigurationSection("warp");
-                    boolean isWarp = warp.getBoolean("is-server-warp", false);
-                    String warpName = warp.getString("warp-name");
-                    String iconName = warp.getString("warp-icon");
-                    Material icon = null;
-                    if (iconName != null && !iconName.isEmpty()) {
-                        try {
-                            icon = Material.valueOf(iconName);
-                        } catch (IllegalArgumentException ignored) {}
-                    }
-                    plot.setServerWarp(isWarp, warpName, icon);
-                }
+        // Roles
+        if (sec.isConfigurationSection("roles")) {
+            ConfigurationSection roles = sec.getConfigurationSection("roles");
+            for (String pUuid : roles.getKeys(false)) {
+                try {
+                    plot.setRole(UUID.fromString(pUuid), roles.getString(pUuid));
+                } catch (Exception ignored) {}
+            }
+        }
 
-                // Zones (3D sub-claims)
-                if (sec.isConfigurationSection("zones")) {
-                    ConfigurationSection zonesSec = sec.getConfigurationSection("zones");
-                    for (String zoneName : zonesSec.getKeys(false)) {
-                        ConfigurationSection z = zonesSec.getConfigurationSection(zoneName);
-                        if (z == null) continue;
-
-                        int zx1 = z.getInt("x1");
-                        int zy1 = z.getInt("y1");
-                        int zz1 = z.getInt("z1");
-                        int zx2 = z.getInt("x2");
-                        int zy2 = z.getInt("y2");
-                        int zz2 = z.getInt("z2");
-
-                        Zone zone = new Zone(plot, zoneName, zx1, zy1, zz1, zx2, zy2, zz2);
-                        zone.setRentPrice(z.getDouble("rent-price", 0.0));
-
-                        String renterStr = z.getString("renter");
-                        long exp = z.getLong("rent-expiration", 0L);
-                        if (renterStr != null && !renterStr.isEmpty()) {
-                            try {
-                                UUID renter = UUID.fromString(renterStr);
-                                long now = System.currentTimeMillis();
-                                if (exp > now) {
-                                    // Keep the same expiry moment using remaining duration
-                                    zone.rentTo(renter, exp - now);
-                                }
-                            } catch (IllegalArgumentException ignored) {}
-                        }
+        // Likes
+        for (String uuidStr : sec.getStringList("liked-by")) {
+            try {
+                plot.toggleLike(UUID.fromString(uuidStr));
+            } catch (IllegalArgumentException ignored) {}
+        }
 
-                        plot.addZone(zone);
-                    }
+        // Bans
+        for (String uuidStr : sec.getStringList("banned")) {
+            try {
+                plot.addBan(UUID.fromString(uuidStr));
+            } catch (IllegalArgumentException ignored) {}
+        }
+
+        // Cosmetics
+        if (sec.isConfigurationSection("cosmetics")) {
+            ConfigurationSection cos = sec.getConfigurationSection("cosmetics");
+            plot.setBorderParticle(cos.getString("border-particle"));
+            plot.setAmbientParticle(cos.getString("ambient-particle"));
+            plot.setEntryEffect(cos.getString("entry-effect"));
+        }
+
+        // Warp
+        if (sec.isConfigurationSection("warp")) {
+            ConfigurationSection warp = sec.getConfigurationSection("warp");
+            boolean isWarp = warp.getBoolean("is-server-warp", false);
+            String warpName = warp.getString("warp-name");
+            String iconName = warp.getString("warp-icon");
+            Material icon = null;
+            if (iconName != null && !iconName.isEmpty()) {
+                try {
+                    icon = Material.valueOf(iconName);
+                } catch (IllegalArgumentException ignored) {}
+            }
+            plot.setServerWarp(isWarp, warpName, icon);
+        }
+
+        // Zones (3D sub-claims)
+        if (sec.isConfigurationSection("zones")) {
+            ConfigurationSection zonesSec = sec.getConfigurationSection("zones");
+            for (String zoneName : zonesSec.getKeys(false)) {
+                ConfigurationSection z = zonesSec.getConfigurationSection(zoneName);
+                if (z == null) continue;
+
+                int zx1 = z.getInt("x1");
+                int zy1 = z.getInt("y1");
+                int zz1 = z.getInt("z1");
+                int zx2 = z.getInt("x2");
+                int zy2 = z.getInt("y2");
+                int zz2 = z.getInt("z2");
+
+                UUID zoneId;
+                try {
+                    String idStr = z.getString("id");
+                    zoneId = idStr != null ? UUID.fromString(idStr) : UUID.randomUUID();
+                } catch (IllegalArgumentException e) {
+                    zoneId = UUID.randomUUID();
                 }
 
-                // Cache it
-                cachePlot(plot);
-                count++;
+                Zone zone = new Zone(zoneId, plot, zoneName, zx1, zy1, zz1, zx2, zy2, zz2);
+                zone.setRentPrice(z.getDouble("rent-price", 0.0));
 
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to load plot: " + key);
+                String renterStr = z.getString("renter");
+                long exp = z.getLong("rent-expiration", 0L);
+                if (renterStr != null && !renterStr.isEmpty()) {
+                    try {
+                        UUID renter = UUID.fromString(renterStr);
+                        long now = System.currentTimeMillis();
+                        if (exp > now) {
+                            // Keep the exact stored expiry moment
+                            zone.setRentState(renter, exp);
+                        }
+                    } catch (IllegalArgumentException ignored) {}
+                }
+
+                plot.addZone(zone);
             }
         }
-        plugin.getLogger().info("Loaded " + count + " plots from YML.");
+
+        return plot;
     }
 
     @Override
     public void save() {
-        if (config == null) config = new YamlConfiguration();
+        // Periodic auto-save: only plots whose mutators marked them dirty are written
+        isDirty = false;
+        flushDirtyPlots(false);
+        writeSnapshot(false);
+    }
 
-        // Save all cached plots to the config object
-        for (Plot plot : getAllPlots()) {
-            writePlotToConfig(plot);
+    @Override
+    public void saveSync() {
+        shuttingDown = true;
+        if (!storage.shutdown(10_000)) plugin.getLogger().warning("Storage writes still running at shutdown; remaining plots are saved below.");
+        flushDirtyPlots(true);
+        writeSnapshot(true);
+        PlotJournal j = journal;
+        if (j != null) j.close();
+    }
+
+    @Override
+    public void savePlot(Plot plot) {
+        // Callers may have mutated a live collection (getZones(), getLikedBy()...) directly
+        plot.markDirty();
+        PlotJournal j = journal;
+        if (j != null) {
+            // Durable at the next journal sync; the plot file catches up in the background
+            j.appendPut(plot);
+            if (j.size() >= journalCompactBytes) requestFlush();
+            return;
         }
+        requestFlush();
+    }
+
+    // ==============================================================
+    // --- FILE I/O (one writer) ---
+    // ==============================================================
+
+    private void requestFlush() {
+        if (shuttingDown || !flushQueued.compareAndSet(false, true)) return;
+        plugin.runGlobalAsync(() -> {
+            flushQueued.set(false);
+            flushDirtyPlots(false);
+        });
+    }
+
+    /**
+     * Writes each dirty plot to its own file (temp file + atomic rename).
+     * @param wait true to block until a concurrent flush finishes (shutdown).
+     */
+    private void flushDirtyPlots(boolean wait) {
+        if (wait) saveLock.lock();
+        else if (!saveLock.tryLock()) return; // The running flush reschedules if more work arrives
 
         try {
-            config.save(file);
-            isDirty = false;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save plots.yml!");
-            e.printStackTrace();
+            List<Plot> batch = registry.drainDirty();
+            batch.removeIf(plot -> !plot.isDirty()); // Already written by flushPlot
+            if (batch.isEmpty()) {
+                compactJournal();
+                return;
+            }
+            advanceGeneration();
+
+            long start = System.currentTimeMillis();
+            List<Plot> failed = new ArrayList<>();
+            Set<File> dirs = new HashSet<>();
+            for (Plot plot : batch) {
+                try {
+                    writePlotFile(plot, dirs);
+                } catch (Exception e) {
+                    failed.add(plot);
+                }
+            }
+            for (File dir : dirs) syncDirectory(dir); // The renames must be durable before the journal goes
+
+            if (!failed.isEmpty()) {
+                registry.requeueDirty(failed);
+                plugin.getLogger().severe("Could not save " + failed.size() + " plot files (will retry).");
+            }
+            long took = System.currentTimeMillis() - start;
+            if (took >= 1000) {
+                plugin.getLogger().warning("Slow plot save: " + batch.size() + " plot files took " + took + "ms.");
+            }
+            compactJournal();
+        } finally {
+            saveLock.unlock();
+            if (!wait && registry.dirtyCount() > 0) requestFlush();
         }
     }
 
-    @Override
-    public void saveSync() {
-        save();
+    /**
+     * Caller holds saveLock.
+     * @param dirs collects the directories to fsync afterwards; null to fsync right away.
+     */
+    private void writePlotFile(Plot plot, Set<File> dirs) throws IOException {
+        long revision = plot.getRevision(); // Captured first: later edits keep the plot dirty
+        YamlConfiguration out = new YamlConfiguration();
+        writePlot(out, plot);
+        writeAtomically(fileFor(plot.getPlotId()), out.saveToString(), dirs);
+        plot.markSaved(revision);
     }
 
     @Override
-    public void savePlot(Plot plot) {
-        // Update the specific section in memory and save to disk immediately
-        writePlotToConfig(plot);
+    public CompletableFuture<Void> flushPlot(Plot plot) {
+        return storage.submit(plot.getPlotId(), () -> {
+            PlotJournal j = journal;
+            if (j != null) {
+                // Every change went through savePlot, so it is already in the journal buffer
+                j.sync();
+                return null;
+            }
+            if (!plot.isDirty()) return null;
+
+            saveLock.lock();
+            try {
+                // Re-checked under the lock: a batch flush may have just written it, or it was removed
+                if (!plot.isDirty() || registry.getPlotById(plot.getPlotId()) != plot) return null;
+                advanceGeneration();
+                writePlotFile(plot, null); // Still in the dirty set; the next flush skips it if clean
+                return null;
+            } finally {
+                saveLock.unlock();
+            }
+        });
+    }
+
+    private void deletePlotFiles(Collection<UUID> plotIds) {
+        if (plotIds.isEmpty()) return;
+        pendingDeletes.incrementAndGet();
+        plugin.runGlobalAsync(() -> {
+            try {
+                deletePlotFilesNow(plotIds);
+            } finally {
+                pendingDeletes.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * @return false if a file could not be deleted.
+     */
+    private boolean deletePlotFilesNow(Collection<UUID> plotIds) {
+        // Serialized with flushes so an in-flight write cannot resurrect the file
+        saveLock.lock();
+        try {
+            advanceGeneration();
+            boolean ok = true;
+            Set<File> dirs = new HashSet<>();
+            for (UUID plotId : plotIds) {
+                File file = fileFor(plotId);
+                try {
+                    Files.deleteIfExists(file.toPath());
+                    dirs.add(file.getParentFile());
+                } catch (IOException e) {
+                    ok = false;
+                    plugin.getLogger().warning("Could not delete plot file " + plotId + ": " + e.getMessage());
+                }
+            }
+            for (File dir : dirs) syncDirectory(dir);
+            return ok;
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    // ==============================================================
+    // --- GENERATION / SNAPSHOT ---
+    // ==============================================================
+
+    /**
+     * Reads the stored generation and makes it current.
+     * @return the stored value, or -1 if there was none (a fresh, time-based one is started).
+     */
+    private long readGenerationFile() {
+        try {
+            long stored = Long.parseLong(new String(Files.readAllBytes(generationFile.toPath()), StandardCharsets.UTF_8).trim());
+            generation = stored;
+            return stored;
+        } catch (IOException | NumberFormatException e) {
+            // Missing or unreadable: start from the clock so no older snapshot can match
+            generation = System.currentTimeMillis();
+            try {
+                writeAtomically(generationFile, Long.toString(generation));
+            } catch (IOException ignored) {}
+            return -1;
+        }
+    }
+
+    /**
+     * Bumps the generation before plot files change, so an older snapshot stops matching
+     * even if the server dies halfway through the write. Called under saveLock.
+     */
+    private void advanceGeneration() {
+        long next = generation + 1;
         try {
-            config.save(file);
+            writeAtomically(generationFile, Long.toString(next));
+            generation = next;
         } catch (IOException e) {
-            e.printStackTrace();
+            if (snapshot != null) snapshot.delete();
+            plugin.getLogger().warning("Could not update plot generation: " + e.getMessage());
+        }
+    }
+
+    // ==============================================================
+    // --- JOURNAL ---
+    // ==============================================================
+
+    /**
+     * Replays journaled changes that never reached the plot files, then keeps the journal
+     * open for appends. Called under saveLock, after the plots were loaded.
+     */
+    private void openJournal() {
+        PlotJournal old = journal;
+        if (old != null) old.close(); // Reload: its records are replayed below
+        journal = null;
+        if (!journalEnabled) return;
+
+        Set<String> worlds = new HashSet<>();
+        for (org.bukkit.World w : Bukkit.getWorlds()) worlds.add(w.getName());
+        List<UUID> removed = new ArrayList<>();
+
+        PlotJournal j = new PlotJournal(new File(plotsDir, "journal.log"), plugin.getLogger(), journalFsyncMs);
+        try {
+            int replayed = j.open(worlds, new PlotJournal.Sink() {
+                @Override
+                public void put(Plot plot) {
+                    Plot current = registry.getPlotById(plot.getPlotId());
+                    if (current != null) registry.remove(current.getOwner(), current.getPlotId());
+                    registry.add(plot);
+                    plot.markDirty();
+                }
+
+                @Override
+                public void remove(UUID plotId) {
+                    Plot current = registry.getPlotById(plotId);
+                    if (current != null) registry.remove(current.getOwner(), plotId);
+                    removed.add(plotId);
+                }
+            });
+            journal = j;
+
+            if (replayed > 0) {
+                plugin.getLogger().info("Replayed " + replayed + " journaled plot changes.");
+                deletePlotFiles(removed);
+                requestFlush(); // Fold them into the plot files
+            }
+        } catch (IOException e) {
+            j.close();
+            plugin.getLogger().warning("Could not open plot journal; saving plot files directly: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Truncates the journal once every change in it is in the plot files. Called under saveLock.
+     */
+    private void compactJournal() {
+        PlotJournal j = journal;
+        if (j == null) return;
+        try {
+            j.reset(() -> registry.dirtyCount() == 0 && pendingDeletes.get() == 0);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not compact plot journal: " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(boolean wait) {
+        if (snapshot == null) return;
+        if (wait) saveLock.lock();
+        else if (!saveLock.tryLock()) return; // A flush is running; the next save writes it
+
+        try {
+            snapshot.saveFrom(registry, generation);
+        } finally {
+            saveLock.unlock();
+            if (!wait && registry.dirtyCount() > 0) requestFlush();
+        }
+    }
+
+    /**
+     * plots/<first two hex chars>/<plot id>.yml, so no directory grows past a few hundred entries
+     * per thousand plots.
+     */
+    private File fileFor(UUID plotId) {
+        String id = plotId.toString();
+        return new File(new File(plotsDir, id.substring(0, 2)), id + ".yml");
+    }
+
+    static void writeAtomically(File target, String content) throws IOException {
+        writeAtomically(target, content, null);
+    }
+
+    /**
+     * Writes and fsyncs a temp file, then renames it over 'target'.
+     * @param dirs collects the parent directory to fsync later (batched writes); null to fsync it now.
+     */
+    static void writeAtomically(File target, String content, Set<File> dirs) throws IOException {
+        File dir = target.getParentFile();
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) throw new IOException("Cannot create " + dir);
+
+        Path tmp = new File(dir, target.getName() + ".tmp").toPath();
+        ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) ch.write(bytes);
+            ch.force(true); // Otherwise a power loss can leave the renamed file empty
+        }
+        try {
+            Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
+        if (dirs != null) dirs.add(dir);
+        else syncDirectory(dir);
     }
 
-    private void writePlotToConfig(Plot plot) {
-        String key = plot.getPlotId().toString();
-        ConfigurationSection sec = config.createSection(key);
+    /**
+     * Makes renames and deletes in 'dir' durable. Skipped where directories cannot be
+     * opened for sync (e.g. Windows).
+     */
+    static void syncDirectory(File dir) {
+        try (FileChannel ch = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ignored) {
+            // Not supported on this platform
+        }
+    }
+
+    /**
+     * Splits a legacy single plots.yml into per-plot files once, then renames it.
+     * Sections are copied value by value, so nothing is lost even for plots in unloaded worlds.
+     */
+    private void migrateLegacyFile() {
+        if (!legacyFile.exists()) return;
+
+        FileConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        int migrated = 0;
+        for (String key : legacy.getKeys(false)) {
+            ConfigurationSection sec = legacy.getConfigurationSection(key);
+            if (sec == null) continue;
+            try {
+                UUID plotId = UUID.fromString(key);
+                YamlConfiguration out = new YamlConfiguration();
+                for (Map.Entry<String, Object> e : sec.getValues(true).entrySet()) {
+                    if (!(e.getValue() instanceof ConfigurationSection)) out.set(e.getKey(), e.getValue());
+                }
+                writeAtomically(fileFor(plotId), out.saveToString());
+                migrated++;
+            } catch (Exception e) {
+                plugin.getLogger().warning("Could not migrate plot " + key + " from plots.yml: " + e.getMessage());
+            }
+        }
+
+        if (migrated > 0 && generationFile.exists()) generationFile.delete(); // Restart the generation: files changed
+
+        File backup = new File(legacyFile.getParentFile(), "plots.yml.migrated");
+        if (legacyFile.renameTo(backup)) {
+            plugin.getLogger().info("Migrated " + migrated + " plots from plots.yml to per-plot files (old file kept as plots.yml.migrated).");
+        } else {
+            plugin.getLogger().warning("Migrated " + migrated + " plots, but could not rename plots.yml; it will be migrated again on next start.");
+        }
+    }
+
+    private void writePlot(ConfigurationSection sec, Plot plot) {
 
         // Core
         sec.set("owner", plot.getOwner().toString());
@@ -360,6 +756,7 @@ public class YMLDataStore implements IDataStore {
         ConfigurationSection zonesSec = sec.createSection("zones");
         for (Zone zone : plot.getZones()) {
             ConfigurationSection z = zonesSec.createSection(zone.getName());
+            z.set("id", zone.getZoneId().toString());
             z.set("x1", zone.getX1());
             z.set("y1", zone.getY1());
             z.set("z1", zone.getZ1());
@@ -379,60 +776,73 @@ public class YMLDataStore implements IDataStore {
 
     @Override
     public List<Plot> getPlots(UUID owner) {
-        return plotsByOwner.getOrDefault(owner, new ArrayList<>());
+        return registry.getPlots(owner);
     }
 
     @Override
     public Plot getPlot(UUID owner, UUID plotId) {
-        List<Plot> userPlots = plotsByOwner.get(owner);
-        if (userPlots == null) return null;
-        return userPlots.stream().filter(p -> p.getPlotId().equals(plotId)).findFirst().orElse(null);
+        return registry.getPlot(owner, plotId);
+    }
+
+    @Override
+    public Plot getPlotById(UUID plotId) {
+        return registry.getPlotById(plotId);
     }
 
     @Override
     public Collection<Plot> getAllPlots() {
-        return plotsByOwner.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        return registry.getAllPlots();
     }
 
     @Override
-    public Collection<Plot> getPlotsForSale() {
-        return getAllPlots().stream().filter(Plot::isForSale).collect(Collectors.toList());
+    public long getPlotsGeneration() {
+        return registry.generation();
     }
 
     @Override
-    public Collection<Plot> getPlotsForAuction() {
-        return getAllPlots().stream().filter(p -> "AUCTION".equals(p.getPlotStatus())).collect(Collectors.toList());
+    public List<Plot> getPlotsForSale() {
+        return registry.getListing(PlotListingIndex.Listing.FOR_SALE);
     }
 
     @Override
-    public Plot getPlotAt(Location loc) {
-        String world = loc.getWorld().getName();
-        String key = (loc.getBlockX() >> 4) + "," + (loc.getBlockZ() >> 4);
+    public List<Plot> getPlotsForAuction() {
+        return registry.getListing(PlotListingIndex.Listing.AUCTION);
+    }
 
-        Map<String, Set<Plot>> worldMap = plotsByChunk.get(world);
-        if (worldMap == null) return null;
+    @Override
+    public List<Plot> getPlotsForRent() {
+        return registry.getListing(PlotListingIndex.Listing.FOR_RENT);
+    }
 
-        Set<Plot> candidates = worldMap.get(key);
-        if (candidates == null) return null;
+    @Override
+    public List<Plot> getServerWarps() {
+        return registry.getListing(PlotListingIndex.Listing.SERVER_WARPS);
+    }
 
-        for (Plot p : candidates) {
-            if (p.isInside(loc)) return p;
-        }
-        return null;
+    @Override
+    public List<Plot> getTopLikedPlots() {
+        return registry.getListing(PlotListingIndex.Listing.TOP_LIKED);
     }
 
     @Override
-    public boolean isAreaOverlapping(Plot ignore, String world, int x1, int z1, int x2, int z2) {
-        for (Plot p : getAllPlots()) {
-            if (!p.getWorld().equals(world)) continue;
-            if (ignore != null && p.getPlotId().equals(ignore.getPlotId())) continue;
+    public Plot getPlotAt(Location loc) {
+        return registry.spatial().getPlotAt(loc);
+    }
 
-            // AABB Overlap Check
-            if (x1 <= p.getX2() && x2 >= p.getX1() && z1 <= p.getZ2() && z2 >= p.getZ1()) {
-                return true;
-            }
-        }
-        return false;
+    @Override
+    public boolean isAreaOverlapping(Plot plotToIgnore, String world, int x1, int z1, int x2, int z2) {
+        return registry.spatial().isAreaOverlapping(plotToIgnore, world, x1, z1, x2, z2);
+    }
+
+    @Override
+    public Collection<Plot> getPlotsInArea(String world, int x1, int z1, int x2, int z2) {
+        return registry.spatial().getPlotsInArea(world, x1, z1, x2, z2);
+    }
+
+    @Override
+    public Collection<Plot> getPlotsNear(Location loc, int radius) {
+        if (loc == null || loc.getWorld() == null) return Collections.emptyList();
+        return registry.spatial().getPlotsNear(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockZ(), radius);
     }
 
     // ==============================================================    
@@ -441,6 +851,11 @@ public class YMLDataStore implements IDataStore {
 
     @Override
     public void createPlot(UUID owner, Location c1, Location c2) {
+        createPlotAsync(owner, c1, c2);
+    }
+
+    @Override
+    public CompletableFuture<Plot> createPlotAsync(UUID owner, Location c1, Location c2) {
         UUID id = UUID.randomUUID();
         String ownerName = Bukkit.getOfflinePlayer(owner).getName();
 
@@ -453,6 +868,7 @@ public class YMLDataStore implements IDataStore {
 
         // Add to cache and save
         addPlot(plot);
+        return flushPlot(plot).thenApply(v -> plot);
     }
 
     @Override
@@ -463,45 +879,38 @@ public class YMLDataStore implements IDataStore {
 
     @Override
     public void removePlot(UUID owner, UUID plotId) {
-        List<Plot> list = plotsByOwner.get(owner);
-        if (list != null) {
-            Plot removed = null;
-            for (Plot p : list) {
-                if (p.getPlotId().equals(plotId)) {
-                    removed = p;
-                    break;
-                }
-            }
-            if (removed != null) {
-                list.remove(removed);
-                deIndexPlot(removed);
+        removePlotAsync(owner, plotId);
+    }
 
-                if (config != null) {
-                    config.set(plotId.toString(), null);
-                    try {
-                        config.save(file);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
+    @Override
+    public CompletableFuture<Void> removePlotAsync(UUID owner, UUID plotId) {
+        Plot removed = registry.remove(owner, plotId);
+        if (removed == null) return CompletableFuture.completedFuture(null);
+
+        PlotJournal j = journal;
+        if (j != null) {
+            // Durable once the REMOVE record is synced; the file goes in the background
+            j.appendRemove(plotId);
+            deletePlotFiles(Collections.singletonList(plotId));
+            return storage.submit(plotId, () -> {
+                j.sync();
+                return null;
+            });
         }
+        return storage.submit(plotId, () -> {
+            if (!deletePlotFilesNow(Collections.singletonList(plotId))) {
+                throw new IOException("Plot file " + plotId + " could not be deleted");
+            }
+            return null;
+        });
     }
 
     @Override
     public void removeAllPlots(UUID owner) {
-        List<Plot> list = plotsByOwner.remove(owner);
-        if (list != null) {
-            for (Plot p : list) {
-                deIndexPlot(p);
-                config.set(p.getPlotId().toString(), null);
-            }
-            try {
-                config.save(file);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        List<UUID> ids = registry.removeAll(owner).stream().map(Plot::getPlotId).collect(Collectors.toList());
+        PlotJournal j = journal;
+        if (j != null) ids.forEach(j::appendRemove);
+        deletePlotFiles(ids);
     }
 
     @Override
@@ -518,13 +927,10 @@ public class YMLDataStore implements IDataStore {
 
     @Override
     public void changePlotOwner(Plot plot, UUID newOwner, String newOwnerName) {
-        List<Plot> oldList = plotsByOwner.get(plot.getOwner());
-        if (oldList != null) oldList.remove(plot);
-
+        UUID oldOwner = plot.getOwner();
         plot.setOwner(newOwner);
         plot.setOwnerName(newOwnerName);
-
-        plotsByOwner.computeIfAbsent(newOwner, k -> new ArrayList<>()).add(plot);
+        registry.ownerChanged(plot, oldOwner);
 
         savePlot(plot);
     }
@@ -539,44 +945,12 @@ public class YMLDataStore implements IDataStore {
     // --- Indexing Helpers ---
 
     private void cachePlot(Plot plot) {
-        plotsByOwner.computeIfAbsent(plot.getOwner(), k -> new ArrayList<>()).add(plot);
-
-        String w = plot.getWorld();
-        int minX = plot.getX1() >> 4;
-        int maxX = plot.getX2() >> 4;
-        int minZ = plot.getZ1() >> 4;
-        int maxZ = plot.getZ2() >> 4;
-
-        Map<String, Set<Plot>> worldMap = plotsByChunk.computeIfAbsent(w, k -> new ConcurrentHashMap<>());
-
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                worldMap.computeIfAbsent(x + "," + z, k -> new HashSet<>()).add(plot);
-            }
-        }
-    }
-
-    private void deIndexPlot(Plot plot) {
-        String w = plot.getWorld();
-        Map<String, Set<Plot>> worldMap = plotsByChunk.get(w);
-        if (worldMap == null) return;
-
-        int minX = plot.getX1() >> 4;
-        int maxX = plot.getX2() >> 4;
-        int minZ = plot.getZ1() >> 4;
-        int maxZ = plot.getZ2() >> 4;
-
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                Set<Plot> set = worldMap.get(x + "," + z);
-                if (set != null) set.remove(plot);
-            }
-        }
+        registry.add(plot);
     }
 
     @Override
     public boolean isDirty() {
-        return isDirty;
+        return isDirty || registry.dirtyCount() > 0;
     }
 
     @Override
@@ -586,5 +960,64 @@ public class YMLDataStore implements IDataStore {
 
     // No-ops for SQL-specific features
     @Override public void logWildernessBlock(Location loc, String o, String n, UUID p) {}
+    @Override public void flushWildernessLog() {}
     @Override public void revertWildernessBlocks(long t, int l) {}
+    @Override public long exportWildernessLog(long afterId, int limit, Consumer<WildernessLogBuffer.Entry> sink) { return afterId; }
+    @Override public boolean importWildernessLog(List<WildernessLogBuffer.Entry> entries) { return false; }
+
+    // ==============================================================
+    // --- BULK TRANSFER (storage migration) ---
+    // ==============================================================
+
+    @Override
+    public boolean importPlots(Collection<Plot> plots, Collection<UUID> removed) {
+        boolean ok = true;
+        if (!removed.isEmpty()) {
+            for (UUID id : removed) {
+                Plot current = registry.getPlotById(id);
+                if (current != null) registry.remove(current.getOwner(), id);
+            }
+            ok = deletePlotFilesNow(removed);
+        }
+
+        // Written straight to the plot files: a bulk copy has nothing to gain from the journal
+        for (Plot plot : plots) {
+            Plot current = registry.getPlotById(plot.getPlotId());
+            if (current != null) registry.remove(current.getOwner(), current.getPlotId());
+            cachePlot(plot);
+            plot.markDirty();
+        }
+        flushDirtyPlots(true);
+        for (Plot plot : plots) {
+            if (plot.isDirty()) return false;
+        }
+        return ok;
+    }
+
+    @Override
+    public List<Plot> readStoredPlots() {
+        List<Plot> plots = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        File[] buckets = plotsDir.listFiles(File::isDirectory);
+        if (buckets != null) {
+            for (File bucket : buckets) {
+                File[] files = bucket.listFiles((dir, name) -> name.endsWith(".yml"));
+                if (files == null) continue;
+                for (File f : files) {
+                    String key = f.getName().substring(0, f.getName().length() - 4);
+                    try {
+                        Plot plot = readPlot(UUID.fromString(key), YamlConfiguration.loadConfiguration(f), false);
+                        if (plot != null) plots.add(plot);
+                        else failed.add(key);
+                    } catch (Exception e) {
+                        failed.add(key);
+                    }
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException(failed.size() + " plot files could not be read (e.g. " + failed.get(0) + ").");
+        }
+        return plots;
+    }
 }
@@ -7,14 +7,18 @@ import org.bukkit.World;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Zone (Sub-Claim) - v1.2.2
+ * Zone (Sub-Claim) - v1.2.3
  * - Represents a 3D rentable area inside a Plot.
  * - Lives in 'data' package now.
+ * - Carries a stable id (kept across saves) and a version bumped by every mutator,
+ *   so stores only rewrite zones that actually changed.
  */
 public class Zone {
     
+    private final UUID zoneId;
     private final String name;
     private final Plot parent;
     
@@ -26,8 +30,20 @@ public class Zone {
     private double rentPrice;
     private UUID renter;
     private long rentExpiration;
+
+    // --- Save Tracking (not persisted) ---
+    private final transient AtomicLong version = new AtomicLong();
+    private transient volatile long savedVersion = -1; // Never saved
     
     public Zone(Plot parent, String name, int x1, int y1, int z1, int x2, int y2, int z2) {
+        this(UUID.randomUUID(), parent, name, x1, y1, z1, x2, y2, z2);
+    }
+
+    /**
+     * Restores a persisted zone with its stored id.
+     */
+    public Zone(UUID zoneId, Plot parent, String name, int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.zoneId = zoneId;
         this.parent = parent;
         this.name = name;
         // Normalize coordinates immediately
@@ -40,6 +56,7 @@ public class Zone {
     }
 
     // --- Core Identity ---
+    public UUID getZoneId() { return zoneId; }
     public String getName() { return name; }
     public Plot getParent() { return parent; }
     
@@ -58,11 +75,13 @@ public class Zone {
         this.x2 = Math.max(x1, x2);
         this.y2 = Math.max(y1, y2);
         this.z2 = Math.max(z1, z2);
+        parent.zonesChanged();
+        changed();
     }
 
     // --- Rent Logic ---
     public double getRentPrice() { return rentPrice; }
-    public void setRentPrice(double price) { this.rentPrice = price; }
+    public void setRentPrice(double price) { this.rentPrice = price; changed(); }
     
     public boolean isRented() {
         if (renter == null) return false;
@@ -82,6 +101,7 @@ public class Zone {
     public void rentTo(UUID player, long durationMillis) {
         this.renter = player;
         this.rentExpiration = System.currentTimeMillis() + durationMillis;
+        changed();
     }
 
     /**
@@ -90,13 +110,40 @@ public class Zone {
     public void setRentState(UUID renter, long rentExpiration) {
         this.renter = renter;
         this.rentExpiration = rentExpiration;
+        changed();
     }
     
     public void evict() {
         this.renter = null;
         this.rentExpiration = 0;
+        changed();
     }
     
+    // --- Save Tracking ---
+
+    private void changed() {
+        version.incrementAndGet();
+        parent.markDirty();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * True if this zone changed since it was last written (or was never written).
+     */
+    public boolean isDirty() {
+        return savedVersion != version.get();
+    }
+
+    /**
+     * Called by stores once the given version is durably written.
+     */
+    void markSaved(long savedVersion) {
+        this.savedVersion = savedVersion;
+    }
+
     // --- Utilities ---
     
     public boolean isInside(Location loc) {
@@ -0,0 +1,110 @@
+package com.aegisguard.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ZoneIndex (Sub-Claim Lookup) - v1.2.3
+ * - Immutable 2D grid over a plot's zones. Each cell holds the zones whose footprint
+ *   overlaps it, in plot order, so a lookup reads one cell and tests the full 3D bounds
+ *   of a handful of zones however many the plot has.
+ * - Cells start at 8x8 blocks and grow until the grid fits MAX_CELLS.
+ * - Built lazily by Plot after zones are added, removed or resized; small plots keep the
+ *   plain scan.
+ */
+final class ZoneIndex {
+
+    private static final int MIN_INDEXED = 8;
+    private static final int MAX_CELLS = 4096;
+    private static final Zone[] NONE = new Zone[0];
+
+    private final long layout;
+    private final int size;
+    private final Zone[] all;     // Plot order; scanned directly when not gridded
+    private final Zone[][] cells; // null: plain scan
+    private final int minX, minZ, shift, width, depth;
+
+    private ZoneIndex(long layout, Zone[] all, Zone[][] cells, int minX, int minZ, int shift, int width, int depth) {
+        this.layout = layout;
+        this.size = all.length;
+        this.all = all;
+        this.cells = cells;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.shift = shift;
+        this.width = width;
+        this.depth = depth;
+    }
+
+    static ZoneIndex build(List<Zone> zones, long layout) {
+        Zone[] all = zones.toArray(NONE);
+        if (all.length < MIN_INDEXED) return new ZoneIndex(layout, all, null, 0, 0, 0, 0, 0);
+
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (Zone z : all) {
+            minX = Math.min(minX, z.getX1());
+            minZ = Math.min(minZ, z.getZ1());
+            maxX = Math.max(maxX, z.getX2());
+            maxZ = Math.max(maxZ, z.getZ2());
+        }
+
+        int shift = 3;
+        long width, depth;
+        while (true) {
+            width = (((long) maxX - minX) >> shift) + 1;
+            depth = (((long) maxZ - minZ) >> shift) + 1;
+            if (width * depth <= MAX_CELLS) break;
+            shift++;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Zone>[] buckets = new List[(int) (width * depth)];
+        for (Zone z : all) {
+            int cx1 = (z.getX1() - minX) >> shift, cx2 = (z.getX2() - minX) >> shift;
+            int cz1 = (z.getZ1() - minZ) >> shift, cz2 = (z.getZ2() - minZ) >> shift;
+            for (int cx = cx1; cx <= cx2; cx++) {
+                for (int cz = cz1; cz <= cz2; cz++) {
+                    int i = cz * (int) width + cx;
+                    if (buckets[i] == null) buckets[i] = new ArrayList<>(2);
+                    buckets[i].add(z);
+                }
+            }
+        }
+
+        Zone[][] cells = new Zone[buckets.length][];
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != null) cells[i] = buckets[i].toArray(NONE);
+        }
+        return new ZoneIndex(layout, all, cells, minX, minZ, shift, (int) width, (int) depth);
+    }
+
+    long layout() {
+        return layout;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * First zone (in plot order) containing the block, or null.
+     */
+    Zone find(int x, int y, int z) {
+        Zone[] candidates;
+        if (cells == null) {
+            candidates = all;
+        } else {
+            int cx = (x - minX) >> shift, cz = (z - minZ) >> shift;
+            if (x < minX || z < minZ || cx >= width || cz >= depth) return null;
+            candidates = cells[cz * width + cx];
+            if (candidates == null) return null;
+        }
+
+        for (Zone zone : candidates) {
+            if (x >= zone.getX1() && x <= zone.getX2()
+                    && y >= zone.getY1() && y <= zone.getY2()
+                    && z >= zone.getZ1() && z <= zone.getZ2()) return zone;
+        }
+        return null;
+    }
+}
@@ -223,12 +223,9 @@ public class ExpansionRequestManager {
         int x2 = cX + newRadius;
         int z2 = cZ + newRadius;
         
-        plugin.store().removePlot(oldPlot.getOwner(), oldPlot.getPlotId());
-        
-        oldPlot.setX1(x1); oldPlot.setX2(x2);
-        oldPlot.setZ1(z1); oldPlot.setZ2(z2);
-        
-        plugin.store().addPlot(oldPlot);
+        // Spatial index follows the new bounds, no remove/re-add needed
+        oldPlot.setBounds(x1, z1, x2, z2);
+        plugin.store().savePlot(oldPlot);
         return true;
     }
 
@@ -15,6 +15,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.SkullMeta;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,10 @@ public class AdminPlotListGUI {
     private final AegisGuard plugin;
     private final int PLOTS_PER_PAGE = 45;
 
+    // Sorted list is reused until the store's plot generation moves
+    private List<Plot> sortedCache = Collections.emptyList();
+    private long sortedGeneration = -1;
+
     public AdminPlotListGUI(AegisGuard plugin) {
         this.plugin = plugin;
     }
@@ -47,10 +52,20 @@ public class AdminPlotListGUI {
         @Override public Inventory getInventory() { return null; }
     }
 
+    private synchronized List<Plot> getSortedPlots() {
+        long generation = plugin.store().getPlotsGeneration();
+        if (generation != sortedGeneration) {
+            List<Plot> sorted = new ArrayList<>(plugin.store().getAllPlots());
+            // Sort by Owner Name A-Z
+            sorted.sort(Comparator.comparing(Plot::getOwnerName, String.CASE_INSENSITIVE_ORDER));
+            sortedCache = Collections.unmodifiableList(sorted);
+            sortedGeneration = generation;
+        }
+        return sortedCache;
+    }
+
     public void open(Player player, int page) {
-        List<Plot> allPlots = new ArrayList<>(plugin.store().getAllPlots());
-        // Sort by Owner Name A-Z
-        allPlots.sort(Comparator.comparing(Plot::getOwnerName, String.CASE_INSENSITIVE_ORDER));
+        List<Plot> allPlots = getSortedPlots();
 
         int maxPages = (int) Math.ceil((double) allPlots.size() / PLOTS_PER_PAGE);
         if (page < 0) page = 0;
@@ -156,11 +156,9 @@ public class LevelingGUI {
                      return;
                 }
 
-                // Apply Resize
-                plugin.store().removePlot(plot.getOwner(), plot.getPlotId()); // Remove old index
-                plot.setX1(newX1); plot.setX2(newX2);
-                plot.setZ1(newZ1); plot.setZ2(newZ2);
-                plugin.store().addPlot(plot); // Add new index
+                // Apply Resize (spatial index follows the new bounds)
+                plot.setBounds(newX1, newZ1, newX2, newZ2);
+                plugin.store().savePlot(plot);
             }
 
             // 3. Fire Event & Apply Level
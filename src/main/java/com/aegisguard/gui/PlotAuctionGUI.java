@@ -15,7 +15,6 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.SkullMeta;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -48,8 +47,8 @@ public class PlotAuctionGUI {
     }
 
     public void open(Player player, int page) {
-        List<Plot> allPlots = new ArrayList<>(plugin.store().getPlotsForAuction());
-        allPlots.sort(Comparator.comparingDouble(Plot::getCurrentBid));
+        // Already sorted by current bid (live index)
+        List<Plot> allPlots = plugin.store().getPlotsForAuction();
 
         int maxPages = (int) Math.ceil((double) allPlots.size() / PLOTS_PER_PAGE);
         if (page < 0) page = 0;
@@ -2,6 +2,7 @@ package com.aegisguard.gui;
 
 import com.aegisguard.AegisGuard;
 import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
 import com.aegisguard.economy.CurrencyType;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -77,7 +78,7 @@ public class PlotFlagsGUI {
         // --- 4. PREMIUM (Row 4) ---
         
         // Flight
-        boolean canFly = plot.getFlag("fly", false);
+        boolean canFly = plot.getFlag(PlotFlag.FLY, false);
         double flyCost = plugin.cfg().getFlightCost();
         String costString = (flyCost > 0 && !plugin.isAdmin(player)) ? plugin.eco().format(flyCost, CurrencyType.VAULT) : "Free";
 
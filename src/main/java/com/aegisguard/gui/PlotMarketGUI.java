@@ -15,7 +15,6 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.SkullMeta;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -51,13 +50,9 @@ public class PlotMarketGUI {
      * OPEN GUI
      * ----------------------------- */
     public void open(Player player, int page) {
-        // 1. Gather all plots (Sale + Rent)
-        List<Plot> allPlots = new ArrayList<>();
-        allPlots.addAll(plugin.store().getPlotsForSale());
-        // allPlots.addAll(plugin.store().getPlotsForRent()); // Uncomment when rent logic fully implemented
-
-        // 2. Sort (Cheapest First)
-        allPlots.sort(Comparator.comparingDouble(Plot::getSalePrice));
+        // 1. Listings (already sorted cheapest first by the store's live index)
+        List<Plot> allPlots = plugin.store().getPlotsForSale();
+        // Rent: plugin.store().getPlotsForRent() once rent logic is fully implemented
 
         int maxPages = (int) Math.ceil((double) allPlots.size() / PLOTS_PER_PAGE);
         if (page < 0) page = 0;
@@ -68,11 +63,11 @@ public class PlotMarketGUI {
 
         Inventory inv = Bukkit.createInventory(new PlotMarketHolder(allPlots, page), 54, title);
 
-        // 3. Fill Background
+        // 2. Fill Background
         ItemStack filler = GUIManager.getFiller();
         for (int i = 45; i < 54; i++) inv.setItem(i, filler);
 
-        // 4. Populate Listings
+        // 3. Populate Listings
         int startIndex = page * PLOTS_PER_PAGE;
         for (int i = 0; i < PLOTS_PER_PAGE; i++) {
             int plotIndex = startIndex + i;
@@ -111,7 +106,7 @@ public class PlotMarketGUI {
             inv.setItem(i, head);
         }
 
-        // 5. Navigation Buttons
+        // 4. Navigation Buttons
         if (page > 0) {
             inv.setItem(45, GUIManager.createItem(Material.ARROW, plugin.msg().get(player, "button_prev_page"), null));
         }
@@ -3,6 +3,7 @@ package com.aegisguard.gui;
 import com.aegisguard.AegisGuard;
 import com.aegisguard.data.Plot;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
@@ -310,9 +311,13 @@ public class RolesGUI {
         }
 
         if (e.getSlot() == 22) { // Remove
-            plugin.store().removePlayerRole(plot, target.getUniqueId());
-            plugin.msg().send(player, "role_removed", Map.of("PLAYER", target.getName()));
-            plugin.effects().playUnclaim(player);
+            // Menu refreshes at once; the message confirms the change is stored
+            plugin.store().removePlayerRoleAsync(plot, target.getUniqueId()).whenComplete((v, err) ->
+                    plugin.runMain(player, () -> {
+                        if (err != null) { saveFailed(player); return; }
+                        plugin.msg().send(player, "role_removed", Map.of("PLAYER", target.getName()));
+                        plugin.effects().playUnclaim(player);
+                    }));
             openRolesMenu(player, plot);
             return;
         }
@@ -320,10 +325,19 @@ public class RolesGUI {
         List<String> roles = plugin.cfg().getRoleNames();
         if (e.getSlot() >= 0 && e.getSlot() < roles.size()) {
             String newRole = roles.get(e.getSlot());
-            plugin.store().addPlayerRole(plot, target.getUniqueId(), newRole);
-            plugin.msg().send(player, "role_set_to", Map.of("PLAYER", target.getName(), "ROLE", newRole));
-            plugin.effects().playConfirm(player);
+            plugin.store().addPlayerRoleAsync(plot, target.getUniqueId(), newRole).whenComplete((v, err) ->
+                    plugin.runMain(player, () -> {
+                        if (err != null) { saveFailed(player); return; }
+                        plugin.msg().send(player, "role_set_to", Map.of("PLAYER", target.getName(), "ROLE", newRole));
+                        plugin.effects().playConfirm(player);
+                    }));
             openRolesMenu(player, plot);
         }
     }
+
+    private void saveFailed(Player player) {
+        if (!player.isOnline()) return;
+        player.sendMessage(ChatColor.RED + "❌ The change could not be saved yet; it will be retried (see console).");
+        plugin.effects().playError(player);
+    }
 }
@@ -40,7 +40,7 @@ public class SidebarManager {
             plugin.msg().send(player, "sidebar_enabled"); // Add to messages.yml
             
             // If standing in a plot, show it immediately
-            Plot plot = plugin.store().getPlotAt(player.getLocation());
+            Plot plot = plugin.regions().locate(player, player.getLocation());
             if (plot != null) showSidebar(player, plot);
         } else {
             hiddenPlayers.add(player.getUniqueId());
@@ -50,30 +50,30 @@ public class VisitGUI {
     }
 
     public void open(Player player, int page, boolean showWarps) {
-        List<Plot> displayPlots = new ArrayList<>();
-        
+        List<Plot> displayPlots;
+
         // --- FILTER LOGIC ---
-        for (Plot plot : plugin.store().getAllPlots()) {
-            if (showWarps) {
-                if (plot.isServerWarp()) {
-                    displayPlots.add(plot);
-                }
-            } else {
+        if (showWarps) {
+            // Live index, already sorted by warp name
+            displayPlots = plugin.store().getServerWarps();
+        } else {
+            displayPlots = new ArrayList<>();
+            for (Plot plot : plugin.store().getAllPlots()) {
                 // Trusted Plots (Member/Co-Owner but NOT Owner)
                 if (plot.getPlayerRoles().containsKey(player.getUniqueId()) && !plot.getOwner().equals(player.getUniqueId())) {
                     displayPlots.add(plot);
                 }
             }
-        }
 
-        // Sort Alphabetically
-        displayPlots.sort((p1, p2) -> {
-            String n1 = showWarps ? p1.getWarpName() : p1.getOwnerName();
-            String n2 = showWarps ? p2.getWarpName() : p2.getOwnerName();
-            if (n1 == null) n1 = "Unknown";
-            if (n2 == null) n2 = "Unknown";
-            return n1.compareToIgnoreCase(n2);
-        });
+            // Sort Alphabetically
+            displayPlots.sort((p1, p2) -> {
+                String n1 = p1.getOwnerName();
+                String n2 = p2.getOwnerName();
+                if (n1 == null) n1 = "Unknown";
+                if (n2 == null) n2 = "Unknown";
+                return n1.compareToIgnoreCase(n2);
+            });
+        }
 
         // Pagination
         int maxPages = (int) Math.ceil((double) displayPlots.size() / PLOTS_PER_PAGE);
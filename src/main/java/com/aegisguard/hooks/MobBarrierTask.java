@@ -2,6 +2,7 @@ package com.aegisguard.hooks;
 
 import com.aegisguard.AegisGuard;
 import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Particle;
@@ -14,6 +15,12 @@ import org.bukkit.entity.Slime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * MobBarrierTask (Hostile Mob Sweep) - v1.2.3
+ * - Periodically removes hostile mobs from server zones, safe zones and plots with 'mobs' off.
+ * - Candidates are re-filtered every run: they depend on flags, which the plot generation
+ *   does not track, so a generation check could miss a plot that just turned mobs off.
+ */
 public class MobBarrierTask implements Runnable {
 
     private final AegisGuard plugin;
@@ -32,7 +39,7 @@ public class MobBarrierTask implements Runnable {
         for (Plot plot : plugin.store().getAllPlots()) {
             boolean isServer = plot.isServerZone();
             boolean isSafeZone = plugin.protection().isSafeZoneEnabled(plot); 
-            boolean noMobs = !plot.getFlag("mobs", true);
+            boolean noMobs = !plot.getFlag(PlotFlag.MOBS, true);
 
             if (!isServer && !isSafeZone && !noMobs) {
                 continue; 
@@ -0,0 +1,287 @@
+package com.aegisguard.hooks;
+
+import com.aegisguard.AegisGuard;
+import com.aegisguard.data.Plot;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * WildernessRevertEngine (Tick-Budgeted Restorer) - v1.2.3
+ * - Applies one page of expired wilderness log entries, grouped by chunk.
+ * - Work runs on the thread owning each chunk (region thread on Folia, main thread otherwise)
+ *   and yields to the next tick once the per-tick budget is spent, so backlog size never
+ *   turns into a tick spike. Only one step is ever in flight.
+ * - Unloaded chunks are loaded asynchronously first; chunks near online players, or that could
+ *   not be loaded on the first try, are skipped (their rows stay in the log for a later cycle).
+ * - A block is only restored if it still holds what the log says it was changed to and it is
+ *   not inside a plot claimed since; otherwise its rows are dropped and the block left alone.
+ * - Reverted row ids are handed back in batches for deletion off-thread.
+ */
+public class WildernessRevertEngine {
+
+    /**
+     * @param oldMaterial what the block was before the edit (restored).
+     * @param newMaterial what the edit left there (must still be there to restore).
+     */
+    public record Block(long id, String world, int x, int y, int z, String oldMaterial, String newMaterial) {}
+
+    private record ChunkKey(String world, int cx, int cz) {}
+    private record BlockPos(int x, int y, int z) {}
+
+    private static final Plot[] NO_PLOTS = new Plot[0];
+
+    private static final class ChunkBatch {
+        final String world;
+        final int cx, cz;
+        final List<Block> blocks = new ArrayList<>();   // One per position: earliest old, latest new material
+        final List<Long> ids = new ArrayList<>();       // Every log row covered by this chunk
+        final Map<BlockPos, Integer> seen = new HashMap<>();
+        Plot[] claims = NO_PLOTS;                        // Plots overlapping the chunk, read when it starts
+        int cursor;
+        int loadAttempts;
+
+        ChunkBatch(String world, int cx, int cz) {
+            this.world = world;
+            this.cx = cx;
+            this.cz = cz;
+        }
+    }
+
+    private final AegisGuard plugin;
+    private final long budgetNanos;
+    private final int safeRadiusChunks;
+    private final int deleteBatchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ConcurrentLinkedDeque<ChunkBatch> queue = new ConcurrentLinkedDeque<>();
+    private final Map<String, Material> materials = new HashMap<>();
+
+    // --- Per-cycle state (only touched by the single in-flight step) ---
+    private Consumer<List<Long>> deleteRows;
+    private List<Long> pendingDeletes = new ArrayList<>();
+    private long startedAt;
+    private int blocksReverted, blocksKept, chunksReverted, chunksSkipped, steps;
+
+    public WildernessRevertEngine(AegisGuard plugin) {
+        this.plugin = plugin;
+        double budgetMs = plugin.cfg().raw().getDouble("wilderness_revert.tick_budget_ms", 2.0);
+        this.budgetNanos = (long) (Math.max(0.1, budgetMs) * 1_000_000L);
+        this.safeRadiusChunks = Math.max(0, plugin.cfg().raw().getInt("wilderness_revert.player_safe_radius_chunks", 4));
+        this.deleteBatchSize = Math.max(1, plugin.cfg().raw().getInt("wilderness_revert.revert_batch_size", 500));
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Starts reverting a page of log entries (id-ordered).
+     * @param deleteRows called off-thread with ids whose blocks were restored.
+     * @return false if a previous cycle is still running.
+     */
+    public boolean submit(List<Block> page, Consumer<List<Long>> deleteRows) {
+        if (page.isEmpty() || !running.compareAndSet(false, true)) return false;
+
+        Map<ChunkKey, ChunkBatch> chunks = new LinkedHashMap<>();
+        for (Block b : page) {
+            ChunkKey key = new ChunkKey(b.world(), b.x() >> 4, b.z() >> 4);
+            ChunkBatch batch = chunks.computeIfAbsent(key, k -> new ChunkBatch(k.world(), k.cx(), k.cz()));
+            batch.ids.add(b.id());
+            // Page is id-ordered: the first entry for a block holds its original material,
+            // the last one what should be there now
+            Integer at = batch.seen.putIfAbsent(new BlockPos(b.x(), b.y(), b.z()), batch.blocks.size());
+            if (at == null) {
+                batch.blocks.add(b);
+            } else {
+                Block first = batch.blocks.get(at);
+                batch.blocks.set(at, new Block(first.id(), first.world(), first.x(), first.y(), first.z(),
+                        first.oldMaterial(), b.newMaterial()));
+            }
+        }
+
+        this.deleteRows = deleteRows;
+        this.pendingDeletes = new ArrayList<>();
+        this.startedAt = System.currentTimeMillis();
+        this.blocksReverted = 0;
+        this.blocksKept = 0;
+        this.chunksReverted = 0;
+        this.chunksSkipped = 0;
+        this.steps = 0;
+
+        queue.clear();
+        for (ChunkBatch batch : chunks.values()) {
+            batch.seen.clear();
+            queue.add(batch);
+        }
+        scheduleNext();
+        return true;
+    }
+
+    // ----------------------------------------
+    // --- SCHEDULING ---
+    // ----------------------------------------
+
+    private void scheduleNext() {
+        while (true) {
+            ChunkBatch next = queue.peek();
+            if (next == null) {
+                finish();
+                return;
+            }
+
+            World world = Bukkit.getWorld(next.world);
+            if (world == null) {
+                plugin.runMainGlobal(this::step); // step() drops batches of unloaded worlds
+                return;
+            }
+
+            if (!world.isChunkLoaded(next.cx, next.cz)) {
+                if (next.loadAttempts++ > 0) {
+                    // Load failed, or it unloaded again before step() ran: keep its rows for a later cycle
+                    queue.poll();
+                    chunksSkipped++;
+                    continue;
+                }
+                world.getChunkAtAsync(next.cx, next.cz).whenComplete((chunk, error) -> {
+                    if (error != null) plugin.getLogger().fine("Wilderness revert could not load chunk " + next.cx + "," + next.cz + ": " + error);
+                    plugin.runAtChunk(world, next.cx, next.cz, this::step);
+                });
+                return;
+            }
+            plugin.runAtChunk(world, next.cx, next.cz, this::step);
+            return;
+        }
+    }
+
+    // ----------------------------------------
+    // --- WORK (owning thread, budgeted) ---
+    // ----------------------------------------
+
+    private void step() {
+        steps++;
+        long deadline = System.nanoTime() + budgetNanos;
+
+        try {
+            while (true) {
+                ChunkBatch batch = queue.peek();
+                if (batch == null) break;
+
+                World world = Bukkit.getWorld(batch.world);
+                if (world == null) {
+                    // World is gone: nothing left to restore, drop its rows
+                    queue.poll();
+                    queueDelete(batch.ids);
+                    continue;
+                }
+
+                if (!world.isChunkLoaded(batch.cx, batch.cz)) break; // scheduleNext() loads it async
+
+                if (batch.cursor == 0) {
+                    if (isNearPlayer(world, batch.cx, batch.cz)) {
+                        queue.poll();
+                        chunksSkipped++;
+                        if (plugin.isFolia()) break; // Next chunk may belong to another region
+                        continue;
+                    }
+                    int x1 = batch.cx << 4, z1 = batch.cz << 4;
+                    batch.claims = plugin.store().getPlotsInArea(batch.world, x1, z1, x1 + 15, z1 + 15).toArray(NO_PLOTS);
+                }
+
+                while (batch.cursor < batch.blocks.size()) {
+                    if (System.nanoTime() >= deadline) {
+                        // Budget spent mid-chunk: continue here next tick
+                        plugin.runAtChunk(world, batch.cx, batch.cz, this::step);
+                        return;
+                    }
+                    revertBlock(world, batch, batch.blocks.get(batch.cursor++));
+                }
+
+                queue.poll();
+                chunksReverted++;
+                queueDelete(batch.ids);
+
+                if (plugin.isFolia() || System.nanoTime() >= deadline) break;
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Wilderness revert step failed: " + e.getMessage());
+            queue.poll();
+        }
+        scheduleNext();
+    }
+
+    private void revertBlock(World world, ChunkBatch batch, Block b) {
+        Material mat = material(b.oldMaterial());
+        if (mat == null || !mat.isBlock()) return;
+
+        // Claimed since the edit: the area is the owner's now
+        for (Plot plot : batch.claims) {
+            if (b.x() >= plot.getX1() && b.x() <= plot.getX2() && b.z() >= plot.getZ1() && b.z() <= plot.getZ2()) {
+                blocksKept++;
+                return;
+            }
+        }
+
+        org.bukkit.block.Block block = world.getBlockAt(b.x(), b.y(), b.z());
+        Material current = block.getType();
+        if (current == mat) return;
+        if (current != material(b.newMaterial())) {
+            blocksKept++; // Changed again since it was logged (e.g. built over); leave it
+            return;
+        }
+        block.setType(mat, false); // No physics: avoids cascades into neighbouring chunks
+        blocksReverted++;
+    }
+
+    private Material material(String name) {
+        return name != null ? materials.computeIfAbsent(name, Material::matchMaterial) : null;
+    }
+
+    private boolean isNearPlayer(World world, int cx, int cz) {
+        for (Player p : world.getPlayers()) {
+            Location loc = p.getLocation();
+            if (Math.abs((loc.getBlockX() >> 4) - cx) <= safeRadiusChunks
+                    && Math.abs((loc.getBlockZ() >> 4) - cz) <= safeRadiusChunks) return true;
+        }
+        return false;
+    }
+
+    // ----------------------------------------
+    // --- BOOKKEEPING ---
+    // ----------------------------------------
+
+    private void queueDelete(List<Long> ids) {
+        pendingDeletes.addAll(ids);
+        if (pendingDeletes.size() >= deleteBatchSize) flushDeletes();
+    }
+
+    private void flushDeletes() {
+        if (pendingDeletes.isEmpty()) return;
+        List<Long> batch = pendingDeletes;
+        pendingDeletes = new ArrayList<>();
+        Consumer<List<Long>> sink = deleteRows;
+        plugin.runGlobalAsync(() -> sink.accept(batch));
+    }
+
+    private void finish() {
+        flushDeletes();
+        long took = System.currentTimeMillis() - startedAt;
+        plugin.getLogger().info("Wilderness revert: restored " + blocksReverted + " blocks in " + chunksReverted
+                + " chunks, left " + blocksKept + " claimed or changed blocks, skipped " + chunksSkipped
+                + " chunks near players or not loadable ("
+                + steps + " ticks, " + TimeUnit.MILLISECONDS.toSeconds(took) + "s).");
+        running.set(false);
+    }
+}
@@ -1,27 +1,24 @@
 package com.aegisguard.listeners;
 
 import com.aegisguard.AegisGuard;
+import com.aegisguard.api.events.PlotEnterEvent;
+import com.aegisguard.api.events.PlotLeaveEvent;
 import com.aegisguard.api.events.PlotLevelUpEvent;
 import com.aegisguard.data.Plot;
 import org.bukkit.GameMode;
-import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
-import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
 
 public class LevelingListener implements Listener {
 
     private final AegisGuard plugin;
-    private final HashMap<UUID, Plot> activePlotCache = new HashMap<>();
 
     public LevelingListener(AegisGuard plugin) {
         this.plugin = plugin;
@@ -60,42 +57,21 @@ public class LevelingListener implements Listener {
         }
     }
 
-    @EventHandler
-    public void onMove(PlayerMoveEvent e) {
-        if (e.getFrom().getBlockX() == e.getTo().getBlockX() &&
-            e.getFrom().getBlockY() == e.getTo().getBlockY() &&
-            e.getFrom().getBlockZ() == e.getTo().getBlockZ()) return;
-        handleMovement(e.getPlayer(), e.getTo());
+    // Transitions come from the shared PlayerRegionTracker via ProtectionManager,
+    // so this listener never does its own plot lookups on movement.
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlotEnter(PlotEnterEvent e) {
+        if (isAllowed(e.getPlayer(), e.getPlot())) applyBuffs(e.getPlayer(), e.getPlot());
     }
 
-    @EventHandler
-    public void onTeleport(PlayerTeleportEvent e) {
-        handleMovement(e.getPlayer(), e.getTo());
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlotLeave(PlotLeaveEvent e) {
+        removeBuffs(e.getPlayer());
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent e) {
         removeBuffs(e.getPlayer());
-        activePlotCache.remove(e.getPlayer().getUniqueId());
-    }
-
-    private void handleMovement(Player player, Location to) {
-        Plot currentPlot = plugin.store().getPlotAt(to); 
-        Plot cachedPlot = activePlotCache.get(player.getUniqueId());
-
-        if (currentPlot != null && cachedPlot == null) {
-            activePlotCache.put(player.getUniqueId(), currentPlot);
-            if (isAllowed(player, currentPlot)) applyBuffs(player, currentPlot);
-        }
-        else if (currentPlot == null && cachedPlot != null) {
-            removeBuffs(player);
-            activePlotCache.remove(player.getUniqueId());
-        }
-        else if (currentPlot != null && cachedPlot != null && !currentPlot.equals(cachedPlot)) {
-            removeBuffs(player);
-            activePlotCache.put(player.getUniqueId(), currentPlot);
-            if (isAllowed(player, currentPlot)) applyBuffs(player, currentPlot);
-        }
     }
 
     private boolean isAllowed(Player player, Plot plot) {
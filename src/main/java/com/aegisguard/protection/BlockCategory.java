@@ -0,0 +1,96 @@
+package com.aegisguard.protection;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * BlockCategory (Interact Classes) - v1.2.3
+ * - Block groups used by interact protection, listed under protections.block_categories.
+ * - Compiled once per config load into one byte per Material (see AGConfig), so an
+ *   interact check is a single array read plus a bit test, with no name matching.
+ * - Entries are material names or '*' patterns ("*_SHULKER_BOX", "*SIGN*");
+ *   unknown names are reported once at load and skipped.
+ */
+public enum BlockCategory {
+    CONTAINERS("containers", "CHEST", "TRAPPED_CHEST", "BARREL", "SHULKER_BOX", "*_SHULKER_BOX",
+            "FURNACE", "BLAST_FURNACE", "SMOKER", "BREWING_STAND", "HOPPER", "DISPENSER", "DROPPER",
+            "CHISELED_BOOKSHELF", "DECORATED_POT"),
+    DOORS("doors", "*DOOR*", "*_FENCE_GATE"),
+    REDSTONE("redstone", "*BUTTON*", "LEVER", "REPEATER", "COMPARATOR", "DAYLIGHT_DETECTOR", "NOTE_BLOCK"),
+    SIGNS("signs", "*SIGN*"),
+    WORKSTATIONS("workstations", "CRAFTING_TABLE", "ENCHANTING_TABLE", "ANVIL", "CHIPPED_ANVIL", "DAMAGED_ANVIL",
+            "GRINDSTONE", "STONECUTTER", "LOOM", "CARTOGRAPHY_TABLE", "SMITHING_TABLE", "LECTERN", "BEACON");
+
+    /**
+     * Categories guarded by the 'interact' flag and role permission.
+     */
+    public static final int INTERACTABLE = DOORS.bit | REDSTONE.bit | WORKSTATIONS.bit;
+
+    private final String key;
+    private final List<String> defaults;
+    private final int bit = 1 << ordinal();
+
+    BlockCategory(String key, String... defaults) {
+        this.key = key;
+        this.defaults = List.of(defaults);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * True if a compiled category mask includes this category.
+     */
+    public boolean in(int mask) {
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * Builds the per-Material table; a category missing from 'section' uses its defaults.
+     * @return one category bitmask per Material ordinal.
+     */
+    public static byte[] compile(ConfigurationSection section, Logger logger) {
+        Material[] materials = Material.values();
+        byte[] table = new byte[materials.length];
+
+        for (BlockCategory category : values()) {
+            List<String> entries = section != null && section.isList(category.key)
+                    ? section.getStringList(category.key)
+                    : category.defaults;
+
+            for (String raw : entries) {
+                String entry = raw.trim().toUpperCase(Locale.ROOT);
+                int matched = 0;
+                for (Material m : materials) {
+                    if (m.isLegacy() || !matches(m.name(), entry)) continue;
+                    table[m.ordinal()] |= (byte) category.bit;
+                    matched++;
+                }
+                if (matched == 0) logger.warning("protections.block_categories." + category.key + ": no material matches '" + raw + "'.");
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Exact name, or a pattern with '*' wildcards at the start and/or end.
+     */
+    private static boolean matches(String name, String pattern) {
+        boolean head = pattern.startsWith("*");
+        boolean tail = pattern.length() > 1 && pattern.endsWith("*");
+        String core = pattern.substring(head ? 1 : 0, pattern.length() - (tail ? 1 : 0));
+        if (head && tail) return name.contains(core);
+        if (head) return name.endsWith(core);
+        if (tail) return name.startsWith(core);
+        return name.equals(core);
+    }
+}
@@ -0,0 +1,101 @@
+package com.aegisguard.protection;
+
+import com.aegisguard.data.Plot;
+import com.aegisguard.data.RolePermission;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DecisionCache (Permission Memo) - v1.2.3
+ * - Remembers each player's protection verdicts for the plot they last acted in, so a
+ *   vein-mine or bridge reuses one decision instead of re-running lock, server-zone and
+ *   role checks for every block.
+ * - Keyed by plot + protection revision + action. Plot.getProtectionRevision() moves on
+ *   role, ban, owner, flag, status, rent and zone changes only, so XP, likes, upkeep and
+ *   cosmetic edits keep the entries. A one-second lifetime covers what the revision cannot
+ *   see (rent running out, config reload, admin status).
+ * - Callers read the revision before computing a verdict and pass it to put(), so a change
+ *   landing mid-computation is never stored under the new revision.
+ * - Hit/miss counters are shown by /agadmin stats.
+ */
+public final class DecisionCache {
+
+    public enum Verdict { ALLOW, DENY, LOCKED }
+
+    private static final long TTL_MS = 1000;
+    private static final Verdict[] VERDICTS = Verdict.values();
+
+    private static final class Entry {
+        final Plot plot;
+        final long revision;
+        final long expires;
+        final byte[] verdicts = new byte[RolePermission.values().length]; // Verdict ordinal + 1, 0 = unknown
+
+        Entry(Plot plot, long revision, long expires) {
+            this.plot = plot;
+            this.revision = revision;
+            this.expires = expires;
+        }
+    }
+
+    private final Map<UUID, Entry> byPlayer = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @return the cached verdict, or null if it has to be computed.
+     */
+    public Verdict get(UUID player, Plot plot, RolePermission action) {
+        Entry e = byPlayer.get(player);
+        if (e != null && e.plot == plot && e.revision == plot.getProtectionRevision() && System.currentTimeMillis() < e.expires) {
+            byte v = e.verdicts[action.ordinal()];
+            if (v != 0) {
+                hits.increment();
+                return VERDICTS[v - 1];
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Records a verdict, unless the plot changed since 'revision' was read.
+     * @param revision plot.getProtectionRevision(), read before the verdict was computed.
+     */
+    public void put(UUID player, Plot plot, RolePermission action, Verdict verdict, long revision) {
+        if (plot.getProtectionRevision() != revision) return;
+        Entry e = byPlayer.get(player);
+        long now = System.currentTimeMillis();
+        if (e == null || e.plot != plot || e.revision != revision || now >= e.expires) {
+            e = new Entry(plot, revision, now + TTL_MS);
+            byPlayer.put(player, e);
+        }
+        e.verdicts[action.ordinal()] = (byte) (verdict.ordinal() + 1);
+    }
+
+    public void forget(UUID player) {
+        byPlayer.remove(player);
+    }
+
+    public void clear() {
+        byPlayer.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        long h = hits.sum(), m = misses.sum();
+        long total = h + m;
+        return "hits=" + h + ", misses=" + m + ", hit rate=" + (total == 0 ? 0 : h * 100 / total) + "%, players=" + byPlayer.size();
+    }
+}
@@ -0,0 +1,235 @@
+package com.aegisguard.protection;
+
+import com.aegisguard.AegisGuard;
+import com.aegisguard.data.ChunkPlotMap;
+import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.Directional;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PhysicsProtection (Border Guard) - v1.2.3
+ * - Stops pistons, liquid flow, dragon eggs, dispensers and hoppers from reaching into
+ *   a plot from outside it (wilderness or another plot).
+ * - Fire: spread, burn and lava ignition inside a plot follow its 'fire-spread' flag;
+ *   fire never spreads into a plot from outside.
+ * - Pistons outside a plot may move its blocks only if the plot allows 'piston-use'.
+ * - These events fire thousands of times per tick, so lookups go through a chunk memo:
+ *   each chunk maps to the few plots overlapping it (usually none or one), cached for one
+ *   tick-length window and dropped whenever plots are added, removed or resized. The memo
+ *   is per thread, which keeps it lock-free on Folia's region threads.
+ */
+public class PhysicsProtection implements Listener {
+
+    private static final Plot[] NONE = new Plot[0];
+    private static final long WINDOW_MS = 50; // One tick
+    private static final int MAX_CHUNKS = 4096;
+
+    private final AegisGuard plugin;
+    private final ThreadLocal<Memo> memo = ThreadLocal.withInitial(Memo::new);
+
+    private static final class Memo {
+        long window = -1;
+        long generation = -1;
+        int chunks;
+        final Map<String, ChunkPlotMap> worlds = new HashMap<>();
+        String lastWorld; // Consecutive events are nearly always in the same world
+        ChunkPlotMap lastChunks;
+    }
+
+    public PhysicsProtection(AegisGuard plugin) {
+        this.plugin = plugin;
+    }
+
+    // ----------------------------------------
+    // --- PISTONS ---
+    // ----------------------------------------
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent e) {
+        if (pistonCrosses(e.getBlock(), e.getBlocks(), e.getDirection(), true)) e.setCancelled(true);
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent e) {
+        if (pistonCrosses(e.getBlock(), e.getBlocks(), e.getDirection(), false)) e.setCancelled(true);
+    }
+
+    /**
+     * True if the head or any moved block starts or ends in a plot other than the
+     * piston's own (that plot does not allow outside pistons).
+     * @param direction the direction blocks move in (both events report it that way).
+     */
+    private boolean pistonCrosses(Block piston, List<Block> moved, BlockFace direction, boolean extending) {
+        String world = piston.getWorld().getName();
+        int px = piston.getX(), pz = piston.getZ();
+        int dx = direction.getModX(), dz = direction.getModZ();
+
+        Plot home = plotAt(world, px, pz);
+        if (extending && foreignTo(home, plotAt(world, px + dx, pz + dz))) return true;
+
+        for (Block b : moved) {
+            int x = b.getX(), z = b.getZ();
+            if (foreignTo(home, plotAt(world, x, z)) || foreignTo(home, plotAt(world, x + dx, z + dz))) return true;
+        }
+        return false;
+    }
+
+    private static boolean foreignTo(Plot home, Plot other) {
+        return other != null && other != home && !other.getFlag(PlotFlag.PISTON_USE, false);
+    }
+
+    // ----------------------------------------
+    // --- LIQUIDS / DRAGON EGG ---
+    // ----------------------------------------
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onFlow(BlockFromToEvent e) {
+        Block from = e.getBlock();
+        Block to = e.getToBlock();
+        if (crosses(from.getWorld().getName(), from.getX(), from.getZ(), to.getX(), to.getZ())) e.setCancelled(true);
+    }
+
+    // ----------------------------------------
+    // --- FIRE ---
+    // ----------------------------------------
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onFireSpread(BlockSpreadEvent e) {
+        if (e.getNewState().getType() != Material.FIRE && e.getNewState().getType() != Material.SOUL_FIRE) return;
+        Block source = e.getSource();
+        Block target = e.getBlock();
+        String world = target.getWorld().getName();
+
+        Plot plot = plotAt(world, target.getX(), target.getZ());
+        if (plot == null) return;
+        if (!plot.getFlag(PlotFlag.FIRE_SPREAD, false) || plotAt(world, source.getX(), source.getZ()) != plot) {
+            e.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBurn(BlockBurnEvent e) {
+        Block block = e.getBlock();
+        Plot plot = plotAt(block.getWorld().getName(), block.getX(), block.getZ());
+        if (plot != null && !plot.getFlag(PlotFlag.FIRE_SPREAD, false)) e.setCancelled(true);
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onIgnite(BlockIgniteEvent e) {
+        // Player and lightning ignition are handled by build rules / left to the server
+        if (e.getCause() != BlockIgniteEvent.IgniteCause.SPREAD && e.getCause() != BlockIgniteEvent.IgniteCause.LAVA) return;
+
+        Block block = e.getBlock();
+        String world = block.getWorld().getName();
+        Plot plot = plotAt(world, block.getX(), block.getZ());
+        if (plot == null) return;
+
+        Block source = e.getIgnitingBlock();
+        if (!plot.getFlag(PlotFlag.FIRE_SPREAD, false)
+                || (source != null && plotAt(world, source.getX(), source.getZ()) != plot)) {
+            e.setCancelled(true);
+        }
+    }
+
+    // ----------------------------------------
+    // --- DISPENSERS / HOPPERS ---
+    // ----------------------------------------
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onDispense(BlockDispenseEvent e) {
+        Block block = e.getBlock();
+        if (!(block.getBlockData() instanceof Directional dir)) return;
+        BlockFace face = dir.getFacing();
+        if (crosses(block.getWorld().getName(), block.getX(), block.getZ(), block.getX() + face.getModX(), block.getZ() + face.getModZ())) {
+            e.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onHopperMove(InventoryMoveItemEvent e) {
+        // Pulling items out of a plot's container from outside it
+        Location src = e.getSource().getLocation();
+        Location dst = e.getDestination().getLocation();
+        if (src == null || dst == null) return;
+        World w = src.getWorld();
+        if (w == null || w != dst.getWorld()) return;
+        if (crosses(w.getName(), dst.getBlockX(), dst.getBlockZ(), src.getBlockX(), src.getBlockZ())) e.setCancelled(true);
+    }
+
+    // ----------------------------------------
+    // --- LOOKUPS (chunk memo) ---
+    // ----------------------------------------
+
+    /**
+     * True if (tx, tz) is inside a plot that (fx, fz) is not inside.
+     */
+    private boolean crosses(String world, int fx, int fz, int tx, int tz) {
+        Plot[] target = chunkPlots(world, tx >> 4, tz >> 4);
+        if (target.length == 0) return false; // Destination is wilderness
+
+        Plot to = find(target, tx, tz);
+        return to != null && !(fx >= to.getX1() && fx <= to.getX2() && fz >= to.getZ1() && fz <= to.getZ2());
+    }
+
+    private Plot plotAt(String world, int x, int z) {
+        return find(chunkPlots(world, x >> 4, z >> 4), x, z);
+    }
+
+    private static Plot find(Plot[] candidates, int x, int z) {
+        for (Plot p : candidates) {
+            if (x >= p.getX1() && x <= p.getX2() && z >= p.getZ1() && z <= p.getZ2()) return p;
+        }
+        return null;
+    }
+
+    /**
+     * Plots overlapping a chunk (plots do not overlap each other, so at most one contains any block).
+     */
+    private Plot[] chunkPlots(String world, int chunkX, int chunkZ) {
+        Memo m = memo.get();
+        long window = System.currentTimeMillis() / WINDOW_MS;
+        long generation = plugin.store().getPlotsGeneration();
+        if (m.window != window || m.generation != generation || m.chunks >= MAX_CHUNKS) {
+            for (ChunkPlotMap chunks : m.worlds.values()) chunks.clear();
+            m.chunks = 0;
+            m.window = window;
+            m.generation = generation;
+        }
+
+        ChunkPlotMap chunks = m.lastChunks;
+        if (!world.equals(m.lastWorld)) {
+            chunks = m.worlds.computeIfAbsent(world, k -> new ChunkPlotMap());
+            m.lastWorld = world;
+            m.lastChunks = chunks;
+        }
+        long key = ChunkPlotMap.key(chunkX, chunkZ);
+        Plot[] plots = chunks.cached(key);
+        if (plots == null) {
+            int x1 = chunkX << 4, z1 = chunkZ << 4;
+            plots = plugin.store().getPlotsInArea(world, x1, z1, x1 + 15, z1 + 15).toArray(NONE);
+            chunks.put(key, plots);
+            m.chunks++;
+        }
+        return plots;
+    }
+}
@@ -0,0 +1,126 @@
+package com.aegisguard.protection;
+
+import com.aegisguard.AegisGuard;
+import com.aegisguard.data.Plot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlayerRegionTracker (Movement Cache) - v1.2.3
+ * - Remembers, per player, the plot they stand in and a rectangle around them:
+ *   the plot's bounds, or in the wilderness the chunk together with the plots
+ *   touching it, so walking along a claim border tests a few bounds instead of
+ *   querying the index on every block.
+ * - locate() only hits the spatial index once the player leaves that rectangle,
+ *   changes world, or the store's plot generation moved (claim/unclaim/resize).
+ * - Also holds the committed "current plot" used for enter/leave transitions,
+ *   which ProtectionManager publishes once (PlotEnterEvent / PlotLeaveEvent)
+ *   for every other consumer (sidebar, buffs, visualizer).
+ */
+public class PlayerRegionTracker implements Listener {
+
+    private final AegisGuard plugin;
+
+    private static final Plot[] NONE = new Plot[0];
+
+    // Cached lookup area; inside it the answer is 'plot', unless one of 'candidates' contains the block
+    private record Region(String world, int minX, int minZ, int maxX, int maxZ, Plot plot, Plot[] candidates, long generation) {
+        boolean contains(String w, int x, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ && world.equals(w);
+        }
+    }
+
+    // Wrapper so a committed wilderness state (null plot) can live in a ConcurrentHashMap
+    private record Current(Plot plot) {}
+
+    private final Map<UUID, Region> regions = new ConcurrentHashMap<>();
+    private final Map<UUID, Current> current = new ConcurrentHashMap<>();
+
+    public PlayerRegionTracker(AegisGuard plugin) {
+        this.plugin = plugin;
+    }
+
+    // ----------------------------------------
+    // --- LOOKUP ---
+    // ----------------------------------------
+
+    /**
+     * Plot at 'loc' for this player, served from the cached region when possible.
+     */
+    public Plot locate(Player player, Location loc) {
+        if (loc == null) return null;
+        World w = loc.getWorld();
+        if (w == null) return null;
+
+        String world = w.getName();
+        int x = loc.getBlockX();
+        int z = loc.getBlockZ();
+        long generation = plugin.store().getPlotsGeneration();
+
+        Region cached = regions.get(player.getUniqueId());
+        if (cached != null && cached.generation() == generation && cached.contains(world, x, z)) {
+            for (Plot p : cached.candidates()) {
+                if (x >= p.getX1() && x <= p.getX2() && z >= p.getZ1() && z <= p.getZ2()) return p;
+            }
+            return cached.plot();
+        }
+
+        Plot plot = plugin.store().getPlotAt(loc);
+        regions.put(player.getUniqueId(), regionFor(world, x, z, plot, generation));
+        return plot;
+    }
+
+    private Region regionFor(String world, int x, int z, Plot plot, long generation) {
+        if (plot != null) {
+            return new Region(world, plot.getX1(), plot.getZ1(), plot.getX2(), plot.getZ2(), plot, NONE, generation);
+        }
+
+        // Wilderness: the chunk, with the plots touching it checked on each lookup
+        int minX = x & ~15, minZ = z & ~15;
+        int maxX = minX + 15, maxZ = minZ + 15;
+        Plot[] candidates = plugin.store().getPlotsInArea(world, minX, minZ, maxX, maxZ).toArray(NONE);
+        return new Region(world, minX, minZ, maxX, maxZ, null, candidates, generation);
+    }
+
+    // ----------------------------------------
+    // --- TRANSITIONS ---
+    // ----------------------------------------
+
+    /**
+     * Last committed plot for the player, seeding it from 'fallback' on first use.
+     */
+    public Plot getCurrent(Player player, Location fallback) {
+        Current c = current.get(player.getUniqueId());
+        if (c != null) return c.plot();
+
+        Plot plot = locate(player, fallback);
+        current.put(player.getUniqueId(), new Current(plot));
+        return plot;
+    }
+
+    /**
+     * Records the plot the player is now in (after enter/leave were published).
+     */
+    public void commit(Player player, Plot plot) {
+        current.put(player.getUniqueId(), new Current(plot));
+    }
+
+    public void forget(UUID uuid) {
+        regions.remove(uuid);
+        current.remove(uuid);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        forget(e.getPlayer().getUniqueId());
+    }
+}
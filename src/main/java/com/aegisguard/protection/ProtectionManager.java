@@ -3,7 +3,10 @@ package com.aegisguard.protection;
 import com.aegisguard.AegisGuard;
 import com.aegisguard.api.events.PlotEnterEvent;
 import com.aegisguard.api.events.PlotLeaveEvent;
+import com.aegisguard.data.ChunkPlotMap;
 import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
+import com.aegisguard.data.RolePermission;
 import com.aegisguard.data.Zone;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -22,6 +25,8 @@ import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.projectiles.ProjectileSource;
@@ -40,19 +45,29 @@ public class ProtectionManager implements Listener {
     
     private final Map<UUID, Long> messageCooldowns = new ConcurrentHashMap<>();
     private final Map<UUID, Long> buffCooldowns = new ConcurrentHashMap<>();    
+    private final DecisionCache decisions = new DecisionCache();
 
     public ProtectionManager(AegisGuard plugin) {
         this.plugin = plugin;
         this.wildernessRevertEnabled = plugin.cfg().raw().getBoolean("wilderness_revert.enabled", false);
     }
 
+    public DecisionCache decisions() {
+        return decisions;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        decisions.forget(e.getPlayer().getUniqueId());
+    }
+
     // --- 1. MOB SPAWN PREVENTION ---
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onMobSpawn(CreatureSpawnEvent e) {
         if (e.getEntity() instanceof Monster || e.getEntity() instanceof Slime || e.getEntity() instanceof Phantom) {
             Plot plot = plugin.store().getPlotAt(e.getLocation());
             if (plot != null) {
-                if (plot.isServerZone() || plot.getFlag("safe_zone", false) || !plot.getFlag("mobs", true)) {
+                if (plot.isServerZone() || plot.getFlag(PlotFlag.SAFE_ZONE, false) || !plot.getFlag(PlotFlag.MOBS, true)) {
                     e.setCancelled(true);
                 }
             }
@@ -68,7 +83,7 @@ public class ProtectionManager implements Listener {
         Plot plot = plugin.store().getPlotAt(target.getLocation());
         if (plot != null) {
             // If trusted, mob ignores player
-            if (plot.hasPermission(target.getUniqueId(), "INTERACT", plugin)) {
+            if (plot.hasPermission(target.getUniqueId(), RolePermission.INTERACT, plugin)) {
                 e.setCancelled(true);
             }
         }
@@ -77,15 +92,32 @@ public class ProtectionManager implements Listener {
     // --- 3. MOVEMENT LOGIC (Sidebar & Messages) ---
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent e) {
+        handleMove(e, true);
+    }
+
+    // Teleports skip PlayerMoveEvent handlers, but must publish the same transitions.
+    // Transition-only: pearls, portals, /tpa and warps into banned or entry=false plots
+    // are never cancelled here, and cancelling PlotEnterEvent does not stop them.
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent e) {
+        handleMove(e, false);
+    }
+
+    /**
+     * @param blocking false to publish enter/leave without ever cancelling the movement.
+     */
+    private void handleMove(PlayerMoveEvent e, boolean blocking) {
         // ✅ Safety: handle potential null 'to' location
         if (e.getTo() == null) return;
 
         if (e.getFrom().getBlockX() == e.getTo().getBlockX() &&
-            e.getFrom().getBlockZ() == e.getTo().getBlockZ()) return;
+            e.getFrom().getBlockZ() == e.getTo().getBlockZ() &&
+            e.getFrom().getWorld() == e.getTo().getWorld()) return;
 
         Player p = e.getPlayer();
-        Plot toPlot = plugin.store().getPlotAt(e.getTo());
-        Plot fromPlot = plugin.store().getPlotAt(e.getFrom());
+        // Shared tracker: only re-queries the index when the cached region is left
+        Plot fromPlot = plugin.regions().getCurrent(p, e.getFrom());
+        Plot toPlot = plugin.regions().locate(p, e.getTo());
 
         // A. Leaving Logic
         if (fromPlot != null && !fromPlot.equals(toPlot)) {
@@ -99,7 +131,7 @@ public class ProtectionManager implements Listener {
                 sendPlotMessage(p, fromPlot.getFarewellMessage());
             }
 
-            if (fromPlot.getFlag("fly", false)) {
+            if (fromPlot.getFlag(PlotFlag.FLY, false)) {
                 if (!p.hasPermission("aegis.admin.bypass") && 
                     p.getGameMode() != org.bukkit.GameMode.CREATIVE && 
                     p.getGameMode() != org.bukkit.GameMode.SPECTATOR) {
@@ -119,7 +151,7 @@ public class ProtectionManager implements Listener {
             PlotEnterEvent enterEvent = new PlotEnterEvent(toPlot, p);
             Bukkit.getPluginManager().callEvent(enterEvent);
             
-            if (enterEvent.isCancelled()) {
+            if (enterEvent.isCancelled() && blocking) {
                 bouncePlayer(p, e);
                 return;
             }
@@ -135,8 +167,8 @@ public class ProtectionManager implements Listener {
                 plugin.effects().playCustomEffect(p, toPlot.getEntryEffect(), toPlot.getCenter(plugin));
             }
 
-            if (toPlot.getFlag("fly", false)) {
-                if (toPlot.hasPermission(p.getUniqueId(), "INTERACT", plugin)) {
+            if (toPlot.getFlag(PlotFlag.FLY, false)) {
+                if (toPlot.hasPermission(p.getUniqueId(), RolePermission.INTERACT, plugin)) {
                     plugin.runMain(p, () -> {
                         p.setAllowFlight(true);
                         p.sendMessage("§a🕊 Entering flight zone.");
@@ -146,8 +178,9 @@ public class ProtectionManager implements Listener {
         }
 
         // C. Continuous Checks
-        if (toPlot != null) {
+        if (toPlot != null && blocking) {
             if (p.hasPermission("aegis.admin.bypass")) {
+                 plugin.regions().commit(p, toPlot);
                  applyPlotBuffs(p, toPlot);
                  return;
             }
@@ -158,16 +191,19 @@ public class ProtectionManager implements Listener {
                 return;
             }
 
-            boolean entryAllowed = toPlot.getFlag("entry", true);
+            boolean entryAllowed = toPlot.getFlag(PlotFlag.ENTRY, true);
             if (!entryAllowed) {
-                if (!toPlot.hasPermission(p.getUniqueId(), "INTERACT", plugin)) {
+                if (!toPlot.hasPermission(p.getUniqueId(), RolePermission.INTERACT, plugin)) {
                     bouncePlayer(p, e);
                     sendPlotMessage(p, plugin.msg().get(p, "plot_entry_denied"));
                     return;
                 }
             }
-            applyPlotBuffs(p, toPlot);
         }
+
+        // Movement stands: this is now the player's plot for every consumer
+        if (toPlot != fromPlot) plugin.regions().commit(p, toPlot);
+        if (toPlot != null) applyPlotBuffs(p, toPlot);
     }
     
     // --- 4. COMBAT ---
@@ -181,13 +217,13 @@ public class ProtectionManager implements Listener {
         if (damager instanceof Monster || damager instanceof Slime || damager instanceof Phantom || 
            (damager instanceof Projectile proj && proj.getShooter() instanceof Monster)) {
             if (plot != null) {
-                if (plot.isServerZone() || plot.getFlag("safe_zone", false) || !plot.getFlag("mobs", true)) {
+                if (plot.isServerZone() || plot.getFlag(PlotFlag.SAFE_ZONE, false) || !plot.getFlag(PlotFlag.MOBS, true)) {
                     e.setCancelled(true);
                     if (damager instanceof Projectile) damager.remove();    
                     return;
                 }
                 // Trust Check: If trusted, cancel mob damage
-                if (plot.hasPermission(victim.getUniqueId(), "INTERACT", plugin)) {
+                if (plot.hasPermission(victim.getUniqueId(), RolePermission.INTERACT, plugin)) {
                     e.setCancelled(true);
                     if (damager instanceof Projectile) damager.remove();
                     return;
@@ -202,7 +238,7 @@ public class ProtectionManager implements Listener {
 
         if (isPlotLocked(attacker, plot)) { e.setCancelled(true); return; }
 
-        boolean pvpAllowed = plot.getFlag("pvp", false);
+        boolean pvpAllowed = plot.getFlag(PlotFlag.PVP, false);
         if (!pvpAllowed) {    
             e.setCancelled(true);
             attacker.sendMessage(plugin.msg().get("cannot_attack"));
@@ -221,30 +257,14 @@ public class ProtectionManager implements Listener {
             final String oldMat = block.getType().toString();
             final UUID uuid = p.getUniqueId();
             final Location loc = block.getLocation();
-            plugin.runGlobalAsync(() -> plugin.store().logWildernessBlock(loc, oldMat, "AIR", uuid));
+            plugin.store().logWildernessBlock(loc, oldMat, "AIR", uuid); // Buffered, no async hop
             return;
         }
         
         if (plot == null) return;
         if (p.hasPermission("aegis.admin.bypass")) return;
 
-        Zone zone = plot.getZoneAt(block.getLocation());
-        if (zone != null && zone.isRented()) {
-            if (!p.getUniqueId().equals(zone.getRenter()) && !p.getUniqueId().equals(plot.getOwner())) {
-                e.setCancelled(true);
-                p.sendMessage("§cThis zone is rented by " + Bukkit.getOfflinePlayer(zone.getRenter()).getName());
-                return;    
-            }
-        }
-
-        if (isPlotLocked(p, plot)) { e.setCancelled(true); return; }
-
-        if (plot.isServerZone()) {
-            if (!plot.getFlag("build", false)) cancelBuild(e, p);
-            return;
-        }
-        
-        if (!plot.hasPermission(p.getUniqueId(), "BUILD", plugin)) cancelBuild(e, p);
+        checkBuild(e, p, plot, block);
     }
 
     // --- 6. BLOCK PLACE ---
@@ -259,30 +279,47 @@ public class ProtectionManager implements Listener {
             final String newMat = block.getType().toString();
             final UUID uuid = p.getUniqueId();
             final Location loc = block.getLocation();
-            plugin.runGlobalAsync(() -> plugin.store().logWildernessBlock(loc, oldMat, newMat, uuid));
+            plugin.store().logWildernessBlock(loc, oldMat, newMat, uuid); // Buffered, no async hop
             return;
         }
         
         if (plot == null) return;
         if (p.hasPermission("aegis.admin.bypass")) return;
-        
-        Zone zone = plot.getZoneAt(block.getLocation());
-        if (zone != null && zone.isRented()) {
-            if (!p.getUniqueId().equals(zone.getRenter()) && !p.getUniqueId().equals(plot.getOwner())) {
-                e.setCancelled(true);
-                p.sendMessage("§cThis zone is rented by " + Bukkit.getOfflinePlayer(zone.getRenter()).getName());
-                return;    
+
+        checkBuild(e, p, plot, block);
+    }
+
+    /**
+     * Shared break/place rules: rented zone, locked plot, server zone BUILD flag, role.
+     * Repeats (mining, bridging) are answered from the decision cache; plots with zones
+     * skip it because the outcome depends on the exact block.
+     */
+    private void checkBuild(org.bukkit.event.Cancellable e, Player p, Plot plot, Block block) {
+        UUID uuid = p.getUniqueId();
+        boolean zoned = !plot.getZones().isEmpty();
+
+        if (zoned) {
+            Zone zone = plot.getZoneAt(block.getLocation());
+            if (zone != null && zone.isRented()) {
+                if (!uuid.equals(zone.getRenter()) && !uuid.equals(plot.getOwner())) {
+                    e.setCancelled(true);
+                    p.sendMessage("§cThis zone is rented by " + Bukkit.getOfflinePlayer(zone.getRenter()).getName());
+                    return;
+                }
             }
         }
-        
-        if (isPlotLocked(p, plot)) { e.setCancelled(true); return; }
 
-        if (plot.isServerZone()) {
-            if (!plot.getFlag("build", false)) cancelBuild(e, p);
-            return;
+        long revision = plot.getProtectionRevision(); // Before evaluating: see DecisionCache.put
+        DecisionCache.Verdict verdict = zoned ? null : decisions.get(uuid, plot, RolePermission.BUILD);
+        if (verdict == null) {
+            if (isPlotLocked(p, plot)) verdict = DecisionCache.Verdict.LOCKED;
+            else if (plot.isServerZone()) verdict = plot.getFlag(PlotFlag.BUILD, false) ? DecisionCache.Verdict.ALLOW : DecisionCache.Verdict.DENY;
+            else verdict = plot.hasPermission(uuid, RolePermission.BUILD, plugin) ? DecisionCache.Verdict.ALLOW : DecisionCache.Verdict.DENY;
+            if (!zoned) decisions.put(uuid, plot, RolePermission.BUILD, verdict, revision);
         }
-        
-        if (!plot.hasPermission(p.getUniqueId(), "BUILD", plugin)) cancelBuild(e, p);
+
+        if (verdict == DecisionCache.Verdict.LOCKED) e.setCancelled(true);
+        else if (verdict == DecisionCache.Verdict.DENY) cancelBuild(e, p);
     }
 
     // --- 7. INTERACT ---
@@ -306,7 +343,8 @@ public class ProtectionManager implements Listener {
         if (zone != null && zone.isRented()) {
             boolean isRenter = p.getUniqueId().equals(zone.getRenter()) || p.getUniqueId().equals(plot.getOwner());
             if (!isRenter) {
-                if (plot.getFlag("shop-interact", false) && (isContainer(block.getType()) || isSign(block.getType()))) {
+                int categories = plugin.cfg().getBlockCategories(block.getType());
+                if (plot.getFlag(PlotFlag.SHOP_INTERACT, false) && (BlockCategory.CONTAINERS.in(categories) || BlockCategory.SIGNS.in(categories))) {
                     return;    
                 }
                 e.setCancelled(true);
@@ -315,22 +353,24 @@ public class ProtectionManager implements Listener {
             }
         }
         
-        boolean shopAllowed = plot.getFlag("shop-interact", false);
-        boolean isContainer = isContainer(block.getType());
-        boolean isInteractable = isInteractable(block.getType());
+        boolean shopAllowed = plot.getFlag(PlotFlag.SHOP_INTERACT, false);
+        int categories = plugin.cfg().getBlockCategories(block.getType());
+        boolean isContainer = BlockCategory.CONTAINERS.in(categories);
+        boolean isSign = BlockCategory.SIGNS.in(categories);
+        boolean isInteractable = (categories & BlockCategory.INTERACTABLE) != 0;
 
-        if (shopAllowed && (isContainer || isSign(block.getType()))) return;
+        if (shopAllowed && (isContainer || isSign)) return;
 
         if (plot.isServerZone()) {
-            if (isContainer && !plot.getFlag("containers", false)) cancelInteract(e, p, "containers");
-            else if (isInteractable && !plot.getFlag("interact", true)) cancelInteract(e, p, "interact");
+            if (isContainer && !plot.getFlag(PlotFlag.CONTAINERS, false)) cancelInteract(e, p, "containers");
+            else if (isInteractable && !plot.getFlag(PlotFlag.INTERACT, true)) cancelInteract(e, p, "interact");
             return;
         }
 
         if (isContainer) {
-            if (!plot.hasPermission(p.getUniqueId(), "CONTAINERS", plugin)) cancelInteract(e, p, "containers");
-        } else if (isInteractable && !isSign(block.getType())) {
-            if (!plot.getFlag("interact", true) || !plot.hasPermission(p.getUniqueId(), "INTERACT", plugin)) {
+            if (!plot.hasPermission(p.getUniqueId(), RolePermission.CONTAINERS, plugin)) cancelInteract(e, p, "containers");
+        } else if (isInteractable && !isSign) {
+            if (!plot.getFlag(PlotFlag.INTERACT, true) || !plot.hasPermission(p.getUniqueId(), RolePermission.INTERACT, plugin)) {
                 cancelInteract(e, p, "interact");
             }
         }
@@ -350,10 +390,10 @@ public class ProtectionManager implements Listener {
         if (plot == null) return;
         if (attacker.hasPermission("aegis.admin.bypass")) return;
         
-        boolean petsAllowed = plot.getFlag("pets", false);
+        boolean petsAllowed = plot.getFlag(PlotFlag.PETS, false);
         
         if (plot.isServerZone() || !petsAllowed) {
-            if (!plot.hasPermission(attacker.getUniqueId(), "PET_DAMAGE", plugin)) {
+            if (!plot.hasPermission(attacker.getUniqueId(), RolePermission.PET_DAMAGE, plugin)) {
                 e.setCancelled(true);
                 attacker.sendMessage(plugin.msg().get("cannot_interact"));
                 plugin.effects().playEffect("pets", "deny", attacker, pet.getLocation());
@@ -371,9 +411,9 @@ public class ProtectionManager implements Listener {
         if (plot == null) return;
         if (p.hasPermission("aegis.admin.bypass")) return;
 
-        boolean farmAllowed = plot.getFlag("farm", true);
+        boolean farmAllowed = plot.getFlag(PlotFlag.FARM, true);
         
-        if (!farmAllowed || !plot.hasPermission(p.getUniqueId(), "FARM_TRAMPLE", plugin)) {
+        if (!farmAllowed || !plot.hasPermission(p.getUniqueId(), RolePermission.FARM_TRAMPLE, plugin)) {
             e.setCancelled(true);
             plugin.effects().playEffect("farm", "deny", p, e.getClickedBlock().getLocation());
         }
@@ -381,14 +421,62 @@ public class ProtectionManager implements Listener {
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onEntityExplode(EntityExplodeEvent e) {
-        for (Block block : new ArrayList<>(e.blockList())) {
-            Plot plot = plugin.store().getPlotAt(block.getLocation());
-            if (plot != null) {
-                if (!plot.getFlag("tnt-damage", false)) {
-                    e.blockList().remove(block);
+        List<Block> blocks = e.blockList();
+        if (blocks.isEmpty()) return;
+
+        // 1. Bounding box of the blast, then one spatial query for it
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (Block b : blocks) {
+            int x = b.getX(), z = b.getZ();
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (z < minZ) minZ = z;
+            if (z > maxZ) maxZ = z;
+        }
+        String world = blocks.get(0).getWorld().getName();
+
+        List<Plot> guarded = new ArrayList<>();
+        for (Plot plot : plugin.store().getPlotsInArea(world, minX, minZ, maxX, maxZ)) {
+            if (!plot.getFlag(PlotFlag.TNT_DAMAGE, false)) guarded.add(plot);
+        }
+        if (guarded.isEmpty()) return;
+
+        // 2. Blast entirely inside one protected plot: nothing breaks
+        for (Plot p : guarded) {
+            if (minX >= p.getX1() && maxX <= p.getX2() && minZ >= p.getZ1() && maxZ <= p.getZ2()) {
+                blocks.clear();
+                return;
+            }
+        }
+
+        // 3. One pass; with many plots nearby each chunk only tests the plots overlapping it
+        Plot[] all = guarded.toArray(new Plot[0]);
+        ChunkPlotMap byChunk = all.length > 4 ? new ChunkPlotMap() : null;
+        blocks.removeIf(b -> {
+            int x = b.getX(), z = b.getZ();
+            Plot[] candidates = all;
+            if (byChunk != null) {
+                long key = ChunkPlotMap.key(x >> 4, z >> 4);
+                candidates = byChunk.cached(key);
+                if (candidates == null) {
+                    candidates = inChunk(all, x >> 4, z >> 4);
+                    byChunk.put(key, candidates);
                 }
             }
+            for (Plot p : candidates) {
+                if (x >= p.getX1() && x <= p.getX2() && z >= p.getZ1() && z <= p.getZ2()) return true;
+            }
+            return false;
+        });
+    }
+
+    private static Plot[] inChunk(Plot[] plots, int chunkX, int chunkZ) {
+        int x1 = chunkX << 4, z1 = chunkZ << 4, x2 = x1 + 15, z2 = z1 + 15;
+        List<Plot> hits = new ArrayList<>(2);
+        for (Plot p : plots) {
+            if (p.getX1() <= x2 && p.getX2() >= x1 && p.getZ1() <= z2 && p.getZ2() >= z1) hits.add(p);
         }
+        return hits.toArray(new Plot[0]);
     }
 
     // --- HELPER: APPLY BUFFS ---
@@ -399,7 +487,7 @@ public class ProtectionManager implements Listener {
         
         if (buffCooldowns.getOrDefault(p.getUniqueId(), 0L) > now) return;
         
-        if (!plot.hasPermission(p.getUniqueId(), "INTERACT", plugin)) return;
+        if (!plot.hasPermission(p.getUniqueId(), RolePermission.INTERACT, plugin)) return;
 
         int level = plot.getLevel();
         for (int i = 1; i <= level; i++) {
@@ -426,15 +514,15 @@ public class ProtectionManager implements Listener {
     
     public boolean isFlagEnabled(Plot plot, String flag) { return plot != null && plot.getFlag(flag, true); }
     public void toggleSafeZone(Plot plot, boolean state) { 
-        boolean newState = !plot.getFlag("safe_zone", false);
-        plot.setFlag("safe_zone", newState);
+        boolean newState = !plot.getFlag(PlotFlag.SAFE_ZONE, false);
+        plot.setFlag(PlotFlag.SAFE_ZONE, newState);
         if (newState) {
-            plot.setFlag("pvp", false); 
-            plot.setFlag("mobs", false); 
+            plot.setFlag(PlotFlag.PVP, false); 
+            plot.setFlag(PlotFlag.MOBS, false); 
         }
         plugin.store().setDirty(true);
     }
-    public boolean isSafeZoneEnabled(Plot plot) { return plot != null && plot.getFlag("safe_zone", false); }
+    public boolean isSafeZoneEnabled(Plot plot) { return plot != null && plot.getFlag(PlotFlag.SAFE_ZONE, false); }
     private boolean isPlotLocked(Player player, Plot plot) { return plot != null && !plugin.isAdmin(player) && !plot.getPlotStatus().equalsIgnoreCase("ACTIVE"); }
     private void bouncePlayer(Player p, PlayerMoveEvent e) { e.setCancelled(true); }
     
@@ -458,7 +546,4 @@ public class ProtectionManager implements Listener {
 
     private void cancelBuild(org.bukkit.event.Cancellable e, Player p) { e.setCancelled(true); p.sendMessage(plugin.msg().get("cannot_break")); plugin.effects().playError(p); }
     private void cancelInteract(org.bukkit.event.Cancellable e, Player p, String type) { e.setCancelled(true); p.sendMessage(plugin.msg().get("cannot_interact")); plugin.effects().playEffect(type, "deny", p, p.getLocation()); }
-    private boolean isContainer(Material type) { return type == Material.SHULKER_BOX || type.name().endsWith("_SHULKER_BOX") || type == Material.CHEST || type == Material.BARREL; } 
-    private boolean isSign(Material type) { return type.name().contains("SIGN"); }
-    private boolean isInteractable(Material type) { return type.name().contains("DOOR") || type.name().contains("BUTTON"); } 
 }
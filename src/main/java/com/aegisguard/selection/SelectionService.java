@@ -3,6 +3,7 @@ package com.aegisguard.selection;
 import com.aegisguard.AegisGuard;
 import com.aegisguard.api.events.PlotClaimEvent;
 import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
 import com.aegisguard.economy.CurrencyType;
 import com.aegisguard.hooks.DiscordWebhook;
 import org.bukkit.*;
@@ -137,9 +138,9 @@ public class SelectionService implements Listener {
         if (isServerClaim) {
             plot = new Plot(UUID.randomUUID(), Plot.SERVER_OWNER_UUID, "Server", 
                            l1.getWorld().getName(), minX, minZ, maxX, maxZ, now);
-            plot.setFlag("build", false);
-            plot.setFlag("pvp", false);
-            plot.setFlag("safe_zone", true);
+            plot.setFlag(PlotFlag.BUILD, false);
+            plot.setFlag(PlotFlag.PVP, false);
+            plot.setFlag(PlotFlag.SAFE_ZONE, true);
         } else {
             plot = new Plot(UUID.randomUUID(), p.getUniqueId(), p.getName(), 
                            l1.getWorld().getName(), minX, minZ, maxX, maxZ, now);
@@ -251,16 +252,14 @@ public class SelectionService implements Listener {
         int newX2 = Math.max(currentPlot.getX2(), targetPlot.getX2());
         int newZ2 = Math.max(currentPlot.getZ2(), targetPlot.getZ2());
 
-        // 1. Delete both old plots
-        plugin.store().removePlot(p.getUniqueId(), currentPlot.getPlotId());
+        // 1. Delete the absorbed plot
         plugin.store().removePlot(p.getUniqueId(), targetPlot.getPlotId());
 
-        // 2. Create mega plot
-        currentPlot.setX1(newX1); currentPlot.setZ1(newZ1);
-        currentPlot.setX2(newX2); currentPlot.setZ2(newZ2);
+        // 2. Grow the current plot into the mega plot (spatial index follows)
+        currentPlot.setBounds(newX1, newZ1, newX2, newZ2);
         
         // 3. Save
-        plugin.store().addPlot(currentPlot);
+        plugin.store().savePlot(currentPlot);
         
         // 4. Feedback
         plugin.msg().send(p, "merge_success");
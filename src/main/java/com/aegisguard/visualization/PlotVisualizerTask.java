@@ -49,7 +49,7 @@ public class PlotVisualizerTask extends BukkitRunnable {
             return;
         }
 
-        Plot currentPlot = plugin.store().getPlotAt(player.getLocation());
+        Plot currentPlot = plugin.regions().locate(player, player.getLocation());
 
         if (currentPlot != null) {
             if (!currentPlot.equals(lastPlot)) {
@@ -3,6 +3,7 @@ package com.aegisguard.world;
 import com.aegisguard.AegisGuard;
 import com.aegisguard.config.AGConfig;
 import com.aegisguard.data.Plot;
+import com.aegisguard.data.PlotFlag;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
@@ -83,20 +84,20 @@ public class WorldRulesManager {
         WorldRuleSet set = getRules(world);
         
         // Apply Main Protections
-        plot.setFlag("pvp", set.pvp);
-        plot.setFlag("mobs", set.mobs);
-        plot.setFlag("containers", set.containers);
-        plot.setFlag("pets", set.pets);
-        plot.setFlag("farm", set.farms);
-        plot.setFlag("fly", set.fly);
-        plot.setFlag("entry", set.entry);
+        plot.setFlag(PlotFlag.PVP, set.pvp);
+        plot.setFlag(PlotFlag.MOBS, set.mobs);
+        plot.setFlag(PlotFlag.CONTAINERS, set.containers);
+        plot.setFlag(PlotFlag.PETS, set.pets);
+        plot.setFlag(PlotFlag.FARM, set.farms);
+        plot.setFlag(PlotFlag.FLY, set.fly);
+        plot.setFlag(PlotFlag.ENTRY, set.entry);
         
         // Hardcoded safe defaults (usually always false/protected initially)
-        plot.setFlag("tnt-damage", false);
-        plot.setFlag("fire-spread", false);
-        plot.setFlag("piston-use", false);
-        plot.setFlag("interact", true); // Usually allow interaction by default for members
-        plot.setFlag("build", true);
+        plot.setFlag(PlotFlag.TNT_DAMAGE, false);
+        plot.setFlag(PlotFlag.FIRE_SPREAD, false);
+        plot.setFlag(PlotFlag.PISTON_USE, false);
+        plot.setFlag(PlotFlag.INTERACT, true); // Usually allow interaction by default for members
+        plot.setFlag(PlotFlag.BUILD, true);
     }
 
     private WorldRuleSet getRules(World world) {